@@ -0,0 +1,35 @@
+#!/usr/bin/env bash
+# Training run for the AppCDS archive of the prod build (called by mvn -Pprod package).
+# Starts the thin jar with -XX:ArchiveClassesAtExit, waits for the first successful GET /tasks so the classes of the
+# request path are loaded as well, then stops it; the JVM writes the archive while it exits.
+# Usage: scripts/cds-training.sh [prod-dir]   (default target/prod)
+set -euo pipefail
+
+dir="${1:-target/prod}"
+port="${CDS_TRAINING_PORT:-18181}"
+java="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+jar=$(ls "$dir"/*-prod.jar)
+
+rm -f "$dir/app.jsa"
+"$java" -XX:ArchiveClassesAtExit="$dir/app.jsa" -Dspring.aot.enabled=true \
+    -jar "$jar" --spring.profiles.active=prod --server.port="$port" > "$dir/cds-training.log" 2>&1 &
+pid=$!
+
+for _ in $(seq 1 1200); do
+    if curl -sf -o /dev/null "http://localhost:$port/tasks"; then
+        break
+    fi
+    if ! kill -0 "$pid" 2> /dev/null; then
+        echo "CDS training run exited early, see $dir/cds-training.log" >&2
+        exit 1
+    fi
+    sleep 0.05
+done
+
+kill -TERM "$pid"
+wait "$pid" || true # 143 after SIGTERM
+if [ ! -f "$dir/app.jsa" ]; then
+    echo "CDS training run did not write $dir/app.jsa, see $dir/cds-training.log" >&2
+    exit 1
+fi
+echo "CDS archive written to $dir/app.jsa ($(du -h "$dir/app.jsa" | cut -f1))"
@@ -0,0 +1,51 @@
+#!/usr/bin/env bash
+# Wire size and server CPU of the full GET /tasks list. Starts the given jar, imports N tasks, then sends R requests
+# without and with Accept-Encoding: gzip and reports the response size and the JVM's CPU time per request
+# (utime + stime of the whole process, so GC and JIT work caused by the requests is included).
+# Usage: scripts/get-tasks-benchmark.sh <jar> [tasks] [requests]   (defaults 10000 and 500)
+set -euo pipefail
+
+jar="$1"
+tasks="${2:-10000}"
+requests="${3:-500}"
+port="${BENCHMARK_PORT:-18080}"
+java="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+url="http://localhost:$port/tasks"
+log="${TMPDIR:-/tmp}/get-tasks-benchmark.log"
+
+"$java" -jar "$jar" --server.port="$port" > "$log" 2>&1 &
+pid=$!
+trap 'kill -TERM "$pid" 2> /dev/null; wait "$pid" || true' EXIT
+until curl -sf -o /dev/null "$url"; do
+    if ! kill -0 "$pid" 2> /dev/null; then
+        echo "JVM exited before serving GET /tasks, see $log" >&2
+        exit 1
+    fi
+    sleep 0.1
+done
+
+seq 1 "$tasks" | awk '{ printf "{\"title\":\"Task %d\",\"description\":\"Seeded for the GET /tasks benchmark\",\"deadline\":\"2030-01-%02d\",\"category\":\"Category %d\"}\n", $1, $1 % 28 + 1, $1 % 20 }' \
+    | curl -sf -o /dev/null -H "Content-Type: application/x-ndjson" --data-binary @- "$url/import"
+
+cpu_ticks() {
+    awk '{ print $14 + $15 }' "/proc/$pid/stat"
+}
+
+# prints "<bytes> <cpu ms per request>"
+measure() {
+    local bytes before after
+    for _ in $(seq 1 100); do curl -sf -o /dev/null "$@" "$url"; done # warm-up
+    bytes=$(curl -sf -o /dev/null -w '%{size_download}' "$@" "$url")
+    before=$(cpu_ticks)
+    for _ in $(seq 1 "$requests"); do curl -sf -o /dev/null "$@" "$url"; done
+    after=$(cpu_ticks)
+    echo "$bytes $(awk -v t=$((after - before)) -v hz="$(getconf CLK_TCK)" -v n="$requests" 'BEGIN { printf "%.2f", t * 1000 / hz / n }')"
+}
+
+echo "GET /tasks with $tasks tasks, $requests requests each ($(basename "$jar"))"
+printf "%-10s %12s %16s\n" "encoding" "bytes" "cpu ms/request"
+read -r bytes cpu < <(measure)
+printf "%-10s %12s %16s\n" identity "$bytes" "$cpu"
+read -r bytes cpu < <(measure -H "Accept-Encoding: gzip")
+printf "%-10s %12s %16s\n" gzip "$bytes" "$cpu"
+echo "HTTP version with --http2 (h2c upgrade): $(curl -s -o /dev/null --http2 -w '%{http_version}' "$url")"
@@ -0,0 +1,61 @@
+#!/usr/bin/env bash
+# Startup benchmark: milliseconds from JVM launch to the first successful GET /tasks, and the resident set size of
+# the JVM at that moment, for
+#   default   - java -jar on the regular fat jar (ddl-auto=update, devtools/Thymeleaf/H2 console on the class path)
+#   prod      - the mvn -Pprod thin jar with AOT and lazy init, no CDS archive
+#   prod+cds  - the same with the AppCDS archive from the build's training run
+# Usage: scripts/startup-benchmark.sh [runs]   (default 5 runs per setup, reports the median)
+set -euo pipefail
+
+runs="${1:-5}"
+port="${BENCHMARK_PORT:-18080}"
+java="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+cd "$(dirname "$0")/.."
+
+echo "Building the default jar..."
+mvn -B -q clean package -DskipTests
+mkdir -p target/benchmark
+cp target/TODOListAssignment-*-SNAPSHOT.jar target/benchmark/default.jar
+
+echo "Building the prod jar and CDS archive..."
+mvn -B -q clean package -Pprod -DskipTests > /dev/null # builds in target/prod, so default.jar stays
+prod_jar=$(ls target/prod/*-prod.jar)
+
+# runs one JVM until GET /tasks answers 200, prints "<ms> <rss kB>" and stops it
+measure() {
+    local start pid ms rss
+    start=$(date +%s%N)
+    "$java" "$@" --server.port="$port" > target/benchmark/last-run.log 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "http://localhost:$port/tasks"; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "JVM exited before serving GET /tasks, see target/benchmark/last-run.log" >&2
+            exit 1
+        fi
+        sleep 0.01
+    done
+    ms=$(( ($(date +%s%N) - start) / 1000000 ))
+    rss=$(awk '/VmRSS/ { print $2 }' "/proc/$pid/status")
+    kill -TERM "$pid"
+    wait "$pid" || true
+    echo "$ms $rss"
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+report() {
+    local label=$1 results
+    shift
+    results=$(for _ in $(seq 1 "$runs"); do measure "$@"; done)
+    printf "%-10s %10s ms %10s MB\n" "$label" \
+        "$(cut -d' ' -f1 <<< "$results" | median)" \
+        "$(( $(cut -d' ' -f2 <<< "$results" | median) / 1024 ))"
+}
+
+echo
+printf "%-10s %13s %13s   (median of %s runs)\n" "setup" "first GET" "RSS" "$runs"
+report default -jar target/benchmark/default.jar
+report prod -Dspring.aot.enabled=true -jar "$prod_jar"
+report prod+cds -XX:SharedArchiveFile=target/prod/app.jsa -Dspring.aot.enabled=true -jar "$prod_jar"
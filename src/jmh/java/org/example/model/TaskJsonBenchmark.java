@@ -0,0 +1,81 @@
+package org.example.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskJsonBenchmark {
+
+    // "blackbird" matches the application's ObjectMapper since JacksonConfig, "reflection" is plain Jackson
+    @Param({"reflection", "blackbird"})
+    public String accessors;
+
+    private ObjectWriter writer;
+    private ObjectWriter listWriter;
+    private ObjectReader reader;
+    private Task task;
+    private List<Task> tasks;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Same settings Spring Boot applies to the application's ObjectMapper
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (accessors.equals("blackbird")) {
+            objectMapper.registerModule(new BlackbirdModule());
+        }
+        writer = objectMapper.writerFor(Task.class);
+        reader = objectMapper.readerFor(Task.class);
+
+        task = new Task(42L, "Write benchmarks", "Cover the service, validation and JSON paths", LocalDate.of(2024, 9, 5), "Work");
+        task.setVersion(3L);
+        task.setModSeq(1234L);
+        json = writer.writeValueAsBytes(task);
+
+        // The body of GET /tasks at 10k tasks
+        tasks = new ArrayList<>();
+        for (long id = 1; id <= 10_000; id++) {
+            Task listed = new Task(id, "Task " + id, "Seeded for the GET /tasks benchmark", LocalDate.of(2030, 1, 1).plusDays(id % 28), "Category " + id % 20);
+            listed.setVersion(0L);
+            listed.setModSeq(id);
+            tasks.add(listed);
+        }
+        listWriter = objectMapper.writerFor(TypeFactory.defaultInstance().constructCollectionType(List.class, Task.class));
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return writer.writeValueAsBytes(task);
+    }
+
+    // Written to a discarding stream like the message converter writes to the response, so only Jackson is measured
+    @Benchmark
+    public void serializeList() throws IOException {
+        listWriter.writeValue(OutputStream.nullOutputStream(), tasks);
+    }
+
+    @Benchmark
+    public Task deserialize() throws IOException {
+        return reader.readValue(json);
+    }
+}
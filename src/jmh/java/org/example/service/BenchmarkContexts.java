@@ -0,0 +1,23 @@
+package org.example.service;
+
+import org.example.TodoListAssignmentApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// Starts the real application (JPA, H2, caches, listeners) without the web server
+final class BenchmarkContexts {
+
+    private BenchmarkContexts() {
+    }
+
+    static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(TodoListAssignmentApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.root=WARN", "spring.main.banner-mode=off",
+                        // JMH tears the context down itself, H2 should not race it at JVM exit
+                        "spring.datasource.url=jdbc:h2:mem:testdb;DB_CLOSE_ON_EXIT=FALSE")
+                .properties(properties)
+                .run();
+    }
+}
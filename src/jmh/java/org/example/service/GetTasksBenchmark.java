@@ -0,0 +1,48 @@
+package org.example.service;
+
+import org.example.model.Task;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Full-list read at different table sizes. The heap is raised because 1M hydrated entities do not fit the default.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class GetTasksBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start();
+        taskService = context.getBean(TaskService.class);
+
+        // Seeding through JPA would take minutes at 1M rows, so generate the rows inside H2
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("INSERT INTO task (id, title, description, status, deadline, category, version, mod_seq)"
+                + " SELECT x, 'Task ' || x, 'Seeded for the getTasks benchmark', 'PENDING',"
+                + " DATEADD('DAY', MOD(x, 365), CURRENT_DATE), 'Category ' || MOD(x, 20), 0, x"
+                + " FROM SYSTEM_RANGE(1, ?)", rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Task> getTasks() {
+        return taskService.getTasks();
+    }
+}
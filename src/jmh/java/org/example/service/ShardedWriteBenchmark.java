@@ -0,0 +1,60 @@
+package org.example.service;
+
+import org.example.model.Task;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Write throughput through the service with the tasks on one database (shards = 0) or spread over N shards.
+// Run with -Djmh.args="ShardedWriteBenchmark -t 8" and so on to see how it grows with the writer count.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class ShardedWriteBenchmark {
+
+    @Param({"0", "1", "2", "4"})
+    public int shards;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private List<Long> existingIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = shards == 0
+                ? BenchmarkContexts.start()
+                : BenchmarkContexts.start("spring.profiles.active=sharded", "tasks.sharding.shards=" + shards,
+                        "tasks.sharding.url=jdbc:h2:mem:bench-" + shards + "-shard-{shard};DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+        taskService = context.getBean(TaskService.class);
+        existingIds = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            existingIds.add(taskService.addTask(new Task(null, "Existing task " + i, "Updated over and over",
+                    LocalDate.now(), "Bench " + i % 10)).getId());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Task addTask() {
+        return taskService.addTask(new Task(null, "New task", "Created by the benchmark", LocalDate.now(), "Bench"));
+    }
+
+    // Random tasks, so concurrent writers rarely collide on one row
+    @Benchmark
+    public Task markAsCompleted() {
+        return taskService.markAsCompleted(existingIds.get(ThreadLocalRandom.current().nextInt(existingIds.size())));
+    }
+}
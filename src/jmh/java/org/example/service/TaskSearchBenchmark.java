@@ -0,0 +1,56 @@
+package org.example.service;
+
+import org.example.model.Task;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Query latency of the in-memory search index at up to a million tasks
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class TaskSearchBenchmark {
+
+    private static final String[] WORDS = {
+            "plan", "review", "write", "call", "book", "pay", "fix", "update", "prepare", "send",
+            "report", "invoice", "meeting", "budget", "flight", "dentist", "groceries", "release", "draft", "contract"};
+
+    @Param({"100000", "1000000"})
+    private int tasks;
+
+    private TaskSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new TaskSearchIndex();
+        SplittableRandom random = new SplittableRandom(42);
+        for (long id = 1; id <= tasks; id++) {
+            // A few common words plus one rare token per task, like a ticket number in a title
+            String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " t" + id;
+            String description = WORDS[random.nextInt(WORDS.length)] + " notes for " + WORDS[random.nextInt(WORDS.length)];
+            index.put(new Task(id, title, description, LocalDate.now(), "Category"));
+        }
+    }
+
+    @Benchmark
+    public List<Long> rareTerm() {
+        return index.search("t424242", 20);
+    }
+
+    @Benchmark
+    public List<Long> rarePrefix() {
+        return index.search("t42424", 20);
+    }
+
+    // Two words that each match about a tenth of the tasks, so this is the expensive end
+    @Benchmark
+    public List<Long> commonTerms() {
+        return index.search("invoice budg", 20);
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.service;
+
+import org.example.model.Task;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+// Write paths through the real service, repository and in-memory H2
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskServiceBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private Long existingId;
+    private Task details;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start();
+        taskService = context.getBean(TaskService.class);
+        existingId = taskService.addTask(new Task(null, "Existing task", "Updated over and over", LocalDate.now(), "Bench")).getId();
+        details = new Task(existingId, "Updated task", "Updated over and over", LocalDate.now().plusDays(1), "Bench");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Task addTask() {
+        return taskService.addTask(new Task(null, "New task", "Created by the benchmark", LocalDate.now(), "Bench"));
+    }
+
+    @Benchmark
+    public Task updateTask() {
+        return taskService.updateTask(existingId, details);
+    }
+
+    @Benchmark
+    public Task markAsCompleted() {
+        return taskService.markAsCompleted(existingId);
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.model.Task;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskValidationBenchmark {
+
+    private TaskValidator taskValidator;
+    private Task validTask;
+    private Task invalidTask;
+
+    @Setup
+    public void setUp() {
+        taskValidator = new TaskValidator(new SimpleMeterRegistry());
+        validTask = new Task(1L, "Valid Title", "Valid description", LocalDate.now(), "Category");
+        invalidTask = new Task(1L, "A", "Valid description", LocalDate.now(), "Category");
+    }
+
+    @Benchmark
+    public Task validTask() {
+        taskValidator.validate(validTask);
+        return validTask;
+    }
+
+    // Rejections build a ResponseStatusException with a full stack trace
+    @Benchmark
+    public Object invalidTask() {
+        try {
+            taskValidator.validate(invalidTask);
+            return null;
+        } catch (ResponseStatusException ex) {
+            return ex;
+        }
+    }
+}
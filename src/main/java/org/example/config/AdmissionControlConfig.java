@@ -0,0 +1,85 @@
+package org.example.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.controller.AdmissionControlInterceptor;
+import org.example.service.AdmissionLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// tasks.admission.enabled=true puts an adaptive concurrency limit in front of TaskController, one for reads and one
+// for writes, so a spike gets fast 503s for the excess instead of every request timing out together
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "tasks.admission.enabled", havingValue = "true")
+public class AdmissionControlConfig implements WebMvcConfigurer {
+
+    private final MeterRegistry meterRegistry;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int queueSize;
+    private final long maxWaitMillis;
+    private final long readTargetLatencyMillis;
+    private final long writeTargetLatencyMillis;
+    private final long retryAfterSeconds;
+
+    public AdmissionControlConfig(MeterRegistry meterRegistry,
+                                  @Value("${tasks.admission.initial-limit:20}") int initialLimit,
+                                  @Value("${tasks.admission.min-limit:2}") int minLimit,
+                                  @Value("${tasks.admission.max-limit:200}") int maxLimit,
+                                  @Value("${tasks.admission.queue-size:20}") int queueSize,
+                                  @Value("${tasks.admission.max-wait-ms:50}") long maxWaitMillis,
+                                  @Value("${tasks.admission.read.target-latency-ms:200}") long readTargetLatencyMillis,
+                                  @Value("${tasks.admission.write.target-latency-ms:500}") long writeTargetLatencyMillis,
+                                  @Value("${tasks.admission.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.meterRegistry = meterRegistry;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.queueSize = queueSize;
+        this.maxWaitMillis = maxWaitMillis;
+        this.readTargetLatencyMillis = readTargetLatencyMillis;
+        this.writeTargetLatencyMillis = writeTargetLatencyMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Bean
+    public AdmissionLimiter readAdmissionLimiter() {
+        return limiter("read", readTargetLatencyMillis);
+    }
+
+    @Bean
+    public AdmissionLimiter writeAdmissionLimiter() {
+        return limiter("write", writeTargetLatencyMillis);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AdmissionControlInterceptor(readAdmissionLimiter(), writeAdmissionLimiter(),
+                retryAfterSeconds, meterRegistry));
+    }
+
+    private AdmissionLimiter limiter(String name, long targetLatencyMillis) {
+        AdmissionLimiter limiter = new AdmissionLimiter(name, initialLimit, minLimit, maxLimit,
+                queueSize, maxWaitMillis, targetLatencyMillis);
+        Gauge.builder("tasks.admission.limit", limiter, AdmissionLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("class", name)
+                .register(meterRegistry);
+        Gauge.builder("tasks.admission.in.flight", limiter, AdmissionLimiter::getInFlight)
+                .description("Admitted requests still being handled")
+                .tag("class", name)
+                .register(meterRegistry);
+        Gauge.builder("tasks.admission.waiting", limiter, AdmissionLimiter::getWaiting)
+                .description("Requests waiting in the admission queue")
+                .tag("class", name)
+                .register(meterRegistry);
+        return limiter;
+    }
+}
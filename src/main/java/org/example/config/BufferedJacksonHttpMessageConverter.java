@@ -0,0 +1,101 @@
+package org.example.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// Jackson's converter streams straight into the response, so Tomcat never learns the size and gzips even tiny bodies
+// (server.compression.min-response-size only works with a Content-Length). This one writes into a pooled buffer first:
+// a body that fits goes out in one write with its Content-Length, a bigger one spills over into the response stream
+// and stays chunked, which is fine because it is over the threshold anyway.
+public class BufferedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    static final int BUFFER_SIZE = 16 * 1024;
+    private static final int POOL_SIZE = 64;
+
+    // Fixed-size buffers, so the pool never holds more than POOL_SIZE * BUFFER_SIZE no matter how big responses get
+    private final BlockingQueue<byte[]> pool = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    public BufferedJacksonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        byte[] buffer = pool.poll();
+        if (buffer == null) {
+            buffer = new byte[BUFFER_SIZE];
+        }
+        try {
+            SpillingOutputStream body = new SpillingOutputStream(buffer, outputMessage);
+            super.writeInternal(object, type, new HttpOutputMessage() {
+                @Override
+                public OutputStream getBody() {
+                    return body;
+                }
+
+                @Override
+                public HttpHeaders getHeaders() {
+                    return outputMessage.getHeaders();
+                }
+            });
+            body.finish();
+        } finally {
+            pool.offer(buffer);
+        }
+    }
+
+    private static final class SpillingOutputStream extends OutputStream {
+
+        private final byte[] buffer;
+        private final HttpOutputMessage target;
+        private int count;
+        private OutputStream spilled;
+
+        SpillingOutputStream(byte[] buffer, HttpOutputMessage target) {
+            this.buffer = buffer;
+            this.target = target;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (spilled == null && count + length <= buffer.length) {
+                System.arraycopy(bytes, offset, buffer, count, length);
+                count += length;
+                return;
+            }
+            if (spilled == null) {
+                spilled = target.getBody();
+                spilled.write(buffer, 0, count);
+            }
+            spilled.write(bytes, offset, length);
+        }
+
+        // Jackson flushes its generator at the end, which must not commit a response we may still set the length on
+        @Override
+        public void flush() throws IOException {
+            if (spilled != null) {
+                spilled.flush();
+            }
+        }
+
+        void finish() throws IOException {
+            if (spilled == null) {
+                target.getHeaders().setContentLength(count);
+                target.getBody().write(buffer, 0, count);
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// The cache itself (Caffeine, size, TTL, stats) is configured through spring.cache.* in application.properties
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String TASK_CACHE = "tasks";
+}
@@ -0,0 +1,25 @@
+package org.example.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Spring Boot registers every Module bean with the one shared ObjectMapper, which the HTTP message converters,
+// the snapshot, export and import services all use. Blackbird swaps Jackson's reflective getter/setter calls
+// for generated lambdas, which is most of the per-task cost of writing a large GET /tasks response.
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    // Replaces Spring Boot's MappingJackson2HttpMessageConverter, see the class for why
+    @Bean
+    public BufferedJacksonHttpMessageConverter bufferedJacksonHttpMessageConverter(ObjectMapper objectMapper) {
+        return new BufferedJacksonHttpMessageConverter(objectMapper);
+    }
+}
@@ -0,0 +1,10 @@
+package org.example.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Background jobs (task archiver, overdue scanner) run on Spring's scheduler, configured through spring.task.scheduling.*
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
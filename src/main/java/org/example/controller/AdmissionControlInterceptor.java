@@ -0,0 +1,98 @@
+package org.example.controller;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.exception.AdmissionRejectedException;
+import org.example.service.AdmissionLimiter;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+// Puts TaskController requests through the read (GET/HEAD) or write limiter. A rejection surfaces as
+// AdmissionRejectedException, which GlobalExceptionHandler turns into 503 + Retry-After.
+public class AdmissionControlInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String ADMISSION_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".admission";
+
+    private final AdmissionLimiter readLimiter;
+    private final AdmissionLimiter writeLimiter;
+    private final long retryAfterSeconds;
+    private final Counter readsRejected;
+    private final Counter writesRejected;
+
+    private record Admission(AdmissionLimiter limiter, AdmissionLimiter.Permit permit, boolean measured) {
+    }
+
+    public AdmissionControlInterceptor(AdmissionLimiter readLimiter, AdmissionLimiter writeLimiter,
+                                       long retryAfterSeconds, MeterRegistry meterRegistry) {
+        this.readLimiter = readLimiter;
+        this.writeLimiter = writeLimiter;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.readsRejected = rejectedCounter(readLimiter, meterRegistry);
+        this.writesRejected = rejectedCounter(writeLimiter, meterRegistry);
+    }
+
+    private static Counter rejectedCounter(AdmissionLimiter limiter, MeterRegistry meterRegistry) {
+        return Counter.builder("tasks.admission.rejected")
+                .description("Requests turned away with 503 because the concurrency limit and its queue were full")
+                .tag("class", limiter.getName())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        // The async dispatch that finishes a stream was already admitted (and released) on the way in
+        if (!(handler instanceof HandlerMethod method) || method.getBeanType() != TaskController.class
+                || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        boolean read = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+        AdmissionLimiter limiter = read ? readLimiter : writeLimiter;
+        AdmissionLimiter.Permit permit = limiter.tryAcquire();
+        if (permit == null) {
+            (read ? readsRejected : writesRejected).increment();
+            throw new AdmissionRejectedException("Too many concurrent " + limiter.getName() + " requests, try again later",
+                    retryAfterSeconds);
+        }
+        request.setAttribute(ADMISSION_ATTRIBUTE, new Admission(limiter, permit, !unbounded(method, request)));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Admission admission = takeAdmission(request);
+        if (admission == null) {
+            return;
+        }
+        if (admission.measured()) {
+            admission.limiter().release(admission.permit(), ex != null || response.getStatus() >= 500);
+        } else {
+            admission.limiter().releaseUnmeasured(admission.permit());
+        }
+    }
+
+    // The whole task list and imports take as long as the data is big and the client is slow; like streams, their
+    // duration says nothing about load, so they hold a slot but don't move the limit
+    private static boolean unbounded(HandlerMethod method, HttpServletRequest request) {
+        String name = method.getMethod().getName();
+        return name.equals("importTasks") || (name.equals("getTasks") && request.getParameterMap().isEmpty());
+    }
+
+    // Export and SSE keep writing long after the handler returned, so they give their slot back right away
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Admission admission = takeAdmission(request);
+        if (admission != null) {
+            admission.limiter().releaseUnmeasured(admission.permit());
+        }
+    }
+
+    private static Admission takeAdmission(HttpServletRequest request) {
+        Admission admission = (Admission) request.getAttribute(ADMISSION_ATTRIBUTE);
+        request.removeAttribute(ADMISSION_ATTRIBUTE);
+        return admission;
+    }
+}
@@ -0,0 +1,108 @@
+package org.example.controller;
+
+import org.example.event.ReactiveTaskEventBroadcaster;
+import org.example.event.TaskEvent;
+import org.example.model.Task;
+import org.example.model.TaskChanges;
+import org.example.model.TaskStats;
+import org.example.service.ReactiveTaskService;
+import org.example.service.TaskSearchService;
+import org.example.service.TaskService;
+import org.example.service.TaskStatsService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+// The task API on WebFlux (profile "reactive"), same paths and status codes as TaskController for the core operations
+@CrossOrigin(origins = "http://localhost") // Adjust the port if your HTML is served from a different one
+@RestController
+@Profile("reactive")
+@RequestMapping("/tasks")
+public class ReactiveTaskController {
+
+    private final ReactiveTaskService taskService;
+    private final TaskStatsService taskStatsService;
+    private final TaskSearchService taskSearchService;
+    private final TaskService changeFeedService;
+    private final ReactiveTaskEventBroadcaster taskEventBroadcaster;
+
+    public ReactiveTaskController(ReactiveTaskService taskService, TaskStatsService taskStatsService,
+                                  TaskSearchService taskSearchService, TaskService changeFeedService,
+                                  ReactiveTaskEventBroadcaster taskEventBroadcaster) {
+        this.taskService = taskService;
+        this.taskStatsService = taskStatsService;
+        this.taskSearchService = taskSearchService;
+        this.changeFeedService = changeFeedService;
+        this.taskEventBroadcaster = taskEventBroadcaster;
+    }
+
+    @PostMapping
+    public Mono<Task> addTask(@RequestBody Task task) {
+        return taskService.addTask(task);
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Task>> updateTask(@PathVariable Long id, @RequestBody Task task) {
+        return taskService.updateTask(id, task)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteTask(@PathVariable Long id) {
+        return taskService.deleteTask(id)
+                .map(deleted -> deleted ? ResponseEntity.noContent().<Void>build() : ResponseEntity.notFound().<Void>build());
+    }
+
+    // Written to the response as rows arrive, as a JSON array or as NDJSON (Accept: application/x-ndjson)
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Task> getTasks(@RequestParam(required = false) Long after,
+                               @RequestParam(required = false) Integer limit) {
+        return taskService.getTasks(after, limit);
+    }
+
+    // Incremental refresh, the same feed as TaskController's. TaskService reads it over JPA, and TaskStatsService
+    // and TaskSearchService are JPA based too, so these run off the event loop
+    @GetMapping("/changes")
+    public Mono<TaskChanges> getChanges(@RequestParam(defaultValue = "0") Long since,
+                                        @RequestParam(required = false) Integer limit) {
+        return Mono.fromCallable(() -> changeFeedService.getChanges(since, limit)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @GetMapping("/stats")
+    public Mono<TaskStats> getStats() {
+        return Mono.fromCallable(taskStatsService::getStats).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @GetMapping("/search")
+    public Flux<Task> searchTasks(@RequestParam String q, @RequestParam(required = false) Integer limit) {
+        return Mono.fromCallable(() -> taskSearchService.search(q, limit))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapIterable(tasks -> tasks);
+    }
+
+    // Push channel: one SSE event (CREATED, UPDATED, COMPLETED, DELETED or BULK) per committed write
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<TaskEvent>> streamTasks() {
+        return taskEventBroadcaster.subscribe();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Task>> getTask(@PathVariable Long id) {
+        return taskService.getTask(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PutMapping("/{id}/complete")
+    public Mono<ResponseEntity<Task>> markAsCompleted(@PathVariable Long id) {
+        return taskService.markAsCompleted(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
@@ -1,20 +1,56 @@
 package org.example.controller;
 
-
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.example.event.TaskEventBroadcaster;
 import org.example.exception.TaskNotFoundException;
+import org.example.model.ArchivedTask;
+import org.example.model.ArchivedTaskPage;
+import org.example.model.ImportSummary;
+import org.example.model.IngestTicket;
 import org.example.model.Task;
+import org.example.model.TaskChanges;
+import org.example.model.TaskPage;
+import org.example.model.TaskSnapshot;
+import org.example.model.TaskStats;
+import org.example.service.TaskArchiveService;
+import org.example.service.TaskExportService;
+import org.example.service.TaskImportService;
+import org.example.service.TaskIngestService;
+import org.example.service.TaskSearchService;
 import org.example.service.TaskService;
+import org.example.service.TaskSnapshotService;
+import org.example.service.TaskStatsService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 
-@CrossOrigin(origins = "http://localhost") // Adjust the port if your HTML is served from a different one
+@CrossOrigin(origins = "http://localhost", exposedHeaders = {TaskController.NEXT_CURSOR_HEADER, HttpHeaders.LOCATION, HttpHeaders.ETAG}) // Adjust the port if your HTML is served from a different one
 @RestController
+@Profile("!reactive") // ReactiveTaskController serves /tasks in the reactive profile
 @RequestMapping("/tasks")
 public class TaskController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String NDJSON_VALUE = "application/x-ndjson";
+    static final String TEXT_CSV_VALUE = "text/csv";
+    static final String RETURN_MINIMAL = "return=minimal";
+    static final String RESPOND_ASYNC = "respond-async";
+    static final String MERGE_PATCH_VALUE = "application/merge-patch+json";
+
 //    FOR AT TESTE IN MEMORY DATABASEN:
 //    Open your browser and navigate to http://localhost:8080/h2-console.
 //    Use the following settings:
@@ -24,14 +60,74 @@ public class TaskController {
 //    Click on "Connect".
     
     private final TaskService taskService;
+    private final TaskExportService taskExportService;
+    private final TaskSnapshotService taskSnapshotService;
+    private final TaskEventBroadcaster taskEventBroadcaster;
+    private final TaskStatsService taskStatsService;
+    private final TaskSearchService taskSearchService;
+    private final TaskIngestService taskIngestService;
+    private final TaskArchiveService taskArchiveService;
+    private final TaskImportService taskImportService;
 
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, TaskExportService taskExportService,
+                          TaskSnapshotService taskSnapshotService, TaskEventBroadcaster taskEventBroadcaster,
+                          TaskStatsService taskStatsService, TaskSearchService taskSearchService,
+                          TaskIngestService taskIngestService, TaskArchiveService taskArchiveService,
+                          TaskImportService taskImportService) {
         this.taskService = taskService;
+        this.taskExportService = taskExportService;
+        this.taskSnapshotService = taskSnapshotService;
+        this.taskEventBroadcaster = taskEventBroadcaster;
+        this.taskStatsService = taskStatsService;
+        this.taskSearchService = taskSearchService;
+        this.taskIngestService = taskIngestService;
+        this.taskArchiveService = taskArchiveService;
+        this.taskImportService = taskImportService;
     }
 
+    // With write-behind ingestion (tasks.ingest.enabled or "Prefer: respond-async") the task is validated,
+    // queued and answered with 202 and a ticket to poll at the Location header
     @PostMapping
-    public Task addTask(@RequestBody Task task) {
-        return taskService.addTask(task);
+    public ResponseEntity<?> addTask(@RequestBody Task task,
+                                     @RequestHeader(value = "Prefer", required = false) String prefer) {
+        if (taskIngestService.isEnabled() || RESPOND_ASYNC.equalsIgnoreCase(prefer)) {
+            IngestTicket ticket = taskIngestService.submit(task);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/tasks/ingest/" + ticket.id()))
+                    .body(ticket);
+        }
+        return ResponseEntity.ok(taskService.addTask(task));
+    }
+
+    @GetMapping("/ingest/{ticket}")
+    public ResponseEntity<IngestTicket> getIngestTicket(@PathVariable String ticket) {
+        return ResponseEntity.of(taskIngestService.getTicket(ticket));
+    }
+
+    @PostMapping("/batch")
+    public List<Task> addTasks(@RequestBody List<Task> tasks) {
+        return taskService.addTasks(tasks);
+    }
+
+    // Bulk import of a CSV file (with a header row) or NDJSON, parsed while the body streams in.
+    // Invalid rows are skipped and listed with their line number in the summary, valid ones are stored.
+    @PostMapping(value = "/import", consumes = {TEXT_CSV_VALUE, NDJSON_VALUE})
+    public ImportSummary importTasks(InputStream body,
+                                     @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType) throws IOException {
+        TaskImportService.Format format = MediaType.parseMediaType(contentType)
+                .isCompatibleWith(MediaType.parseMediaType(NDJSON_VALUE))
+                ? TaskImportService.Format.NDJSON : TaskImportService.Format.CSV;
+        return taskImportService.importTasks(body, format);
+    }
+
+    @PutMapping("/batch")
+    public List<Task> updateTasks(@RequestBody List<Task> tasks) {
+        return taskService.updateTasks(tasks);
+    }
+
+    @PutMapping("/batch/complete")
+    public List<Task> markAllAsCompleted(@RequestBody List<Long> ids) {
+        return taskService.markAllAsCompleted(ids);
     }
 
     @PutMapping("/{id}")
@@ -39,6 +135,14 @@ public class TaskController {
         return taskService.updateTask(id, task);
     }
 
+    // Partial update: only the fields in the body change (JSON Merge Patch). Send the ETag from GET /tasks/{id} as
+    // If-Match to get a 412 instead of overwriting someone else's newer edit.
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Task> patchTask(@PathVariable Long id, @RequestBody ObjectNode patch,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return withETag(taskService.patchTask(id, patch, expectedVersion(ifMatch)));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<String> deleteTask(@PathVariable Long id) {
         try {
@@ -49,13 +153,184 @@ public class TaskController {
         }
     }
 
+    // Deletes completed tasks with a deadline before the given date and returns how many were removed
+    @DeleteMapping("/completed")
+    public int deleteCompletedTasks(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate before) {
+        return taskService.deleteCompletedTasksBefore(before);
+    }
+
+    // Without any parameters this still returns the whole list (from the snapshot when that mode is on).
+    // Passing a cursor, a limit or a filter switches to keyset paging; the cursor for the next page
+    // comes back in the X-Next-Cursor header.
     @GetMapping
-    public List<Task> getTasks() {
-        return taskService.getTasks();
+    public ResponseEntity<?> getTasks(@RequestParam(required = false) Long after,
+                                      @RequestParam(required = false) Integer limit,
+                                      @RequestParam(required = false) Task.TaskStatus status,
+                                      @RequestParam(required = false) String category,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate deadlineFrom,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate deadlineTo,
+                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        if (after == null && limit == null && status == null && category == null
+                && deadlineFrom == null && deadlineTo == null) {
+            if (taskSnapshotService.isEnabled()) {
+                return snapshotResponse(ifNoneMatch, acceptEncoding);
+            }
+            return ResponseEntity.ok(taskService.getTasks());
+        }
+
+        TaskPage page = taskService.getTaskPage(after, limit, status, category, deadlineFrom, deadlineTo);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.nextCursor()));
+        }
+        return response.body(page.tasks());
+    }
+
+    // Completed tasks the archiver moved out of the live list, keyset paged like GET /tasks
+    @GetMapping("/archive")
+    public ResponseEntity<List<ArchivedTask>> getArchivedTasks(@RequestParam(required = false) Long after,
+                                                               @RequestParam(required = false) Integer limit) {
+        ArchivedTaskPage page = taskArchiveService.getArchivePage(after, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.nextCursor()));
+        }
+        return response.body(page.tasks());
+    }
+
+    // Incremental refresh: send the version from the previous response (0 for the first call)
+    @GetMapping("/changes")
+    public TaskChanges getChanges(@RequestParam(defaultValue = "0") Long since,
+                                  @RequestParam(required = false) Integer limit) {
+        return taskService.getChanges(since, limit);
+    }
+
+    // Dashboard counts per status and category plus overdue tasks, instead of downloading the whole list
+    @GetMapping("/stats")
+    public TaskStats getStats() {
+        return taskStatsService.getStats();
+    }
+
+    // Ranked search over title and description; the last word also matches as a prefix
+    @GetMapping("/search")
+    public List<Task> searchTasks(@RequestParam String q, @RequestParam(required = false) Integer limit) {
+        return taskSearchService.search(q, limit);
+    }
+
+    // Push channel: one SSE event (CREATED, UPDATED, COMPLETED, DELETED or BULK) per committed write
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTasks() {
+        return taskEventBroadcaster.subscribe();
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Task> getTask(@PathVariable Long id) {
+        return withETag(taskService.getTask(id));
+    }
+
+    // Bulk export as newline-delimited JSON, streamed straight from a database cursor
+    @GetMapping(value = "/export", produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTasks() {
+        StreamingResponseBody body = out -> taskExportService.exportTasks(out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON_VALUE))
+                .body(body);
+    }
+
+    // The task's version is its ETag
+    private static ResponseEntity<Task> withETag(Task task) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (task.getVersion() != null) {
+            response.eTag(String.valueOf(task.getVersion()));
+        }
+        return response.body(task);
+    }
+
+    // "*" (or no header) only needs the task to exist. Weak, listed or otherwise unparseable tags can never match
+    // a version, so they get the 412.
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException ex) {
+            return -1L;
+        }
+    }
+
+    // 304 when the client already has the current snapshot, otherwise its JSON or gzip bytes. The two are different
+    // representations, so the gzip bytes get the snapshot's ETag with a -gz suffix.
+    private ResponseEntity<byte[]> snapshotResponse(String ifNoneMatch, String acceptEncoding) {
+        TaskSnapshot snapshot = taskSnapshotService.current();
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String etag = gzip ? snapshot.etag().substring(0, snapshot.etag().length() - 1) + "-gz\"" : snapshot.etag();
+        if (ifNoneMatch != null && (ifNoneMatch.trim().equals("*") || Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .anyMatch(etag::equals))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.gzip());
+        }
+        return response.body(snapshot.json());
     }
 
+    // A gzip (or x-gzip) entry decides, "*" only counts without one; q=0 means "not acceptable"
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException ex) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = quality;
+            } else if (coding.equals("*")) {
+                any = quality;
+            }
+        }
+        Double quality = gzip != null ? gzip : any;
+        return quality != null && quality > 0;
+    }
+
+    // Clients that send "Prefer: return=minimal" get a 204 from a single UPDATE instead of the task body
     @PutMapping("/{id}/complete")
-    public Task markAsCompleted(@PathVariable Long id) {
-        return taskService.markAsCompleted(id);
+    public ResponseEntity<Task> markAsCompleted(@PathVariable Long id,
+                                                @RequestHeader(value = "Prefer", required = false) String prefer) {
+        if (RETURN_MINIMAL.equalsIgnoreCase(prefer)) {
+            taskService.completeTask(id);
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(taskService.markAsCompleted(id));
+    }
+
+    // Completes every task in the category and returns how many were updated
+    @PutMapping("/category/{category}/complete")
+    public int completeTasksInCategory(@PathVariable String category) {
+        return taskService.completeTasksInCategory(category);
     }
 }
\ No newline at end of file
@@ -0,0 +1,88 @@
+package org.example.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// TaskEventBroadcaster for the reactive profile: same events, settings and meters, as a Flux per GET /tasks/stream
+// client. Every client buffers up to tasks.stream.buffer-size events and is disconnected when that overflows, to
+// catch up through GET /tasks/changes after reconnecting.
+@Component
+@Profile("reactive")
+public class ReactiveTaskEventBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveTaskEventBroadcaster.class);
+
+    // Each client's own buffer requests everything, so directBestEffort never has to drop here
+    private final Sinks.Many<TaskEvent> sink = Sinks.many().multicast().directBestEffort();
+    private final ReentrantLock emitLock = new ReentrantLock(); // a sink takes one emitter at a time
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final int bufferSize;
+    private final Duration timeout;
+    private final Counter droppedSubscribers;
+
+    public ReactiveTaskEventBroadcaster(MeterRegistry meterRegistry,
+                                        @Value("${tasks.stream.buffer-size:256}") int bufferSize,
+                                        @Value("${tasks.stream.timeout-ms:1800000}") long timeoutMillis) {
+        this.bufferSize = bufferSize;
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        Gauge.builder("tasks.stream.subscribers", subscribers, AtomicInteger::get)
+                .description("Clients connected to GET /tasks/stream")
+                .register(meterRegistry);
+        this.droppedSubscribers = Counter.builder("tasks.stream.dropped")
+                .description("Clients disconnected because they fell too far behind")
+                .register(meterRegistry);
+    }
+
+    public Flux<ServerSentEvent<TaskEvent>> subscribe() {
+        return sink.asFlux()
+                .onBackpressureBuffer(bufferSize, event -> {
+                    droppedSubscribers.increment();
+                    log.debug("Dropping task stream subscriber, {} events behind", bufferSize);
+                }, BufferOverflowStrategy.ERROR)
+                .onErrorComplete()
+                .take(timeout)
+                .map(event -> ServerSentEvent.builder(event).event(event.type().name()).build())
+                .doOnSubscribe(subscription -> subscribers.incrementAndGet())
+                .doFinally(signal -> subscribers.decrementAndGet());
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskEvent event) {
+        emitLock.lock();
+        try {
+            sink.tryEmitNext(event);
+        } finally {
+            emitLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        emitLock.lock();
+        try {
+            sink.tryEmitComplete();
+        } finally {
+            emitLock.unlock();
+        }
+    }
+}
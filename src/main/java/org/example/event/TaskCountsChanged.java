@@ -0,0 +1,56 @@
+package org.example.event;
+
+import org.example.model.Task;
+import org.example.model.TaskCount;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Published inside a write's transaction with how it moved the task counts, so TaskStatsService can keep its
+// counters without a copy of the tasks. recount is set when the writer can't tell (a concurrent write changed
+// the rows it counted, or the previous state isn't at hand); the counters are then rebuilt on the next read.
+public record TaskCountsChanged(List<TaskCount> changes, boolean recount) {
+
+    public static TaskCountsChanged recountAll() {
+        return new TaskCountsChanged(List.of(), true);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+
+        private record Key(String category, Task.TaskStatus status, LocalDate deadline) {
+        }
+
+        private final Map<Key, Long> deltas = new LinkedHashMap<>();
+
+        // Counts the task as it is now, so call remove before changing a task and add after
+        public Builder add(Task task) {
+            return change(task.getCategory(), task.getStatus(), task.getDeadline(), 1);
+        }
+
+        public Builder remove(Task task) {
+            return change(task.getCategory(), task.getStatus(), task.getDeadline(), -1);
+        }
+
+        public Builder change(String category, Task.TaskStatus status, LocalDate deadline, long delta) {
+            deltas.merge(new Key(category, status, deadline), delta, (a, b) -> a + b == 0 ? null : a + b);
+            return this;
+        }
+
+        public boolean isEmpty() {
+            return deltas.isEmpty();
+        }
+
+        public TaskCountsChanged build() {
+            return new TaskCountsChanged(deltas.entrySet().stream()
+                    .map(entry -> new TaskCount(entry.getKey().category(), entry.getKey().status(),
+                            entry.getKey().deadline(), entry.getValue()))
+                    .toList(), false);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.event;
+
+import org.example.model.Task;
+
+// Published by TaskService after every write. Listeners that only care about committed data should use
+// @TransactionalEventListener(fallbackExecution = true), which also fires for writes made outside a transaction.
+// task is the state after the write when the service has it at hand; taskId is null for BULK events.
+public record TaskEvent(Type type, Long taskId, Task task) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        COMPLETED,
+        DELETED,
+        BULK // range operations where the affected ids are not known up front
+    }
+
+    public static TaskEvent created(Task task) {
+        return new TaskEvent(Type.CREATED, task.getId(), task);
+    }
+
+    public static TaskEvent updated(Task task) {
+        return new TaskEvent(Type.UPDATED, task.getId(), task);
+    }
+
+    public static TaskEvent completed(Long id, Task task) {
+        return new TaskEvent(Type.COMPLETED, id, task);
+    }
+
+    public static TaskEvent deleted(Long id) {
+        return new TaskEvent(Type.DELETED, id, null);
+    }
+
+    public static TaskEvent bulk() {
+        return new TaskEvent(Type.BULK, null, null);
+    }
+}
@@ -0,0 +1,155 @@
+package org.example.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Fans committed task events out to every GET /tasks/stream client.
+// Publishing only queues the event per subscriber; a sender thread drains each queue, so a slow client
+// never holds up the writer or the other clients. Senders come from a fixed pool of tasks.stream.sender-threads and
+// take turns, a few events at a time. A client whose queue overflows is disconnected and is expected to reconnect
+// and catch up through GET /tasks/changes.
+@Component
+@Profile("!reactive") // ReactiveTaskEventBroadcaster serves the stream in the reactive profile
+public class TaskEventBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskEventBroadcaster.class);
+    private static final int DRAIN_BATCH = 32;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor sender;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final Counter droppedSubscribers;
+
+    public TaskEventBroadcaster(MeterRegistry meterRegistry,
+                                @Value("${tasks.stream.buffer-size:256}") int bufferSize,
+                                @Value("${tasks.stream.timeout-ms:1800000}") long timeoutMillis,
+                                @Value("${tasks.stream.sender-threads:8}") int senderThreads) {
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeoutMillis;
+        // The work queue holds at most one drain per subscriber, so it can't outgrow the subscriber set
+        AtomicInteger threadCount = new AtomicInteger();
+        this.sender = new ThreadPoolExecutor(senderThreads, senderThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "task-stream-sender-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sender.allowCoreThreadTimeOut(true);
+        Gauge.builder("tasks.stream.subscribers", subscribers, Set::size)
+                .description("Clients connected to GET /tasks/stream")
+                .register(meterRegistry);
+        this.droppedSubscribers = Counter.builder("tasks.stream.dropped")
+                .description("Clients disconnected because they fell too far behind")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe() {
+        return register(new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter register(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.offer(event)) {
+                droppedSubscribers.increment();
+                log.debug("Dropping task stream subscriber, {} events behind", bufferSize);
+                disconnect(subscriber);
+            }
+        }
+    }
+
+    private void disconnect(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.emitter.complete();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(this::disconnect);
+        sender.shutdownNow();
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<TaskEvent> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private boolean offer(TaskEvent event) {
+            if (!queue.offer(event)) {
+                return false;
+            }
+            scheduleDrain();
+            return true;
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                TaskEvent event;
+                int sent = 0;
+                // Hand the thread back after a batch so one busy client can't keep the others waiting
+                while (sent++ < DRAIN_BATCH && (event = queue.poll()) != null) {
+                    emitter.send(SseEmitter.event()
+                            .name(event.type().name())
+                            .data(event, MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // Client went away or the emitter already completed
+                disconnect(this);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // Either the batch ran out or an event was queued after our last poll but before we released the flag
+            if (!queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.exception;
+
+// Thrown when the write-behind ingestion queue has no room; answered with 429 and a Retry-After header
+public class IngestQueueFullException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public IngestQueueFullException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
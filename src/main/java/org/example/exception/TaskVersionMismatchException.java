@@ -0,0 +1,17 @@
+package org.example.exception;
+
+// Thrown when If-Match names another version than the task has now; answered with 412 and the current ETag
+public class TaskVersionMismatchException extends RuntimeException {
+
+    private final Long currentVersion;
+
+    public TaskVersionMismatchException(Long id, Long currentVersion) {
+        super("Task " + id + " was changed by someone else, fetch it again before editing");
+        this.currentVersion = currentVersion;
+    }
+
+    // Null when the conflicting write happened between our read and our UPDATE, so the new version is unknown
+    public Long getCurrentVersion() {
+        return currentVersion;
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+// Completed task moved out of the live task table by TaskArchiveService. Keeps the task's id.
+@Entity
+@Table(name = "archived_task")
+public class ArchivedTask {
+
+    @Id
+    private Long id;
+
+    private String title;
+    private String description;
+    private LocalDate deadline;
+    private String category;
+
+    @Column(name = "completed_at")
+    private Instant completedAt;
+
+    @Column(name = "archived_at")
+    private Instant archivedAt;
+
+    public ArchivedTask() {
+    }
+
+    public static ArchivedTask of(Task task, Instant archivedAt) {
+        ArchivedTask archived = new ArchivedTask();
+        archived.id = task.getId();
+        archived.title = task.getTitle();
+        archived.description = task.getDescription();
+        archived.deadline = task.getDeadline();
+        archived.category = task.getCategory();
+        archived.completedAt = task.getCompletedAt();
+        archived.archivedAt = archivedAt;
+        return archived;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public LocalDate getDeadline() { return deadline; }
+    public void setDeadline(LocalDate deadline) { this.deadline = deadline; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public Instant getCompletedAt() { return completedAt; }
+    public void setCompletedAt(Instant completedAt) { this.completedAt = completedAt; }
+
+    public Instant getArchivedAt() { return archivedAt; }
+    public void setArchivedAt(Instant archivedAt) { this.archivedAt = archivedAt; }
+}
@@ -0,0 +1,7 @@
+package org.example.model;
+
+import java.util.List;
+
+// One keyset page of GET /tasks/archive, same cursor rules as TaskPage
+public record ArchivedTaskPage(List<ArchivedTask> tasks, Long nextCursor) {
+}
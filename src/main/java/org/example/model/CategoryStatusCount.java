@@ -0,0 +1,5 @@
+package org.example.model;
+
+// One row of a GROUP BY category, status count
+public record CategoryStatusCount(String category, Task.TaskStatus status, Long count) {
+}
@@ -0,0 +1,12 @@
+package org.example.model;
+
+import java.util.List;
+
+// Result of POST /tasks/import. Only the first rejected rows are listed (errorsTruncated tells whether there
+// were more), the counts always cover the whole file.
+public record ImportSummary(long accepted, long rejected, List<RejectedRow> errors, boolean errorsTruncated) {
+
+    // line is where the record starts in the uploaded file, counting from 1 and including the CSV header
+    public record RejectedRow(long line, String reason) {
+    }
+}
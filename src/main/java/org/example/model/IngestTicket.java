@@ -0,0 +1,24 @@
+package org.example.model;
+
+// Receipt for a task accepted by the write-behind ingestion (POST /tasks answered with 202).
+// taskId is set once the task is STORED, error once it FAILED.
+public record IngestTicket(String id, Status status, Long taskId, String error) {
+
+    public enum Status {
+        QUEUED,
+        STORED,
+        FAILED
+    }
+
+    public static IngestTicket queued(String id) {
+        return new IngestTicket(id, Status.QUEUED, null, null);
+    }
+
+    public IngestTicket stored(Long taskId) {
+        return new IngestTicket(id, Status.STORED, taskId, null);
+    }
+
+    public IngestTicket failed(String error) {
+        return new IngestTicket(id, Status.FAILED, null, error);
+    }
+}
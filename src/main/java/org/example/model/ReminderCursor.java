@@ -0,0 +1,61 @@
+package org.example.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+// High-water marks of the overdue scanner, so every run only looks at tasks that became due since the last one.
+// The (deadline, id) pairs are keyset positions for each reminder level; modSeq is the last change sequence
+// value checked for tasks written with a deadline that is already behind those positions.
+@Entity
+@Table(name = "reminder_cursor")
+public class ReminderCursor {
+
+    @Id
+    private String name;
+
+    @Column(name = "reminder_deadline")
+    private LocalDate reminderDeadline;
+
+    @Column(name = "reminder_id")
+    private long reminderId;
+
+    @Column(name = "escalation_deadline")
+    private LocalDate escalationDeadline;
+
+    @Column(name = "escalation_id")
+    private long escalationId;
+
+    @Column(name = "mod_seq")
+    private long modSeq;
+
+    public ReminderCursor() {
+    }
+
+    public ReminderCursor(String name, LocalDate reminderDeadline, LocalDate escalationDeadline, long modSeq) {
+        this.name = name;
+        this.reminderDeadline = reminderDeadline;
+        this.reminderId = Long.MAX_VALUE; // everything due on that day counts as seen
+        this.escalationDeadline = escalationDeadline;
+        this.escalationId = Long.MAX_VALUE;
+        this.modSeq = modSeq;
+    }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public LocalDate getReminderDeadline() { return reminderDeadline; }
+    public void setReminderDeadline(LocalDate reminderDeadline) { this.reminderDeadline = reminderDeadline; }
+
+    public long getReminderId() { return reminderId; }
+    public void setReminderId(long reminderId) { this.reminderId = reminderId; }
+
+    public LocalDate getEscalationDeadline() { return escalationDeadline; }
+    public void setEscalationDeadline(LocalDate escalationDeadline) { this.escalationDeadline = escalationDeadline; }
+
+    public long getEscalationId() { return escalationId; }
+    public void setEscalationId(long escalationId) { this.escalationId = escalationId; }
+
+    public long getModSeq() { return modSeq; }
+    public void setModSeq(long modSeq) { this.modSeq = modSeq; }
+}
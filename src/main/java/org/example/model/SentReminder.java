@@ -0,0 +1,44 @@
+package org.example.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+// Highest reminder level the overdue scanner has sent for a task and the deadline it was about, so editing an
+// overdue task doesn't send the same reminder again
+@Entity
+@Table(name = "sent_reminder", indexes = @Index(name = "idx_sent_reminder_deadline", columnList = "deadline"))
+public class SentReminder {
+
+    @Id
+    @Column(name = "task_id")
+    private Long taskId;
+
+    private LocalDate deadline;
+
+    @Enumerated(EnumType.STRING)
+    private TaskReminder.Level level;
+
+    public SentReminder() {
+    }
+
+    public SentReminder(Long taskId, LocalDate deadline, TaskReminder.Level level) {
+        this.taskId = taskId;
+        this.deadline = deadline;
+        this.level = level;
+    }
+
+    // Whether a reminder at this level for this deadline already went out
+    public boolean covers(LocalDate deadline, TaskReminder.Level level) {
+        return this.deadline.equals(deadline) && this.level.compareTo(level) >= 0;
+    }
+
+    public Long getTaskId() { return taskId; }
+    public void setTaskId(Long taskId) { this.taskId = taskId; }
+
+    public LocalDate getDeadline() { return deadline; }
+    public void setDeadline(LocalDate deadline) { this.deadline = deadline; }
+
+    public TaskReminder.Level getLevel() { return level; }
+    public void setLevel(TaskReminder.Level level) { this.level = level; }
+}
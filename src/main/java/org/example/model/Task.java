@@ -1,13 +1,38 @@
 package org.example.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
+@Cacheable // Only used when hibernate.cache.use_second_level_cache is switched on
+@org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@DynamicUpdate // UPDATE only the columns that changed, so a title edit doesn't rewrite a long description
+@Table(indexes = {
+        // Keyset pages are ordered by id, so each filter column leads and id follows. H2 uses them for the status and
+        // category filters; a deadline range walks the primary key from the cursor instead.
+        @Index(name = "idx_task_status_id", columnList = "status, id"),
+        @Index(name = "idx_task_category_id", columnList = "category, id"),
+        @Index(name = "idx_task_deadline_id", columnList = "deadline, id"),
+        @Index(name = "idx_task_mod_seq", columnList = "mod_seq"),
+        @Index(name = "idx_task_status_completed_at", columnList = "status, completed_at"),
+        // Overdue scanner: keyset range over (deadline, id) within one status
+        @Index(name = "idx_task_status_deadline_id", columnList = "status, deadline, id")
+})
 public class Task {
 
+    // Ids are handed out in blocks of this size. The sharded repository gives every shard its own blocks.
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Sequence with a pooled allocator so Hibernate knows ids up front and can batch inserts
+    // (IDENTITY forces one INSERT round trip per row)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     private String title;
@@ -20,6 +45,22 @@ public class Task {
 
     private String category;
 
+    // Both are maintained by the server and ignored when a client sends them. The version doubles as the ETag of
+    // GET /tasks/{id}, which PATCH checks against If-Match.
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    // Value of task_change_seq at the last write, so GET /tasks/changes can find what changed since a given point
+    @Column(name = "mod_seq")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long modSeq;
+
+    // When the task was last marked completed, cleared when it is reopened. The archiver goes by this.
+    @Column(name = "completed_at")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant completedAt;
+
     public enum TaskStatus {
         PENDING,
         COMPLETED
@@ -58,4 +99,25 @@ public class Task {
 
     public String getCategory() { return category; }
     public void setCategory(String category) { this.category = category; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    public Long getModSeq() { return modSeq; }
+    public void setModSeq(Long modSeq) { this.modSeq = modSeq; }
+
+    public Instant getCompletedAt() { return completedAt; }
+    public void setCompletedAt(Instant completedAt) { this.completedAt = completedAt; }
+
+    // Keeps completedAt in line with the status on every insert and update. Also called by
+    // InMemoryTaskRepository, which has no entity callbacks.
+    @PrePersist
+    @PreUpdate
+    public void trackCompletion() {
+        if (status != TaskStatus.COMPLETED) {
+            completedAt = null;
+        } else if (completedAt == null) {
+            completedAt = Instant.now();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+package org.example.model;
+
+import java.util.List;
+
+// Response of GET /tasks/changes. version is the change sequence value to send as "since" next time,
+// hasMore says whether another call would return more changes right away.
+public record TaskChanges(List<Task> tasks, List<Long> deleted, long version, boolean hasMore) {
+}
@@ -0,0 +1,7 @@
+package org.example.model;
+
+import java.time.LocalDate;
+
+// One row of a GROUP BY category, status, deadline count. In TaskCountsChanged the count is a delta and may be negative.
+public record TaskCount(String category, Task.TaskStatus status, LocalDate deadline, long count) {
+}
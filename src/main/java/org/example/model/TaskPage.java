@@ -0,0 +1,8 @@
+package org.example.model;
+
+import java.util.List;
+
+// One keyset page of tasks. nextCursor is the id to pass as "after" for the next page,
+// or null when this was the last one.
+public record TaskPage(List<Task> tasks, Long nextCursor) {
+}
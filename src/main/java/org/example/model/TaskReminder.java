@@ -0,0 +1,17 @@
+package org.example.model;
+
+import java.time.LocalDate;
+
+// Sent to the ReminderSink when a pending task becomes due (REMINDER) and again once it has been
+// overdue for tasks.reminders.escalate-after-days (ESCALATION)
+public record TaskReminder(Long taskId, String title, String category, LocalDate deadline, Level level) {
+
+    public enum Level {
+        REMINDER,
+        ESCALATION
+    }
+
+    public static TaskReminder of(Task task, Level level) {
+        return new TaskReminder(task.getId(), task.getTitle(), task.getCategory(), task.getDeadline(), level);
+    }
+}
@@ -0,0 +1,5 @@
+package org.example.model;
+
+// The full task list, already serialized. generation is the write count it was built from.
+public record TaskSnapshot(byte[] json, byte[] gzip, String etag, long generation) {
+}
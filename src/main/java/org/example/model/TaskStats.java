@@ -0,0 +1,38 @@
+package org.example.model;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Response of GET /tasks/stats. Counts per status, per category and status, and of overdue tasks
+// (still pending with a deadline before today). Tasks without a category or status are counted under "".
+public record TaskStats(long total,
+                        Map<String, Long> byStatus,
+                        Map<String, Map<String, Long>> byCategory,
+                        long overdue,
+                        Map<String, Long> overdueByCategory) {
+
+    public static TaskStats of(List<CategoryStatusCount> counts, List<CategoryStatusCount> overdueCounts) {
+        long total = 0;
+        Map<String, Long> byStatus = new TreeMap<>();
+        Map<String, Map<String, Long>> byCategory = new TreeMap<>();
+        for (CategoryStatusCount count : counts) {
+            total += count.count();
+            byStatus.merge(key(count.status()), count.count(), Long::sum);
+            byCategory.computeIfAbsent(key(count.category()), category -> new TreeMap<>())
+                    .merge(key(count.status()), count.count(), Long::sum);
+        }
+
+        long overdue = 0;
+        Map<String, Long> overdueByCategory = new TreeMap<>();
+        for (CategoryStatusCount count : overdueCounts) {
+            overdue += count.count();
+            overdueByCategory.merge(key(count.category()), count.count(), Long::sum);
+        }
+        return new TaskStats(total, byStatus, byCategory, overdue, overdueByCategory);
+    }
+
+    private static String key(Object value) {
+        return value == null ? "" : value.toString();
+    }
+}
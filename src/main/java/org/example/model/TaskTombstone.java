@@ -0,0 +1,30 @@
+package org.example.model;
+
+import jakarta.persistence.*;
+
+// Marker left behind when a task is deleted, so clients following the change feed learn about the delete
+@Entity
+@Table(indexes = @Index(name = "idx_task_tombstone_mod_seq", columnList = "mod_seq"))
+public class TaskTombstone {
+
+    @Id
+    @Column(name = "task_id")
+    private Long taskId;
+
+    @Column(name = "mod_seq")
+    private Long modSeq;
+
+    public TaskTombstone() {
+    }
+
+    public TaskTombstone(Long taskId, Long modSeq) {
+        this.taskId = taskId;
+        this.modSeq = modSeq;
+    }
+
+    public Long getTaskId() { return taskId; }
+    public void setTaskId(Long taskId) { this.taskId = taskId; }
+
+    public Long getModSeq() { return modSeq; }
+    public void setModSeq(Long modSeq) { this.modSeq = modSeq; }
+}
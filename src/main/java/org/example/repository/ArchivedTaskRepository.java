@@ -0,0 +1,16 @@
+package org.example.repository;
+
+import org.example.model.ArchivedTask;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ArchivedTaskRepository extends JpaRepository<ArchivedTask, Long> {
+
+    // Keyset page over the archive, oldest id first
+    @Query("SELECT a FROM ArchivedTask a WHERE a.id > :afterId ORDER BY a.id")
+    List<ArchivedTask> findPage(@Param("afterId") long afterId, Pageable pageable);
+}
@@ -0,0 +1,122 @@
+package org.example.repository;
+
+import io.r2dbc.spi.Readable;
+import org.example.model.Task;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+// R2DBC counterpart of TaskRepository for the reactive profile. Plain SQL over DatabaseClient, so the same
+// Task class is mapped without Spring Data R2DBC annotations. Writes return the stored row in the same round
+// trip (FINAL TABLE) and keep the id, version and change sequence columns the way Hibernate does.
+@Repository
+@Profile("reactive")
+public class ReactiveTaskRepository {
+
+    private static final String COLUMNS = "id, title, description, status, deadline, category, version, mod_seq, completed_at";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveTaskRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    // Rows are read as the subscriber requests them, so a slow client holds back the query instead of filling memory
+    public Flux<Task> findAll() {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM task ORDER BY id")
+                .map(ReactiveTaskRepository::toTask)
+                .all();
+    }
+
+    public Flux<Task> findPage(long afterId, int limit) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM task WHERE id > :afterId ORDER BY id LIMIT :limit")
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(ReactiveTaskRepository::toTask)
+                .all();
+    }
+
+    public Mono<Task> findById(long id) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM task WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveTaskRepository::toTask)
+                .one();
+    }
+
+    // Takes a single task_seq value as the id; Hibernate's pooled-lo blocks start at the values it takes itself
+    public Mono<Task> insert(Task task) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("SELECT " + COLUMNS + " FROM FINAL TABLE ("
+                + "INSERT INTO task (id, title, description, status, deadline, category, version, mod_seq, completed_at)"
+                + " VALUES (NEXT VALUE FOR task_seq, :title, :description, :status, :deadline, :category, 0,"
+                + " NEXT VALUE FOR task_change_seq, CASE WHEN :status = 'COMPLETED' THEN CURRENT_TIMESTAMP END))");
+        return bindDetails(spec, task).map(ReactiveTaskRepository::toTask).one();
+    }
+
+    public Mono<Task> update(long id, Task task) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("SELECT " + COLUMNS + " FROM FINAL TABLE ("
+                + "UPDATE task SET title = :title, description = :description, status = :status, deadline = :deadline,"
+                + " category = :category, version = version + 1, mod_seq = NEXT VALUE FOR task_change_seq,"
+                + " " + TaskRepository.COMPLETED_AT_FOR_STATUS + " WHERE id = :id)");
+        return bindDetails(spec.bind("id", id), task).map(ReactiveTaskRepository::toTask).one();
+    }
+
+    public Mono<Task> updateStatus(long id, Task.TaskStatus status) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM FINAL TABLE ("
+                        + "UPDATE task SET status = :status, version = version + 1, mod_seq = NEXT VALUE FOR task_change_seq,"
+                        + " " + TaskRepository.COMPLETED_AT_FOR_STATUS + " WHERE id = :id)")
+                .bind("id", id)
+                .bind("status", status.name())
+                .map(ReactiveTaskRepository::toTask)
+                .one();
+    }
+
+    // Same as TaskRepository.insertTombstone: the row count tells whether the task existed
+    public Mono<Long> insertTombstone(long id) {
+        return databaseClient.sql("INSERT INTO task_tombstone (task_id, mod_seq)"
+                        + " SELECT id, NEXT VALUE FOR task_change_seq FROM task WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> deleteById(long id) {
+        return databaseClient.sql("DELETE FROM task WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindDetails(DatabaseClient.GenericExecuteSpec spec, Task task) {
+        spec = bind(spec, "title", task.getTitle(), String.class);
+        spec = bind(spec, "description", task.getDescription(), String.class);
+        spec = bind(spec, "status", task.getStatus() == null ? null : task.getStatus().name(), String.class);
+        spec = bind(spec, "deadline", task.getDeadline(), LocalDate.class);
+        return bind(spec, "category", task.getCategory(), String.class);
+    }
+
+    private static <T> DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, String name,
+                                                              T value, Class<T> type) {
+        return value == null ? spec.bindNull(name, type) : spec.bind(name, value);
+    }
+
+    private static Task toTask(Readable row) {
+        Task task = new Task();
+        task.setId(row.get("id", Long.class));
+        task.setTitle(row.get("title", String.class));
+        task.setDescription(row.get("description", String.class));
+        String status = row.get("status", String.class);
+        task.setStatus(status == null ? null : Task.TaskStatus.valueOf(status));
+        task.setDeadline(row.get("deadline", LocalDate.class));
+        task.setCategory(row.get("category", String.class));
+        task.setVersion(row.get("version", Long.class));
+        task.setModSeq(row.get("mod_seq", Long.class));
+        OffsetDateTime completedAt = row.get("completed_at", OffsetDateTime.class);
+        task.setCompletedAt(completedAt == null ? null : completedAt.toInstant());
+        return task;
+    }
+}
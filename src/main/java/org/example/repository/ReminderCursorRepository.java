@@ -0,0 +1,7 @@
+package org.example.repository;
+
+import org.example.model.ReminderCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ReminderCursorRepository extends JpaRepository<ReminderCursor, String> {
+}
@@ -0,0 +1,17 @@
+package org.example.repository;
+
+import org.example.model.SentReminder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+public interface SentReminderRepository extends JpaRepository<SentReminder, Long> {
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SentReminder s WHERE s.deadline < :before")
+    int deleteByDeadlineBefore(LocalDate before);
+}
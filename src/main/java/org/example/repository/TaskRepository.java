@@ -1,7 +1,195 @@
 package org.example.repository;
 
+import org.example.model.CategoryStatusCount;
 import org.example.model.Task;
+import org.example.model.TaskCount;
+import org.example.model.TaskTombstone;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface TaskRepository extends JpaRepository<Task, Long> {
-}
\ No newline at end of file
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+// findPage lives in TaskRepositoryCustom, which builds its WHERE clause per call
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
+
+    // What Task.trackCompletion does for entity writes, for the native status updates below
+    String COMPLETED_AT_FOR_STATUS = "completed_at = CASE WHEN :status = 'COMPLETED'"
+            + " THEN COALESCE(completed_at, CURRENT_TIMESTAMP) END";
+
+    // Forward-only cursor over the whole table for exports. Must be consumed inside a transaction and closed.
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Task t ORDER BY t.id")
+    Stream<Task> streamAll();
+
+    // Change feed: live tasks and tombstones written after the given change sequence value, oldest change first
+    @Query("SELECT t FROM Task t WHERE t.modSeq > :since ORDER BY t.modSeq")
+    List<Task> findChangedSince(@Param("since") long since, Pageable pageable);
+
+    @Query("SELECT tt FROM TaskTombstone tt WHERE tt.modSeq > :since ORDER BY tt.modSeq")
+    List<TaskTombstone> findTombstonesSince(@Param("since") long since, Pageable pageable);
+
+    // Dashboard counts for GET /tasks/stats, grouped in the database so only a few rows come back
+    @Query("SELECT new org.example.model.CategoryStatusCount(t.category, t.status, COUNT(t))"
+            + " FROM Task t GROUP BY t.category, t.status")
+    List<CategoryStatusCount> countByCategoryAndStatus();
+
+    @Query("SELECT new org.example.model.CategoryStatusCount(t.category, t.status, COUNT(t))"
+            + " FROM Task t WHERE t.status = :status AND t.deadline < :before GROUP BY t.category, t.status")
+    List<CategoryStatusCount> countByStatusAndDeadlineBefore(@Param("status") Task.TaskStatus status,
+                                                             @Param("before") LocalDate before);
+
+    // Pending deadlines per category, for TaskStatsService to rebuild its overdue counters
+    @Query("SELECT new org.example.model.TaskCount(t.category, t.status, t.deadline, COUNT(t))"
+            + " FROM Task t WHERE t.status = :status AND t.deadline IS NOT NULL GROUP BY t.category, t.status, t.deadline")
+    List<TaskCount> countDeadlinesByStatus(@Param("status") Task.TaskStatus status);
+
+    // What updateStatusByCategory is about to change, read before it runs
+    @Query("SELECT new org.example.model.TaskCount(t.category, t.status, t.deadline, COUNT(t)) FROM Task t"
+            + " WHERE t.category = :category AND (t.status IS NULL OR t.status <> :status)"
+            + " GROUP BY t.category, t.status, t.deadline")
+    List<TaskCount> countByCategoryAndStatusNot(@Param("category") String category,
+                                                @Param("status") Task.TaskStatus status);
+
+    // Single-task writes that only go by id read the task through this first, so the row can't change until they commit
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Task t WHERE t.id = :id")
+    Optional<Task> findLockedById(@Param("id") Long id);
+
+    // Archiver chunk: completed tasks finished before the cutoff, oldest id first. The rows stay locked until the
+    // chunk's transaction ends, so a task reopened meanwhile waits instead of being archived in its old state.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Task t WHERE t.status = :status AND t.completedAt < :before ORDER BY t.id")
+    List<Task> findByStatusAndCompletedAtBefore(@Param("status") Task.TaskStatus status,
+                                                @Param("before") Instant before,
+                                                Pageable pageable);
+
+    // Overdue scanner: the next keyset page of tasks due by dueBy that sort after the (deadline, id) cursor.
+    // Only the range between the cursor and dueBy is read from idx_task_status_deadline_id.
+    @Query("SELECT t FROM Task t WHERE t.status = :status AND t.deadline <= :dueBy"
+            + " AND t.deadline >= :afterDeadline AND (t.deadline > :afterDeadline OR t.id > :afterId)"
+            + " ORDER BY t.deadline, t.id")
+    List<Task> findDueAfter(@Param("status") Task.TaskStatus status,
+                            @Param("afterDeadline") LocalDate afterDeadline,
+                            @Param("afterId") long afterId,
+                            @Param("dueBy") LocalDate dueBy,
+                            Pageable pageable);
+
+    // Tasks written after the given change sequence value that are due by dueBy, oldest change first
+    @Query("SELECT t FROM Task t WHERE t.modSeq > :since AND t.status = :status AND t.deadline <= :dueBy ORDER BY t.modSeq")
+    List<Task> findChangedDueSince(@Param("since") long since,
+                                   @Param("status") Task.TaskStatus status,
+                                   @Param("dueBy") LocalDate dueBy,
+                                   Pageable pageable);
+
+    // Hands out count consecutive values of task_change_seq in one round trip
+    @Transactional
+    @Query(value = "SELECT NEXT VALUE FOR task_change_seq FROM SYSTEM_RANGE(1, :count)", nativeQuery = true)
+    List<Long> nextChangeSequences(@Param("count") int count);
+
+    // Last value task_change_seq has handed out, without taking one
+    @Query(value = "SELECT BASE_VALUE - 1 FROM information_schema.sequences WHERE sequence_name = 'TASK_CHANGE_SEQ'",
+            nativeQuery = true)
+    long currentChangeSequence();
+
+    // Single-statement writes. They bypass the persistence context, so it is cleared afterwards
+    // and callers learn about missing rows from the returned row count. The native ones bump the
+    // version and take a fresh change sequence value per row in the same statement.
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE task SET status = :status, version = version + 1, mod_seq = NEXT VALUE FOR task_change_seq,"
+            + " " + COMPLETED_AT_FOR_STATUS + " WHERE id = :id", nativeQuery = true)
+    int updateStatus(@Param("id") Long id, @Param("status") String status);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE task SET status = :status, version = version + 1, mod_seq = NEXT VALUE FOR task_change_seq,"
+            + " " + COMPLETED_AT_FOR_STATUS + " WHERE category = :category AND (status IS NULL OR status <> :status)", nativeQuery = true)
+    int updateStatusByCategory(@Param("category") String category, @Param("status") String status);
+
+    // Deletes leave a tombstone behind for the change feed. The tombstone is written first,
+    // so its row count also tells whether the task existed.
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO task_tombstone (task_id, mod_seq)"
+            + " SELECT id, NEXT VALUE FOR task_change_seq FROM task WHERE id = :id", nativeQuery = true)
+    int insertTombstone(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO task_tombstone (task_id, mod_seq)"
+            + " SELECT id, NEXT VALUE FOR task_change_seq FROM task WHERE status = :status AND deadline < :before",
+            nativeQuery = true)
+    int insertTombstonesByStatusAndDeadlineBefore(@Param("status") String status, @Param("before") LocalDate before);
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO task_tombstone (task_id, mod_seq)"
+            + " SELECT id, NEXT VALUE FOR task_change_seq FROM task WHERE id IN (:ids)", nativeQuery = true)
+    int insertTombstonesByIds(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Task t WHERE t.id = :id")
+    int deleteTaskById(@Param("id") Long id);
+
+    // Tombstone retention, see TombstonePruner
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM TaskTombstone tt WHERE tt.modSeq <= :upTo")
+    int deleteTombstonesUpTo(@Param("upTo") long upTo);
+
+    // Only removes rows that were tombstoned, so a task that starts matching between the two statements stays
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Task t WHERE t.status = :status AND t.deadline < :before"
+            + " AND t.id IN (SELECT tt.taskId FROM TaskTombstone tt)")
+    int deleteTombstonedByStatusAndDeadlineBefore(@Param("status") Task.TaskStatus status, @Param("before") LocalDate before);
+
+    // Tombstone-and-delete as one unit, so the two can't end up apart. Here both statements join the caller's
+    // transaction; ShardedTaskRepository runs them in one transaction on the task's shard.
+    @Transactional
+    default int deleteWithTombstone(Long id) {
+        if (insertTombstone(id) == 0) {
+            return 0;
+        }
+        return deleteTaskById(id);
+    }
+
+    @Transactional
+    default int deleteWithTombstonesByStatusAndDeadlineBefore(Task.TaskStatus status, LocalDate before) {
+        insertTombstonesByStatusAndDeadlineBefore(status.name(), before);
+        return deleteTombstonedByStatusAndDeadlineBefore(status, before);
+    }
+
+    @Transactional
+    default void deleteAllWithTombstones(Collection<Long> ids) {
+        insertTombstonesByIds(ids);
+        deleteAllByIdInBatch(ids);
+    }
+
+    // Whether calls join the caller's transaction. When they don't (every call commits on its own shard, or there
+    // is no rollback at all), a service method spanning several calls can be left half done, and a row read with
+    // findLockedById can change before the next call.
+    default boolean joinsTransactions() {
+        return true;
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.repository;
+
+import org.example.model.Task;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// TaskRepository queries that need a WHERE clause built at runtime (TaskRepositoryCustomImpl)
+public interface TaskRepositoryCustom {
+
+    // Keyset page: tasks with an id above the cursor, oldest first. Null filters are left out of the query,
+    // so the database can pick the (filter, id) index that matches, and the pageable only carries the page size
+    // so no count query is issued.
+    List<Task> findPage(long afterId, Task.TaskStatus status, String category,
+                        LocalDate deadlineFrom, LocalDate deadlineTo, Pageable pageable);
+}
@@ -0,0 +1,54 @@
+package org.example.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.example.model.Task;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Picked up by Spring Data as the implementation of TaskRepositoryCustom
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    public TaskRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    // "(:status IS NULL OR status = :status)" style filters keep H2 from using any index but the primary key,
+    // so only the filters that are set end up in the WHERE clause
+    @Override
+    public List<Task> findPage(long afterId, Task.TaskStatus status, String category,
+                               LocalDate deadlineFrom, LocalDate deadlineTo, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Task> query = cb.createQuery(Task.class);
+        Root<Task> task = query.from(Task.class);
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.greaterThan(task.get("id"), afterId));
+        if (status != null) {
+            where.add(cb.equal(task.get("status"), status));
+        }
+        if (category != null) {
+            where.add(cb.equal(task.get("category"), category));
+        }
+        if (deadlineFrom != null) {
+            where.add(cb.greaterThanOrEqualTo(task.get("deadline"), deadlineFrom));
+        }
+        if (deadlineTo != null) {
+            where.add(cb.lessThanOrEqualTo(task.get("deadline"), deadlineTo));
+        }
+        query.select(task).where(where.toArray(Predicate[]::new)).orderBy(cb.asc(task.get("id")));
+
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+}
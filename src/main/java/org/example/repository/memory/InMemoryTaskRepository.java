@@ -0,0 +1,849 @@
+package org.example.repository.memory;
+
+import jakarta.annotation.PreDestroy;
+import org.example.model.CategoryStatusCount;
+import org.example.model.Task;
+import org.example.model.TaskCount;
+import org.example.model.TaskTombstone;
+import org.example.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.stream.Stream;
+
+// TaskRepository without Hibernate, for the "memory" profile. Tasks live in a TaskTable and every write is
+// appended to a TaskLog first; on startup the log is replayed and rewritten without the superseded records, and
+// again whenever it grows past tasks.memory.compact-after-mb while running.
+// Writes are atomic per call but there is no rollback: a transaction that fails halfway keeps what it wrote.
+@Repository
+@Primary
+@Profile("memory")
+@Transactional(propagation = Propagation.SUPPORTS) // nothing here needs a JPA transaction
+public class InMemoryTaskRepository implements TaskRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryTaskRepository.class);
+
+    private static final int STREAM_CHUNK_SIZE = 500;
+
+    private final Path logPath;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TaskTable table = new TaskTable(1024);
+    // Tombstones by change sequence, plus the task ids that have one
+    private final TreeMap<Long, Long> tombstones = new TreeMap<>();
+    private final Set<Long> tombstonedIds = new HashSet<>();
+    private final boolean fsync;
+    private final long compactAfterBytes;
+    private TaskLog taskLog;
+    private long compactedSize;
+    private long lastId;
+    private long lastChangeSequence;
+    private long prunedUpTo;
+
+    public InMemoryTaskRepository(@Value("${tasks.memory.log-path:./data/tasks.log}") String logPath,
+                                  @Value("${tasks.memory.fsync:false}") boolean fsync,
+                                  @Value("${tasks.memory.compact-after-mb:256}") int compactAfterMb) {
+        this.logPath = Path.of(logPath);
+        this.fsync = fsync;
+        this.compactAfterBytes = (long) compactAfterMb << 20;
+        try {
+            if (this.logPath.getParent() != null) {
+                Files.createDirectories(this.logPath.getParent());
+            }
+            long replayed = TaskLog.replay(this.logPath, new Replay());
+            lastId = Math.max(lastId, table.maxId());
+            long compacted = TaskLog.rewrite(this.logPath, liveTasks(), tombstoneRecords(), lastId, prunedUpTo);
+            taskLog = TaskLog.open(this.logPath, compacted, fsync);
+            compactedSize = compacted;
+            log.info("Loaded {} tasks and {} tombstones from {}, log compacted from {} to {} bytes",
+                    table.size(), tombstones.size(), this.logPath, replayed, taskLog.size());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not open task log " + logPath, ex);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            taskLog.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // --- CRUD ---
+
+    @Override
+    public <S extends Task> S save(S task) {
+        lock.writeLock().lock();
+        try {
+            store(task);
+            return task;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public <S extends Task> List<S> saveAll(Iterable<S> tasks) {
+        List<S> saved = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            for (S task : tasks) {
+                store(task);
+                saved.add(task);
+            }
+            return saved;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public <S extends Task> S saveAndFlush(S task) {
+        return save(task);
+    }
+
+    @Override
+    public <S extends Task> List<S> saveAllAndFlush(Iterable<S> tasks) {
+        return saveAll(tasks);
+    }
+
+    @Override
+    public void flush() {
+        // every write is already in the log
+    }
+
+    @Override
+    public Optional<Task> findById(Long id) {
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(table.get(id));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        lock.readLock().lock();
+        try {
+            return table.slotOf(id) != LongIntMap.MISSING;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Task getReferenceById(Long id) {
+        return findById(id).orElseThrow(() -> new jakarta.persistence.EntityNotFoundException("Task " + id + " not found"));
+    }
+
+    @Override
+    @Deprecated
+    public Task getById(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    @Deprecated
+    public Task getOne(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    public List<Task> findAll() {
+        return scan(slot -> true, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Task> findAllById(Iterable<Long> ids) {
+        List<Task> found = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Long id : ids) {
+                Task task = table.get(id);
+                if (task != null) {
+                    found.add(task);
+                }
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Only id order is supported, which is the order the table keeps anyway
+    @Override
+    public List<Task> findAll(Sort sort) {
+        requireIdOrder(sort);
+        return findAll();
+    }
+
+    @Override
+    public Page<Task> findAll(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(findAll());
+        }
+        requireIdOrder(pageable.getSort());
+        lock.readLock().lock();
+        try {
+            List<Task> content = new ArrayList<>(pageable.getPageSize());
+            long skip = pageable.getOffset();
+            for (int slot = 0; slot < table.usedSlots() && content.size() < pageable.getPageSize(); slot++) {
+                if (table.isLive(slot) && skip-- <= 0) {
+                    content.add(table.read(slot));
+                }
+            }
+            return new PageImpl<>(content, pageable, table.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long count() {
+        lock.readLock().lock();
+        try {
+            return table.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        lock.writeLock().lock();
+        try {
+            remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void delete(Task task) {
+        deleteById(task.getId());
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        lock.writeLock().lock();
+        try {
+            ids.forEach(this::remove);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Task> tasks) {
+        lock.writeLock().lock();
+        try {
+            tasks.forEach(task -> remove(task.getId()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        lock.writeLock().lock();
+        try {
+            for (Task task : scan(slot -> true, Integer.MAX_VALUE)) {
+                remove(task.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    @Deprecated
+    public void deleteInBatch(Iterable<Task> tasks) {
+        deleteAll(tasks);
+    }
+
+    @Override
+    public void deleteAllInBatch(Iterable<Task> tasks) {
+        deleteAll(tasks);
+    }
+
+    @Override
+    public void deleteAllByIdInBatch(Iterable<Long> ids) {
+        deleteAllById(ids);
+    }
+
+    @Override
+    public void deleteAllInBatch() {
+        deleteAll();
+    }
+
+    // --- Queries from TaskRepository ---
+
+    @Override
+    public List<Task> findPage(long afterId, Task.TaskStatus status, String category,
+                               LocalDate deadlineFrom, LocalDate deadlineTo, Pageable pageable) {
+        int from = deadlineFrom == null ? Integer.MIN_VALUE : TaskTable.epochDay(deadlineFrom);
+        int to = deadlineTo == null ? Integer.MAX_VALUE : TaskTable.epochDay(deadlineTo);
+        boolean byDeadline = deadlineFrom != null || deadlineTo != null;
+        lock.readLock().lock();
+        try {
+            List<Task> page = new ArrayList<>(pageable.getPageSize());
+            for (int slot = table.firstSlotAfter(afterId); slot < table.usedSlots() && page.size() < pageable.getPageSize(); slot++) {
+                if (!table.isLive(slot)
+                        || (status != null && table.status(slot) != status)
+                        || (category != null && !category.equals(table.category(slot)))
+                        || (byDeadline && !withinDeadline(slot, from, to))) {
+                    continue;
+                }
+                page.add(table.read(slot));
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Walks the table in id-ordered chunks, so the read lock is only held while a chunk is copied
+    @Override
+    public Stream<Task> streamAll() {
+        return Stream.iterate(chunkAfter(0L), chunk -> !chunk.isEmpty(),
+                        chunk -> chunkAfter(chunk.get(chunk.size() - 1).getId()))
+                .flatMap(List::stream);
+    }
+
+    @Override
+    public List<Task> findChangedSince(long since, Pageable pageable) {
+        return changedSince(since, slot -> true, pageable.getPageSize());
+    }
+
+    @Override
+    public List<TaskTombstone> findTombstonesSince(long since, Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            return tombstones.tailMap(since, false).entrySet().stream()
+                    .limit(pageable.getPageSize())
+                    .map(entry -> new TaskTombstone(entry.getValue(), entry.getKey()))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<CategoryStatusCount> countByCategoryAndStatus() {
+        return countGrouped(slot -> true);
+    }
+
+    @Override
+    public List<CategoryStatusCount> countByStatusAndDeadlineBefore(Task.TaskStatus status, LocalDate before) {
+        return countGrouped(slot -> matchesStatusAndDeadlineBefore(slot, status, TaskTable.epochDay(before)));
+    }
+
+    @Override
+    public List<TaskCount> countDeadlinesByStatus(Task.TaskStatus status) {
+        return countByDeadline(slot -> table.status(slot) == status && table.deadlineEpochDay(slot) != Integer.MIN_VALUE);
+    }
+
+    @Override
+    public List<TaskCount> countByCategoryAndStatusNot(String category, Task.TaskStatus status) {
+        return countByDeadline(slot -> Objects.equals(table.category(slot), category) && table.status(slot) != status);
+    }
+
+    // Every write takes the write lock for its whole change, there are no row locks to take
+    @Override
+    public Optional<Task> findLockedById(Long id) {
+        return findById(id);
+    }
+
+    // No rollback and no row locks: a failed service transaction keeps what it wrote, and a task read above can
+    // change before the caller's next call
+    @Override
+    public boolean joinsTransactions() {
+        return false;
+    }
+
+    // No row locks here: a task reopened between this read and the archiver's delete is still archived
+    @Override
+    public List<Task> findByStatusAndCompletedAtBefore(Task.TaskStatus status, Instant before, Pageable pageable) {
+        long beforeMicros = TaskTable.epochMicros(before);
+        return scan(slot -> table.status(slot) == status && table.completedAtMicros(slot) != Long.MIN_VALUE
+                && table.completedAtMicros(slot) < beforeMicros, pageable.getPageSize());
+    }
+
+    // Slots are in id order, not deadline order, so this one is a scan plus a sort of the due tasks
+    @Override
+    public List<Task> findDueAfter(Task.TaskStatus status, LocalDate afterDeadline, long afterId, LocalDate dueBy,
+                                   Pageable pageable) {
+        int afterDay = TaskTable.epochDay(afterDeadline);
+        int dueDay = TaskTable.epochDay(dueBy);
+        lock.readLock().lock();
+        try {
+            List<Integer> slots = new ArrayList<>();
+            for (int slot = 0; slot < table.usedSlots(); slot++) {
+                int deadline = table.deadlineEpochDay(slot);
+                if (table.isLive(slot) && table.status(slot) == status && deadline != Integer.MIN_VALUE
+                        && deadline <= dueDay && (deadline > afterDay || (deadline == afterDay && table.id(slot) > afterId))) {
+                    slots.add(slot);
+                }
+            }
+            return slots.stream()
+                    .sorted(Comparator.comparingInt(table::deadlineEpochDay).thenComparingLong(table::id))
+                    .limit(pageable.getPageSize())
+                    .map(table::read)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Task> findChangedDueSince(long since, Task.TaskStatus status, LocalDate dueBy, Pageable pageable) {
+        int dueDay = TaskTable.epochDay(dueBy);
+        return changedSince(since, slot -> table.status(slot) == status && table.deadlineEpochDay(slot) != Integer.MIN_VALUE
+                && table.deadlineEpochDay(slot) <= dueDay, pageable.getPageSize());
+    }
+
+    @Override
+    public List<Long> nextChangeSequences(int count) {
+        lock.writeLock().lock();
+        try {
+            List<Long> sequences = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                sequences.add(++lastChangeSequence);
+            }
+            return sequences;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int updateStatus(Long id, String status) {
+        Task.TaskStatus newStatus = Task.TaskStatus.valueOf(status);
+        lock.writeLock().lock();
+        try {
+            Task task = table.get(id);
+            if (task == null) {
+                return 0;
+            }
+            restamp(task, newStatus);
+            return 1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int updateStatusByCategory(String category, String status) {
+        Task.TaskStatus newStatus = Task.TaskStatus.valueOf(status);
+        lock.writeLock().lock();
+        try {
+            List<Task> matching = scan(slot -> category.equals(table.category(slot)) && table.status(slot) != newStatus,
+                    Integer.MAX_VALUE);
+            matching.forEach(task -> restamp(task, newStatus));
+            return matching.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public long currentChangeSequence() {
+        lock.readLock().lock();
+        try {
+            return lastChangeSequence;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int deleteTombstonesUpTo(long upTo) {
+        lock.writeLock().lock();
+        try {
+            int pruned = tombstones.headMap(upTo, true).size();
+            if (pruned > 0) {
+                taskLog.appendPruneTombstones(upTo);
+                pruneTombstones(upTo);
+                compactIfNeeded();
+            }
+            return pruned;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int insertTombstone(Long id) {
+        lock.writeLock().lock();
+        try {
+            if (table.slotOf(id) == LongIntMap.MISSING || tombstonedIds.contains(id)) {
+                return 0;
+            }
+            tombstone(id);
+            return 1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int insertTombstonesByIds(Collection<Long> ids) {
+        lock.writeLock().lock();
+        try {
+            int inserted = 0;
+            for (Long id : ids) {
+                inserted += insertTombstone(id);
+            }
+            return inserted;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int insertTombstonesByStatusAndDeadlineBefore(String status, LocalDate before) {
+        Task.TaskStatus matchStatus = Task.TaskStatus.valueOf(status);
+        int beforeDay = TaskTable.epochDay(before);
+        lock.writeLock().lock();
+        try {
+            List<Task> matching = scan(slot -> matchesStatusAndDeadlineBefore(slot, matchStatus, beforeDay)
+                    && !tombstonedIds.contains(table.id(slot)), Integer.MAX_VALUE);
+            matching.forEach(task -> tombstone(task.getId()));
+            return matching.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int deleteTaskById(Long id) {
+        lock.writeLock().lock();
+        try {
+            return remove(id) ? 1 : 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int deleteTombstonedByStatusAndDeadlineBefore(Task.TaskStatus status, LocalDate before) {
+        int beforeDay = TaskTable.epochDay(before);
+        lock.writeLock().lock();
+        try {
+            List<Task> matching = scan(slot -> matchesStatusAndDeadlineBefore(slot, status, beforeDay)
+                    && tombstonedIds.contains(table.id(slot)), Integer.MAX_VALUE);
+            matching.forEach(task -> remove(task.getId()));
+            return matching.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // --- Query by example is not supported by this backend ---
+
+    @Override
+    public <S extends Task> Optional<S> findOne(Example<S> example) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends Task> List<S> findAll(Example<S> example) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends Task> List<S> findAll(Example<S> example, Sort sort) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends Task> Page<S> findAll(Example<S> example, Pageable pageable) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends Task> long count(Example<S> example) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends Task> boolean exists(Example<S> example) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends Task, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        throw unsupported();
+    }
+
+    // --- Internals, callers hold the write lock ---
+
+    // New tasks get the next id and version 0; updates must carry the stored version, like @Version in JPA
+    private void store(Task task) {
+        Task stored = task.getId() == null ? null : table.get(task.getId());
+        if (stored == null) {
+            if (task.getId() != null && task.getVersion() != null) {
+                throw new ObjectOptimisticLockingFailureException(Task.class, task.getId());
+            }
+            task.setId(++lastId);
+            task.setVersion(0L);
+        } else {
+            if (task.getVersion() != null && !task.getVersion().equals(stored.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(Task.class, task.getId());
+            }
+            task.setVersion(stored.getVersion() == null ? 0L : stored.getVersion() + 1);
+        }
+        task.trackCompletion();
+        taskLog.appendPut(task);
+        table.put(task);
+        compactIfNeeded();
+    }
+
+    // Native status updates bump the version and take a fresh change sequence value, like the SQL ones
+    private void restamp(Task task, Task.TaskStatus status) {
+        task.setStatus(status);
+        task.trackCompletion();
+        task.setVersion(task.getVersion() == null ? 0L : task.getVersion() + 1);
+        task.setModSeq(++lastChangeSequence);
+        taskLog.appendPut(task);
+        table.put(task);
+        compactIfNeeded();
+    }
+
+    private void tombstone(long id) {
+        long sequence = ++lastChangeSequence;
+        taskLog.appendTombstone(id, sequence);
+        tombstones.put(sequence, id);
+        tombstonedIds.add(id);
+        compactIfNeeded();
+    }
+
+    private boolean remove(Long id) {
+        if (id == null || table.slotOf(id) == LongIntMap.MISSING) {
+            return false;
+        }
+        taskLog.appendDelete(id);
+        boolean removed = table.remove(id);
+        compactIfNeeded();
+        return removed;
+    }
+
+    // Runs after every logged write, with the write lock held and the table up to date. Past the threshold, and
+    // twice the size the last compaction left so a large live set isn't rewritten over and over, the log is
+    // rewritten like on startup while writers wait. The new log is open before the old one is closed, so a
+    // failed rewrite leaves the old one in use.
+    private void compactIfNeeded() {
+        long size = taskLog.size();
+        if (size < compactAfterBytes || size < 2 * compactedSize) {
+            return;
+        }
+        try {
+            long compacted = TaskLog.rewrite(logPath, liveTasks(), tombstoneRecords(), lastId, prunedUpTo);
+            TaskLog previous = taskLog;
+            taskLog = TaskLog.open(logPath, compacted, fsync);
+            compactedSize = compacted;
+            previous.close();
+            log.info("Task log {} compacted from {} to {} bytes", logPath, size, compacted);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not compact task log " + logPath, ex);
+        }
+    }
+
+    private boolean matchesStatusAndDeadlineBefore(int slot, Task.TaskStatus status, int beforeDay) {
+        int deadline = table.deadlineEpochDay(slot);
+        return table.status(slot) == status && deadline != Integer.MIN_VALUE && deadline < beforeDay;
+    }
+
+    private boolean withinDeadline(int slot, int from, int to) {
+        int deadline = table.deadlineEpochDay(slot);
+        return deadline != Integer.MIN_VALUE && deadline >= from && deadline <= to;
+    }
+
+    // Callers hold either lock; reentrant read locking is fine for the read-only callers
+    private List<Task> scan(IntPredicate filter, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Task> tasks = new ArrayList<>();
+            for (int slot = 0; slot < table.usedSlots() && tasks.size() < limit; slot++) {
+                if (table.isLive(slot) && filter.test(slot)) {
+                    tasks.add(table.read(slot));
+                }
+            }
+            return tasks;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Task> changedSince(long since, IntPredicate filter, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Integer> slots = new ArrayList<>();
+            for (int slot = 0; slot < table.usedSlots(); slot++) {
+                if (table.isLive(slot) && table.modSeq(slot) > since && filter.test(slot)) {
+                    slots.add(slot);
+                }
+            }
+            return slots.stream()
+                    .sorted(Comparator.comparingLong(table::modSeq))
+                    .limit(limit)
+                    .map(table::read)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Task> chunkAfter(long afterId) {
+        lock.readLock().lock();
+        try {
+            List<Task> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+            for (int slot = table.firstSlotAfter(afterId); slot < table.usedSlots() && chunk.size() < STREAM_CHUNK_SIZE; slot++) {
+                if (table.isLive(slot)) {
+                    chunk.add(table.read(slot));
+                }
+            }
+            return chunk;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private record Group(String category, Task.TaskStatus status) {
+    }
+
+    private List<CategoryStatusCount> countGrouped(IntPredicate filter) {
+        lock.readLock().lock();
+        try {
+            Map<Group, Long> counts = new HashMap<>();
+            for (int slot = 0; slot < table.usedSlots(); slot++) {
+                if (table.isLive(slot) && filter.test(slot)) {
+                    counts.merge(new Group(table.category(slot), table.status(slot)), 1L, Long::sum);
+                }
+            }
+            return counts.entrySet().stream()
+                    .map(entry -> new CategoryStatusCount(entry.getKey().category(), entry.getKey().status(), entry.getValue()))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private record DeadlineGroup(String category, Task.TaskStatus status, int deadline) {
+    }
+
+    private List<TaskCount> countByDeadline(IntPredicate filter) {
+        lock.readLock().lock();
+        try {
+            Map<DeadlineGroup, Long> counts = new HashMap<>();
+            for (int slot = 0; slot < table.usedSlots(); slot++) {
+                if (table.isLive(slot) && filter.test(slot)) {
+                    counts.merge(new DeadlineGroup(table.category(slot), table.status(slot), table.deadlineEpochDay(slot)),
+                            1L, Long::sum);
+                }
+            }
+            return counts.entrySet().stream()
+                    .map(entry -> new TaskCount(entry.getKey().category(), entry.getKey().status(),
+                            entry.getKey().deadline() == Integer.MIN_VALUE ? null : LocalDate.ofEpochDay(entry.getKey().deadline()),
+                            entry.getValue()))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void pruneTombstones(long upTo) {
+        Map<Long, Long> pruned = tombstones.headMap(upTo, true);
+        tombstonedIds.removeAll(pruned.values());
+        pruned.clear();
+        prunedUpTo = Math.max(prunedUpTo, upTo);
+    }
+
+    private Iterable<Task> liveTasks() {
+        return scan(slot -> true, Integer.MAX_VALUE);
+    }
+
+    private Iterable<long[]> tombstoneRecords() {
+        return tombstones.entrySet().stream().map(entry -> new long[]{entry.getValue(), entry.getKey()}).toList();
+    }
+
+    private static void requireIdOrder(Sort sort) {
+        for (Sort.Order order : sort) {
+            if (!order.getProperty().equals("id") || order.isDescending()) {
+                throw new UnsupportedOperationException("The in-memory task repository only sorts by ascending id");
+            }
+        }
+    }
+
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("Query by example is not supported by the in-memory task repository");
+    }
+
+    // Rebuilds the table from log records; the highest id and change sequence seen are kept so neither is reused
+    private class Replay implements TaskLog.Visitor {
+
+        @Override
+        public void put(Task task) {
+            table.put(task);
+            lastId = Math.max(lastId, task.getId());
+            if (task.getModSeq() != null) {
+                lastChangeSequence = Math.max(lastChangeSequence, task.getModSeq());
+            }
+        }
+
+        @Override
+        public void delete(long id) {
+            table.remove(id);
+            lastId = Math.max(lastId, id);
+        }
+
+        @Override
+        public void tombstone(long taskId, long modSeq) {
+            tombstones.put(modSeq, taskId);
+            tombstonedIds.add(taskId);
+            lastChangeSequence = Math.max(lastChangeSequence, modSeq);
+        }
+
+        @Override
+        public void pruneTombstones(long upTo) {
+            InMemoryTaskRepository.this.pruneTombstones(upTo);
+            lastChangeSequence = Math.max(lastChangeSequence, upTo);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package org.example.repository.memory;
+
+import org.example.model.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.zip.CRC32;
+
+// Append-only, memory-mapped log behind InMemoryTaskRepository. Every record is [length][crc32][payload];
+// the mapped region past the last record is zero, so replay stops at the first zero length, and a torn
+// record at the tail (crash mid-write) fails its checksum and is ignored. Writes land in the OS page cache
+// right away and survive a process crash; with fsync enabled each append is also forced to disk.
+final class TaskLog implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskLog.class);
+
+    private static final byte PUT_WITHOUT_COMPLETED_AT = 1; // written before tasks had completedAt, still replayed
+    private static final byte DELETE = 2;
+    private static final byte TOMBSTONE = 3;
+    private static final byte PUT = 4;
+    private static final byte PRUNE_TOMBSTONES = 5;
+    private static final int HEADER_BYTES = 8;
+    private static final long MIN_MAPPED_BYTES = 16L << 20;
+    private static final long NO_VALUE = Long.MIN_VALUE;
+
+    // Receives the records of an existing log during replay
+    interface Visitor {
+        void put(Task task);
+
+        void delete(long id);
+
+        void tombstone(long taskId, long modSeq);
+
+        void pruneTombstones(long upTo);
+    }
+
+    private final Path path;
+    private final boolean fsync;
+    private final CRC32 crc = new CRC32();
+    private ByteBuffer record = ByteBuffer.allocate(4096);
+    private FileChannel channel;
+    private MappedByteBuffer mapped;
+    private long mappedBytes;
+    private long position;
+
+    private TaskLog(Path path, boolean fsync) {
+        this.path = path;
+        this.fsync = fsync;
+    }
+
+    // Replays the log at path (if any) into the visitor and returns the position after the last good record
+    static long replay(Path path, Visitor visitor) throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            CRC32 crc = new CRC32();
+            while (buffer.remaining() >= HEADER_BYTES) {
+                int start = buffer.position();
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length <= 0 || length > buffer.remaining()) {
+                    buffer.position(start);
+                    break;
+                }
+                ByteBuffer payload = buffer.slice(buffer.position(), length);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    log.warn("Ignoring a damaged record at offset {} of {}, the tail of the log is dropped", start, path);
+                    buffer.position(start);
+                    break;
+                }
+                decode(payload, visitor);
+                buffer.position(buffer.position() + length);
+            }
+            return buffer.position();
+        }
+    }
+
+    // Opens the log for appending after the given position
+    static TaskLog open(Path path, long position, boolean fsync) throws IOException {
+        TaskLog taskLog = new TaskLog(path, fsync);
+        taskLog.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        taskLog.position = position;
+        taskLog.map(Math.min(Integer.MAX_VALUE, Math.max(MIN_MAPPED_BYTES, Math.max(taskLog.channel.size(), position * 2))));
+        return taskLog;
+    }
+
+    // Writes a fresh log holding only the given state next to the old one, then swaps it in atomically.
+    // A delete record for lastId is kept when that task is gone, so its id is not handed out again, and a prune
+    // record for prunedUpTo, so change sequence values of pruned tombstones aren't either.
+    // Returns the size of the new log.
+    static long rewrite(Path path, Iterable<Task> tasks, Iterable<long[]> tombstones, long lastId, long prunedUpTo)
+            throws IOException {
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        Files.deleteIfExists(compacted);
+        long size;
+        try (TaskLog taskLog = open(compacted, 0, false)) {
+            long maxId = 0;
+            for (Task task : tasks) {
+                taskLog.appendPut(task);
+                maxId = Math.max(maxId, task.getId());
+            }
+            if (lastId > maxId) {
+                taskLog.appendDelete(lastId);
+            }
+            if (prunedUpTo > 0) {
+                taskLog.appendPruneTombstones(prunedUpTo);
+            }
+            for (long[] tombstone : tombstones) {
+                taskLog.appendTombstone(tombstone[0], tombstone[1]);
+            }
+            size = taskLog.size();
+        }
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return size;
+    }
+
+    long size() {
+        return position;
+    }
+
+    void appendPut(Task task) {
+        startRecord(PUT);
+        record.putLong(task.getId());
+        record.putLong(task.getVersion() == null ? NO_VALUE : task.getVersion());
+        record.putLong(task.getModSeq() == null ? NO_VALUE : task.getModSeq());
+        record.put(task.getStatus() == null ? 0 : (byte) (task.getStatus().ordinal() + 1));
+        record.putInt(TaskTable.epochDay(task.getDeadline()));
+        record.putLong(TaskTable.epochMicros(task.getCompletedAt()));
+        putString(task.getCategory());
+        putString(task.getTitle());
+        putString(task.getDescription());
+        finishRecord();
+    }
+
+    void appendDelete(long id) {
+        startRecord(DELETE);
+        record.putLong(id);
+        finishRecord();
+    }
+
+    void appendTombstone(long taskId, long modSeq) {
+        startRecord(TOMBSTONE);
+        record.putLong(taskId);
+        record.putLong(modSeq);
+        finishRecord();
+    }
+
+    void appendPruneTombstones(long upTo) {
+        startRecord(PRUNE_TOMBSTONES);
+        record.putLong(upTo);
+        finishRecord();
+    }
+
+    private void startRecord(byte type) {
+        record.clear();
+        record.put(type);
+    }
+
+    private void putString(String value) {
+        if (value == null) {
+            ensureRecordCapacity(4);
+            record.putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ensureRecordCapacity(4 + bytes.length);
+        record.putInt(bytes.length);
+        record.put(bytes);
+    }
+
+    private void ensureRecordCapacity(int bytes) {
+        if (record.remaining() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(record.capacity() * 2, record.position() + bytes + 64));
+            record.flip();
+            larger.put(record);
+            record = larger;
+        }
+    }
+
+    private void finishRecord() {
+        record.flip();
+        int length = record.remaining();
+        crc.reset();
+        crc.update(record.duplicate());
+        long end = position + HEADER_BYTES + length;
+        if (end > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Task log " + path + " has no room for another " + length
+                    + " byte record, a mapping ends at 2 GB");
+        }
+        if (end > mappedBytes) {
+            map(Math.min(Integer.MAX_VALUE, Math.max(mappedBytes * 2, end)));
+        }
+        int offset = (int) position;
+        // Payload and checksum first, the length last: a record only becomes visible to replay once complete
+        mapped.putInt(offset + 4, (int) crc.getValue());
+        mapped.put(offset + HEADER_BYTES, record, 0, length);
+        mapped.putInt(offset, length);
+        position += HEADER_BYTES + length;
+        if (fsync) {
+            mapped.force(offset, HEADER_BYTES + length);
+        }
+    }
+
+    private void map(long bytes) {
+        try {
+            mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            mappedBytes = bytes;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static void decode(ByteBuffer payload, Visitor visitor) {
+        byte type = payload.get();
+        switch (type) {
+            case PUT, PUT_WITHOUT_COMPLETED_AT -> {
+                Task task = new Task();
+                task.setId(payload.getLong());
+                long version = payload.getLong();
+                long modSeq = payload.getLong();
+                task.setVersion(version == NO_VALUE ? null : version);
+                task.setModSeq(modSeq == NO_VALUE ? null : modSeq);
+                byte status = payload.get();
+                task.setStatus(status == 0 ? null : Task.TaskStatus.values()[status - 1]);
+                int deadline = payload.getInt();
+                task.setDeadline(deadline == Integer.MIN_VALUE ? null : LocalDate.ofEpochDay(deadline));
+                if (type == PUT) {
+                    task.setCompletedAt(TaskTable.instant(payload.getLong()));
+                }
+                task.setCategory(getString(payload));
+                task.setTitle(getString(payload));
+                task.setDescription(getString(payload));
+                if (type == PUT_WITHOUT_COMPLETED_AT) {
+                    task.trackCompletion(); // completed tasks from old records count as completed now
+                }
+                visitor.put(task);
+            }
+            case DELETE -> visitor.delete(payload.getLong());
+            case TOMBSTONE -> visitor.tombstone(payload.getLong(), payload.getLong());
+            case PRUNE_TOMBSTONES -> visitor.pruneTombstones(payload.getLong());
+            default -> throw new IllegalStateException("Unknown task log record type " + type);
+        }
+    }
+
+    private static String getString(ByteBuffer payload) {
+        int length = payload.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        mapped.force();
+        channel.truncate(position); // drop the zeroed tail of the mapping
+        channel.close();
+    }
+}
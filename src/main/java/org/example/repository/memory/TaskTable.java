@@ -0,0 +1,252 @@
+package org.example.repository.memory;
+
+import org.example.model.Task;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+// Column-per-field storage for tasks. Status is one byte, the deadline an epoch day int and the category an
+// int code into a dictionary, so each category string is held once. Slots are kept in id order, which makes
+// keyset pages a binary search plus a forward scan; deleted slots stay in place until the next compaction.
+// Not thread-safe, InMemoryTaskRepository guards it with a read/write lock.
+final class TaskTable {
+
+    private static final byte DELETED = -1;
+    private static final byte NO_STATUS = 0;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final int NO_CATEGORY = -1;
+    private static final long NO_VALUE = Long.MIN_VALUE;
+    private static final Task.TaskStatus[] STATUSES = Task.TaskStatus.values();
+
+    private long[] ids;
+    private byte[] statuses;
+    private int[] deadlines;
+    private int[] categories;
+    private long[] versions;
+    private long[] modSeqs;
+    private long[] completedAts;
+    private String[] titles;
+    private String[] descriptions;
+    private int used;
+    private int deleted;
+
+    private final LongIntMap index;
+    private final List<String> categoryNames = new ArrayList<>();
+    private final Map<String, Integer> categoryCodes = new HashMap<>();
+
+    TaskTable(int initialCapacity) {
+        allocate(Math.max(16, initialCapacity));
+        index = new LongIntMap(initialCapacity);
+    }
+
+    int size() {
+        return index.size();
+    }
+
+    long maxId() {
+        return used == 0 ? 0L : ids[used - 1];
+    }
+
+    int slotOf(long id) {
+        return index.get(id);
+    }
+
+    Task get(long id) {
+        int slot = index.get(id);
+        return slot == LongIntMap.MISSING ? null : read(slot);
+    }
+
+    // Inserts or replaces the task with this id; the id must be set
+    void put(Task task) {
+        long id = task.getId();
+        int slot = index.get(id);
+        if (slot == LongIntMap.MISSING) {
+            boolean outOfOrder = used > 0 && id < ids[used - 1];
+            if (used == ids.length) {
+                grow();
+            }
+            slot = used++;
+            ids[slot] = id;
+            index.put(id, slot);
+            write(slot, task);
+            if (outOfOrder) {
+                compact(); // puts the slots back in id order
+            }
+            return;
+        }
+        write(slot, task);
+    }
+
+    boolean remove(long id) {
+        int slot = index.remove(id);
+        if (slot == LongIntMap.MISSING) {
+            return false;
+        }
+        statuses[slot] = DELETED;
+        titles[slot] = null;
+        descriptions[slot] = null;
+        deleted++;
+        if (deleted > 1024 && deleted > used / 2) {
+            compact();
+        }
+        return true;
+    }
+
+    // First slot whose id is above afterId, slots below used are in id order
+    int firstSlotAfter(long afterId) {
+        int position = Arrays.binarySearch(ids, 0, used, afterId);
+        return position >= 0 ? position + 1 : -position - 1;
+    }
+
+    int usedSlots() {
+        return used;
+    }
+
+    boolean isLive(int slot) {
+        return statuses[slot] != DELETED;
+    }
+
+    long id(int slot) {
+        return ids[slot];
+    }
+
+    Task.TaskStatus status(int slot) {
+        return statuses[slot] == NO_STATUS ? null : STATUSES[statuses[slot] - 1];
+    }
+
+    LocalDate deadline(int slot) {
+        return deadlines[slot] == NO_DATE ? null : LocalDate.ofEpochDay(deadlines[slot]);
+    }
+
+    int deadlineEpochDay(int slot) {
+        return deadlines[slot];
+    }
+
+    String category(int slot) {
+        return categories[slot] == NO_CATEGORY ? null : categoryNames.get(categories[slot]);
+    }
+
+    long modSeq(int slot) {
+        return modSeqs[slot];
+    }
+
+    long completedAtMicros(int slot) {
+        return completedAts[slot];
+    }
+
+    Task read(int slot) {
+        Task task = new Task();
+        task.setId(ids[slot]);
+        task.setTitle(titles[slot]);
+        task.setDescription(descriptions[slot]);
+        task.setStatus(status(slot));
+        task.setDeadline(deadline(slot));
+        task.setCategory(category(slot));
+        task.setVersion(versions[slot] == NO_VALUE ? null : versions[slot]);
+        task.setModSeq(modSeqs[slot] == NO_VALUE ? null : modSeqs[slot]);
+        task.setCompletedAt(instant(completedAts[slot]));
+        return task;
+    }
+
+    static int epochDay(LocalDate date) {
+        return date == null ? NO_DATE : (int) date.toEpochDay();
+    }
+
+    // Instants are kept as epoch microseconds, the precision the database column has too
+    static long epochMicros(Instant instant) {
+        return instant == null ? NO_VALUE : instant.getEpochSecond() * 1_000_000L + instant.getNano() / 1_000;
+    }
+
+    static Instant instant(long epochMicros) {
+        return epochMicros == NO_VALUE ? null
+                : Instant.ofEpochSecond(Math.floorDiv(epochMicros, 1_000_000L), Math.floorMod(epochMicros, 1_000_000L) * 1_000);
+    }
+
+    private void write(int slot, Task task) {
+        titles[slot] = task.getTitle();
+        descriptions[slot] = task.getDescription();
+        statuses[slot] = task.getStatus() == null ? NO_STATUS : (byte) (task.getStatus().ordinal() + 1);
+        deadlines[slot] = epochDay(task.getDeadline());
+        categories[slot] = task.getCategory() == null ? NO_CATEGORY : categoryCode(task.getCategory());
+        versions[slot] = task.getVersion() == null ? NO_VALUE : task.getVersion();
+        modSeqs[slot] = task.getModSeq() == null ? NO_VALUE : task.getModSeq();
+        completedAts[slot] = epochMicros(task.getCompletedAt());
+    }
+
+    private int categoryCode(String category) {
+        return categoryCodes.computeIfAbsent(category, name -> {
+            categoryNames.add(name);
+            return categoryNames.size() - 1;
+        });
+    }
+
+    // Drops deleted slots and sorts the rest by id
+    private void compact() {
+        int[] live = IntStream.range(0, used)
+                .filter(this::isLive)
+                .boxed()
+                .sorted(Comparator.comparingLong(slot -> ids[slot]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        long[] oldIds = ids;
+        byte[] oldStatuses = statuses;
+        int[] oldDeadlines = deadlines;
+        int[] oldCategories = categories;
+        long[] oldVersions = versions;
+        long[] oldModSeqs = modSeqs;
+        long[] oldCompletedAts = completedAts;
+        String[] oldTitles = titles;
+        String[] oldDescriptions = descriptions;
+        allocate(Math.max(16, live.length * 3 / 2));
+        index.clear();
+        for (int i = 0; i < live.length; i++) {
+            int from = live[i];
+            ids[i] = oldIds[from];
+            statuses[i] = oldStatuses[from];
+            deadlines[i] = oldDeadlines[from];
+            categories[i] = oldCategories[from];
+            versions[i] = oldVersions[from];
+            modSeqs[i] = oldModSeqs[from];
+            completedAts[i] = oldCompletedAts[from];
+            titles[i] = oldTitles[from];
+            descriptions[i] = oldDescriptions[from];
+            index.put(ids[i], i);
+        }
+        used = live.length;
+        deleted = 0;
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        deadlines = Arrays.copyOf(deadlines, capacity);
+        categories = Arrays.copyOf(categories, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+        modSeqs = Arrays.copyOf(modSeqs, capacity);
+        completedAts = Arrays.copyOf(completedAts, capacity);
+        titles = Arrays.copyOf(titles, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+    }
+
+    private void allocate(int capacity) {
+        ids = new long[capacity];
+        statuses = new byte[capacity];
+        deadlines = new int[capacity];
+        categories = new int[capacity];
+        versions = new long[capacity];
+        modSeqs = new long[capacity];
+        completedAts = new long[capacity];
+        titles = new String[capacity];
+        descriptions = new String[capacity];
+        used = 0;
+        deleted = 0;
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.repository.sharded;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+// task_change_seq values for all shards, reserved from the coordinator a block at a time so a write only goes to the
+// main database once every blockSize values. Values are handed out in increasing order and current() is the last one
+// handed out, which is what ChangeFeedWatermark needs: a write registers before it takes values, so the feed stays
+// below it until it completes, whichever shard it commits on. Assumes one application instance per coordinator, like
+// the watermark itself. Values left in the block at shutdown are skipped.
+final class ChangeSequenceBlocks {
+
+    private final JdbcTemplate coordinator;
+    private final int blockSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    private List<Long> block = List.of();
+    private int position;
+    private long last = -1; // nothing handed out yet
+
+    ChangeSequenceBlocks(JdbcTemplate coordinator, int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("The change sequence block size must be at least 1");
+        }
+        this.coordinator = coordinator;
+        this.blockSize = blockSize;
+    }
+
+    List<Long> next(int count) {
+        lock.lock();
+        try {
+            List<Long> values = new ArrayList<>(count);
+            while (values.size() < count) {
+                if (position == block.size()) {
+                    reserve(Math.max(blockSize, count - values.size()));
+                }
+                values.add(block.get(position++));
+            }
+            if (!values.isEmpty()) {
+                last = values.get(values.size() - 1);
+            }
+            return values;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long current() {
+        lock.lock();
+        try {
+            if (last < 0) {
+                // everything taken before this process started is at or below the coordinator's value
+                return coordinator.queryForObject("SELECT BASE_VALUE - 1 FROM information_schema.sequences"
+                        + " WHERE sequence_name = 'TASK_CHANGE_SEQ'", Long.class);
+            }
+            return last;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void reserve(int size) {
+        block = coordinator.queryForList("SELECT NEXT VALUE FOR task_change_seq FROM SYSTEM_RANGE(1, ?)", Long.class, size)
+                .stream().sorted().toList();
+        position = 0;
+    }
+}
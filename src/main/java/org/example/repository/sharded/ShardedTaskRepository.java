@@ -0,0 +1,617 @@
+package org.example.repository.sharded;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.example.model.CategoryStatusCount;
+import org.example.model.Task;
+import org.example.model.TaskCount;
+import org.example.model.TaskTombstone;
+import org.example.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+// TaskRepository spread over N independent databases, for the "sharded" profile. The shard is encoded in the task id
+// (shardOf), so finding, updating and deleting one task touches one shard; new tasks go round-robin or, with
+// tasks.sharding.key=category, to the shard of their category. Lists, counts and the change feed ask every shard
+// in parallel and merge. Each call is a transaction on its shard only (joinsTransactions is false), so a
+// service-level @Transactional that spans several calls or shards is not atomic here and row locks end with each
+// call; the tombstone-and-delete calls run both statements in one shard transaction.
+@Repository
+@Primary
+@Profile("sharded")
+@Transactional(propagation = Propagation.SUPPORTS) // the shards run their own transactions
+public class ShardedTaskRepository implements TaskRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardedTaskRepository.class);
+
+    private static final int STREAM_CHUNK_SIZE = 500;
+
+    enum ShardKey { ID, CATEGORY }
+
+    private final List<TaskShard> shards;
+    private final ShardKey shardKey;
+    private final ChangeSequenceBlocks changeSequences;
+    private final ExecutorService fanOutExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger nextShard = new AtomicInteger();
+
+    public ShardedTaskRepository(@Value("${tasks.sharding.shards:4}") int shardCount,
+                                 @Value("${tasks.sharding.url:jdbc:h2:mem:task-shard-{shard};DB_CLOSE_DELAY=-1}") String url,
+                                 @Value("${tasks.sharding.pool-size:10}") int poolSize,
+                                 @Value("${tasks.sharding.key:id}") String shardKey,
+                                 @Value("${tasks.sharding.change-sequence-block:1000}") int changeSequenceBlock,
+                                 @Value("${spring.datasource.username:sa}") String username,
+                                 @Value("${spring.datasource.password:}") String password,
+                                 JdbcTemplate coordinator) {
+        this.shardKey = ShardKey.valueOf(shardKey.toUpperCase());
+        this.changeSequences = new ChangeSequenceBlocks(coordinator, changeSequenceBlock);
+        List<TaskShard> opened = new ArrayList<>(shardCount);
+        try {
+            for (int i = 0; i < shardCount; i++) {
+                opened.add(TaskShard.open(i, shardCount, url.replace("{shard}", String.valueOf(i)), username, password, poolSize));
+            }
+        } catch (RuntimeException ex) {
+            opened.forEach(TaskShard::close);
+            throw ex;
+        }
+        this.shards = List.copyOf(opened);
+        log.info("Task storage sharded over {} databases by {}", shardCount, this.shardKey.name().toLowerCase());
+    }
+
+    @PreDestroy
+    public void close() {
+        fanOutExecutor.shutdownNow();
+        shards.forEach(TaskShard::close);
+    }
+
+    // Shard i owns id blocks i, i + n, i + 2n, ... of Task.ID_ALLOCATION_SIZE ids each
+    static int shardOf(long id, int shardCount) {
+        return (int) Math.floorMod((id - 1) / Task.ID_ALLOCATION_SIZE, (long) shardCount);
+    }
+
+    TaskShard shardOf(long id) {
+        return shards.get(shardOf(id, shards.size()));
+    }
+
+    int shardCount() {
+        return shards.size();
+    }
+
+    // Existing tasks stay where their id says; a new one is placed by the shard key and gets its id from that shard
+    private TaskShard shardFor(Task task) {
+        if (task.getId() != null) {
+            return shardOf(task.getId());
+        }
+        if (shardKey == ShardKey.CATEGORY) {
+            return shards.get(Math.floorMod(Objects.hashCode(task.getCategory()), shards.size()));
+        }
+        return shards.get(Math.floorMod(nextShard.getAndIncrement(), shards.size()));
+    }
+
+    // --- CRUD ---
+
+    @Override
+    public <S extends Task> S save(S task) {
+        return shardFor(task).write(repository -> repository.save(task));
+    }
+
+    // Each shard stores its part of the list in one transaction, all shards at the same time
+    @Override
+    public <S extends Task> List<S> saveAll(Iterable<S> tasks) {
+        Map<TaskShard, List<Integer>> positions = new LinkedHashMap<>();
+        List<S> input = new ArrayList<>();
+        for (S task : tasks) {
+            positions.computeIfAbsent(shardFor(task), shard -> new ArrayList<>()).add(input.size());
+            input.add(task);
+        }
+        List<S> saved = new ArrayList<>(input);
+        inParallel(positions.entrySet(), entry -> {
+            List<S> part = entry.getValue().stream().map(input::get).toList();
+            List<S> stored = entry.getKey().write(repository -> repository.saveAll(part));
+            for (int i = 0; i < stored.size(); i++) {
+                saved.set(entry.getValue().get(i), stored.get(i));
+            }
+            return stored.size();
+        });
+        return saved;
+    }
+
+    @Override
+    public <S extends Task> S saveAndFlush(S task) {
+        return save(task);
+    }
+
+    @Override
+    public <S extends Task> List<S> saveAllAndFlush(Iterable<S> tasks) {
+        return saveAll(tasks);
+    }
+
+    @Override
+    public void flush() {
+        // every call has committed on its shard already
+    }
+
+    @Override
+    public Optional<Task> findById(Long id) {
+        return shardOf(id).read(repository -> repository.findById(id));
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return shardOf(id).read(repository -> repository.existsById(id));
+    }
+
+    @Override
+    public Task getReferenceById(Long id) {
+        return findById(id).orElseThrow(() -> new EntityNotFoundException("Task " + id + " not found"));
+    }
+
+    @Override
+    @Deprecated
+    public Task getById(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    @Deprecated
+    public Task getOne(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    public List<Task> findAll() {
+        return merge(fanOut(TaskRepository::findAll), Comparator.comparing(Task::getId), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Task> findAllById(Iterable<Long> ids) {
+        Map<TaskShard, List<Long>> byShard = new LinkedHashMap<>();
+        ids.forEach(id -> byShard.computeIfAbsent(shardOf(id), shard -> new ArrayList<>()).add(id));
+        return inParallel(byShard.entrySet(), entry -> entry.getKey().read(repository -> repository.findAllById(entry.getValue())))
+                .stream().flatMap(List::stream).toList();
+    }
+
+    // Only id order is supported, the one order every shard can produce and the merge can keep
+    @Override
+    public List<Task> findAll(Sort sort) {
+        requireIdOrder(sort);
+        return findAll();
+    }
+
+    // Offset paging: every shard returns its first offset + size tasks and the merge skips the offset
+    @Override
+    public Page<Task> findAll(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(findAll());
+        }
+        requireIdOrder(pageable.getSort());
+        int upTo = Math.toIntExact(pageable.getOffset() + pageable.getPageSize());
+        PageRequest firstRows = PageRequest.of(0, upTo, Sort.by("id"));
+        List<Task> content = merge(fanOut(repository -> repository.findAll(firstRows).getContent()),
+                Comparator.comparing(Task::getId), upTo).stream()
+                .skip(pageable.getOffset())
+                .toList();
+        return new PageImpl<>(content, pageable, count());
+    }
+
+    @Override
+    public long count() {
+        return fanOut(TaskRepository::count).stream().mapToLong(Long::longValue).sum();
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        shardOf(id).write(repository -> {
+            repository.deleteById(id);
+            return null;
+        });
+    }
+
+    @Override
+    public void delete(Task task) {
+        deleteById(task.getId());
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        Map<TaskShard, List<Long>> byShard = new LinkedHashMap<>();
+        ids.forEach(id -> byShard.computeIfAbsent(shardOf(id), shard -> new ArrayList<>()).add(id));
+        inParallel(byShard.entrySet(), entry -> entry.getKey().write(repository -> {
+            repository.deleteAllById(entry.getValue());
+            return null;
+        }));
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Task> tasks) {
+        List<Long> ids = new ArrayList<>();
+        tasks.forEach(task -> ids.add(task.getId()));
+        deleteAllById(ids);
+    }
+
+    @Override
+    public void deleteAll() {
+        fanOutWrite(repository -> {
+            repository.deleteAll();
+            return null;
+        });
+    }
+
+    @Override
+    @Deprecated
+    public void deleteInBatch(Iterable<Task> tasks) {
+        deleteAllInBatch(tasks);
+    }
+
+    @Override
+    public void deleteAllInBatch(Iterable<Task> tasks) {
+        List<Long> ids = new ArrayList<>();
+        tasks.forEach(task -> ids.add(task.getId()));
+        deleteAllByIdInBatch(ids);
+    }
+
+    @Override
+    public void deleteAllByIdInBatch(Iterable<Long> ids) {
+        Map<TaskShard, List<Long>> byShard = new LinkedHashMap<>();
+        ids.forEach(id -> byShard.computeIfAbsent(shardOf(id), shard -> new ArrayList<>()).add(id));
+        inParallel(byShard.entrySet(), entry -> entry.getKey().write(repository -> {
+            repository.deleteAllByIdInBatch(entry.getValue());
+            return null;
+        }));
+    }
+
+    @Override
+    public void deleteAllInBatch() {
+        fanOutWrite(repository -> {
+            repository.deleteAllInBatch();
+            return null;
+        });
+    }
+
+    // --- Queries from TaskRepository: every shard answers for its own tasks, the merge keeps the query's order ---
+
+    @Override
+    public List<Task> findPage(long afterId, Task.TaskStatus status, String category,
+                               LocalDate deadlineFrom, LocalDate deadlineTo, Pageable pageable) {
+        return merge(fanOut(repository -> repository.findPage(afterId, status, category, deadlineFrom, deadlineTo, pageable)),
+                Comparator.comparing(Task::getId), pageable.getPageSize());
+    }
+
+    // Merged keyset pages in id order, so no shard has to keep a cursor open between chunks
+    @Override
+    public Stream<Task> streamAll() {
+        PageRequest chunkSize = PageRequest.of(0, STREAM_CHUNK_SIZE);
+        return Stream.iterate(findPage(0L, null, null, null, null, chunkSize), chunk -> !chunk.isEmpty(),
+                        chunk -> findPage(chunk.get(chunk.size() - 1).getId(), null, null, null, null, chunkSize))
+                .flatMap(List::stream);
+    }
+
+    @Override
+    public List<Task> findChangedSince(long since, Pageable pageable) {
+        return merge(fanOut(repository -> repository.findChangedSince(since, pageable)),
+                Comparator.comparing(Task::getModSeq), pageable.getPageSize());
+    }
+
+    @Override
+    public List<TaskTombstone> findTombstonesSince(long since, Pageable pageable) {
+        return merge(fanOut(repository -> repository.findTombstonesSince(since, pageable)),
+                Comparator.comparing(TaskTombstone::getModSeq), pageable.getPageSize());
+    }
+
+    @Override
+    public List<CategoryStatusCount> countByCategoryAndStatus() {
+        return sumCounts(fanOut(TaskRepository::countByCategoryAndStatus));
+    }
+
+    @Override
+    public List<CategoryStatusCount> countByStatusAndDeadlineBefore(Task.TaskStatus status, LocalDate before) {
+        return sumCounts(fanOut(repository -> repository.countByStatusAndDeadlineBefore(status, before)));
+    }
+
+    @Override
+    public List<TaskCount> countDeadlinesByStatus(Task.TaskStatus status) {
+        return fanOut(repository -> repository.countDeadlinesByStatus(status)).stream().flatMap(List::stream).toList();
+    }
+
+    @Override
+    public List<TaskCount> countByCategoryAndStatusNot(String category, Task.TaskStatus status) {
+        return fanOut(repository -> repository.countByCategoryAndStatusNot(category, status)).stream()
+                .flatMap(List::stream).toList();
+    }
+
+    // The row lock only lasts for this call, each shard commits on its own
+    @Override
+    public Optional<Task> findLockedById(Long id) {
+        return shardOf(id).write(repository -> repository.findLockedById(id));
+    }
+
+    @Override
+    public List<Task> findByStatusAndCompletedAtBefore(Task.TaskStatus status, Instant before, Pageable pageable) {
+        return merge(fanOut(repository -> repository.findByStatusAndCompletedAtBefore(status, before, pageable)),
+                Comparator.comparing(Task::getId), pageable.getPageSize());
+    }
+
+    @Override
+    public List<Task> findDueAfter(Task.TaskStatus status, LocalDate afterDeadline, long afterId, LocalDate dueBy,
+                                   Pageable pageable) {
+        return merge(fanOut(repository -> repository.findDueAfter(status, afterDeadline, afterId, dueBy, pageable)),
+                Comparator.comparing(Task::getDeadline).thenComparing(Task::getId), pageable.getPageSize());
+    }
+
+    @Override
+    public List<Task> findChangedDueSince(long since, Task.TaskStatus status, LocalDate dueBy, Pageable pageable) {
+        return merge(fanOut(repository -> repository.findChangedDueSince(since, status, dueBy, pageable)),
+                Comparator.comparing(Task::getModSeq), pageable.getPageSize());
+    }
+
+    // Change sequence values are unique over all shards but each shard commits on its own, so they can become
+    // visible out of order; ChangeFeedWatermark keeps the feed below any write that has not completed yet
+    @Override
+    public List<Long> nextChangeSequences(int count) {
+        return changeSequences.next(count);
+    }
+
+    @Override
+    public long currentChangeSequence() {
+        return changeSequences.current();
+    }
+
+    // The single-statement writes below lock the matching rows on their shard, take one change sequence value per
+    // row and then write, all in one shard transaction
+
+    @Override
+    public int updateStatus(Long id, String status) {
+        return restamp(shardOf(id), "id = :id", new MapSqlParameterSource("id", id), status);
+    }
+
+    @Override
+    public int updateStatusByCategory(String category, String status) {
+        MapSqlParameterSource params = new MapSqlParameterSource("category", category).addValue("status", status);
+        return sum(fanOutShards(shard -> restamp(shard, "category = :category AND (status IS NULL OR status <> :status)",
+                params, status)));
+    }
+
+    @Override
+    public int insertTombstone(Long id) {
+        return tombstone(shardOf(id), "id = :id", new MapSqlParameterSource("id", id));
+    }
+
+    @Override
+    public int insertTombstonesByStatusAndDeadlineBefore(String status, LocalDate before) {
+        MapSqlParameterSource params = new MapSqlParameterSource("status", status).addValue("before", before);
+        return sum(fanOutShards(shard -> tombstone(shard, "status = :status AND deadline < :before", params)));
+    }
+
+    @Override
+    public int insertTombstonesByIds(Collection<Long> ids) {
+        Map<TaskShard, List<Long>> byShard = new LinkedHashMap<>();
+        ids.forEach(id -> byShard.computeIfAbsent(shardOf(id), shard -> new ArrayList<>()).add(id));
+        return sum(inParallel(byShard.entrySet(),
+                entry -> tombstone(entry.getKey(), "id IN (:ids)", new MapSqlParameterSource("ids", entry.getValue()))));
+    }
+
+    @Override
+    public int deleteWithTombstone(Long id) {
+        return shardOf(id).writeWithJdbc((repository, jdbc) ->
+                stampTombstones(jdbc, "id = :id", new MapSqlParameterSource("id", id)) == 0 ? 0 : repository.deleteTaskById(id));
+    }
+
+    @Override
+    public int deleteWithTombstonesByStatusAndDeadlineBefore(Task.TaskStatus status, LocalDate before) {
+        MapSqlParameterSource params = new MapSqlParameterSource("status", status.name()).addValue("before", before);
+        return sum(fanOutShards(shard -> shard.writeWithJdbc((repository, jdbc) -> {
+            stampTombstones(jdbc, "status = :status AND deadline < :before", params);
+            return repository.deleteTombstonedByStatusAndDeadlineBefore(status, before);
+        })));
+    }
+
+    @Override
+    public void deleteAllWithTombstones(Collection<Long> ids) {
+        Map<TaskShard, List<Long>> byShard = new LinkedHashMap<>();
+        ids.forEach(id -> byShard.computeIfAbsent(shardOf(id), shard -> new ArrayList<>()).add(id));
+        inParallel(byShard.entrySet(), entry -> entry.getKey().writeWithJdbc((repository, jdbc) -> {
+            stampTombstones(jdbc, "id IN (:ids)", new MapSqlParameterSource("ids", entry.getValue()));
+            repository.deleteAllByIdInBatch(entry.getValue());
+            return null;
+        }));
+    }
+
+    @Override
+    public boolean joinsTransactions() {
+        return false;
+    }
+
+    @Override
+    public int deleteTaskById(Long id) {
+        return shardOf(id).write(repository -> repository.deleteTaskById(id));
+    }
+
+    @Override
+    public int deleteTombstonedByStatusAndDeadlineBefore(Task.TaskStatus status, LocalDate before) {
+        return sum(fanOutWrite(repository -> repository.deleteTombstonedByStatusAndDeadlineBefore(status, before)));
+    }
+
+    @Override
+    public int deleteTombstonesUpTo(long upTo) {
+        return sum(fanOutWrite(repository -> repository.deleteTombstonesUpTo(upTo)));
+    }
+
+    // --- Query by example is not supported by this backend ---
+
+    @Override
+    public <S extends Task> Optional<S> findOne(Example<S> example) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends Task> List<S> findAll(Example<S> example) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends Task> List<S> findAll(Example<S> example, Sort sort) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends Task> Page<S> findAll(Example<S> example, Pageable pageable) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends Task> long count(Example<S> example) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends Task> boolean exists(Example<S> example) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends Task, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        throw unsupported();
+    }
+
+    // --- Internals ---
+
+    private int restamp(TaskShard shard, String where, SqlParameterSource params, String status) {
+        return shard.writeJdbc(jdbc -> {
+            List<Long> ids = lockIds(jdbc, where, params);
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            Iterator<Long> sequences = nextChangeSequences(ids.size()).iterator();
+            SqlParameterSource[] rows = ids.stream()
+                    .map(id -> new MapSqlParameterSource("id", id).addValue("status", status).addValue("modSeq", sequences.next()))
+                    .toArray(SqlParameterSource[]::new);
+            jdbc.batchUpdate("UPDATE task SET status = :status, version = version + 1, mod_seq = :modSeq, "
+                    + COMPLETED_AT_FOR_STATUS + " WHERE id = :id", rows);
+            return ids.size();
+        });
+    }
+
+    private int tombstone(TaskShard shard, String where, SqlParameterSource params) {
+        return shard.writeJdbc(jdbc -> stampTombstones(jdbc, where, params));
+    }
+
+    // Must run inside a shard transaction
+    private int stampTombstones(NamedParameterJdbcTemplate jdbc, String where, SqlParameterSource params) {
+        List<Long> ids = lockIds(jdbc, where, params);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Iterator<Long> sequences = nextChangeSequences(ids.size()).iterator();
+        SqlParameterSource[] rows = ids.stream()
+                .map(id -> new MapSqlParameterSource("taskId", id).addValue("modSeq", sequences.next()))
+                .toArray(SqlParameterSource[]::new);
+        jdbc.batchUpdate("INSERT INTO task_tombstone (task_id, mod_seq) VALUES (:taskId, :modSeq)", rows);
+        return ids.size();
+    }
+
+    private static List<Long> lockIds(NamedParameterJdbcTemplate jdbc, String where, SqlParameterSource params) {
+        return jdbc.queryForList("SELECT id FROM task WHERE " + where + " ORDER BY id FOR UPDATE", params, Long.class);
+    }
+
+    private <T> List<T> fanOut(Function<TaskRepository, T> query) {
+        return fanOutShards(shard -> shard.read(query));
+    }
+
+    private <T> List<T> fanOutWrite(Function<TaskRepository, T> work) {
+        return fanOutShards(shard -> shard.write(work));
+    }
+
+    private <T> List<T> fanOutShards(Function<TaskShard, T> work) {
+        return inParallel(shards, work);
+    }
+
+    // Runs work for every item on its own virtual thread and waits for all of them; the first failure is rethrown
+    private <I, T> List<T> inParallel(Collection<I> items, Function<I, T> work) {
+        if (items.size() == 1) {
+            return List.of(work.apply(items.iterator().next()));
+        }
+        List<CompletableFuture<T>> futures = items.stream()
+                .map(item -> CompletableFuture.supplyAsync(() -> work.apply(item), fanOutExecutor))
+                .toList();
+        List<T> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<T> future : futures) {
+            try {
+                results.add(future.join());
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw ex;
+            }
+        }
+        return results;
+    }
+
+    // Every shard's list is already sorted and at most limit long, so sorting the union is cheap
+    private static <T> List<T> merge(List<List<T>> perShard, Comparator<T> order, int limit) {
+        return perShard.stream().flatMap(List::stream).sorted(order).limit(limit).toList();
+    }
+
+    private record Group(String category, Task.TaskStatus status) {
+    }
+
+    private static List<CategoryStatusCount> sumCounts(List<List<CategoryStatusCount>> perShard) {
+        Map<Group, Long> counts = new HashMap<>();
+        perShard.forEach(rows -> rows.forEach(row -> counts.merge(new Group(row.category(), row.status()), row.count(), Long::sum)));
+        return counts.entrySet().stream()
+                .map(entry -> new CategoryStatusCount(entry.getKey().category(), entry.getKey().status(), entry.getValue()))
+                .toList();
+    }
+
+    private static int sum(List<Integer> counts) {
+        return counts.stream().mapToInt(Integer::intValue).sum();
+    }
+
+    private static void requireIdOrder(Sort sort) {
+        for (Sort.Order order : sort) {
+            if (!order.getProperty().equals("id") || order.isDescending()) {
+                throw new UnsupportedOperationException("The sharded task repository only sorts by ascending id");
+            }
+        }
+    }
+
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("Query by example is not supported by the sharded task repository");
+    }
+}
@@ -0,0 +1,135 @@
+package org.example.repository.sharded;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.model.Task;
+import org.example.model.TaskTombstone;
+import org.example.repository.TaskRepository;
+import org.example.repository.TaskRepositoryCustomImpl;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+// One shard: its own database, pool, EntityManagerFactory and transaction manager, with the regular TaskRepository
+// queries running against it. Every call is its own transaction on this shard.
+final class TaskShard implements AutoCloseable {
+
+    private final int index;
+    private final HikariDataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TaskRepository repository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate writeTransaction;
+    private final TransactionTemplate readTransaction;
+
+    private TaskShard(int index, HikariDataSource dataSource, EntityManagerFactory entityManagerFactory) {
+        this.index = index;
+        this.dataSource = dataSource;
+        this.entityManagerFactory = entityManagerFactory;
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        this.repository = new JpaRepositoryFactory(entityManager).getRepository(TaskRepository.class,
+                RepositoryFragments.just(new TaskRepositoryCustomImpl(entityManager)));
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        transactionManager.setDataSource(dataSource); // so the JDBC statements join the JPA transaction
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    // Shard i of n takes id blocks i, i + n, i + 2n, ... (see ShardedTaskRepository.shardOf): its task_seq starts
+    // at the end of block i and steps over the other shards' blocks, Hibernate's pooled allocator fills in the block.
+    static TaskShard open(int index, int shardCount, String url, String username, String password, int poolSize) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setMaximumPoolSize(poolSize);
+        config.setPoolName("task-shard-" + index);
+        HikariDataSource dataSource = new HikariDataSource(config);
+        try {
+            prepareIdSequence(dataSource, index, shardCount);
+            return new TaskShard(index, dataSource, entityManagerFactory(index, dataSource));
+        } catch (RuntimeException ex) {
+            dataSource.close();
+            throw ex;
+        }
+    }
+
+    private static void prepareIdSequence(HikariDataSource dataSource, int index, int shardCount) {
+        NamedParameterJdbcTemplate jdbc = new NamedParameterJdbcTemplate(dataSource);
+        long increment = (long) Task.ID_ALLOCATION_SIZE * shardCount;
+        jdbc.getJdbcTemplate().execute("CREATE SEQUENCE IF NOT EXISTS task_seq START WITH "
+                + (long) Task.ID_ALLOCATION_SIZE * (index + 1) + " INCREMENT BY " + increment);
+        Long existing = jdbc.getJdbcTemplate().queryForObject(
+                "SELECT increment FROM information_schema.sequences WHERE sequence_name = 'TASK_SEQ'", Long.class);
+        if (existing == null || existing != increment) {
+            throw new IllegalStateException("Shard " + index + " was created for a different shard count"
+                    + " (task_seq steps by " + existing + ", expected " + increment + "); resharding is not supported");
+        }
+    }
+
+    private static EntityManagerFactory entityManagerFactory(int index, HikariDataSource dataSource) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("hibernate.hbm2ddl.auto", "update");
+        // Same table and column names as the main schema that Spring Boot sets up
+        properties.put("hibernate.physical_naming_strategy", "org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy");
+        properties.put("hibernate.implicit_naming_strategy", "org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy");
+        properties.put("hibernate.jdbc.batch_size", Task.ID_ALLOCATION_SIZE);
+        properties.put("hibernate.order_inserts", true);
+        properties.put("hibernate.order_updates", true);
+        // task_seq deliberately steps by more than the allocation size, see open()
+        properties.put("hibernate.id.sequence.increment_size_mismatch_strategy", "none");
+
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setPersistenceUnitName("task-shard-" + index);
+        factory.setDataSource(dataSource);
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setManagedTypes(PersistenceManagedTypes.of(Task.class.getName(), TaskTombstone.class.getName()));
+        factory.setJpaPropertyMap(properties);
+        factory.afterPropertiesSet();
+        return factory.getObject();
+    }
+
+    int index() {
+        return index;
+    }
+
+    <T> T write(Function<TaskRepository, T> work) {
+        return writeTransaction.execute(status -> work.apply(repository));
+    }
+
+    <T> T read(Function<TaskRepository, T> work) {
+        return readTransaction.execute(status -> work.apply(repository));
+    }
+
+    // For the statements that need change sequence values from the coordinator, which the shard's own queries can't get
+    <T> T writeJdbc(Function<NamedParameterJdbcTemplate, T> work) {
+        return writeTransaction.execute(status -> work.apply(jdbcTemplate));
+    }
+
+    // The shard's queries and coordinator-stamped statements in one shard transaction
+    <T> T writeWithJdbc(BiFunction<TaskRepository, NamedParameterJdbcTemplate, T> work) {
+        return writeTransaction.execute(status -> work.apply(repository, jdbcTemplate));
+    }
+
+    @Override
+    public void close() {
+        entityManagerFactory.close();
+        dataSource.close();
+    }
+}
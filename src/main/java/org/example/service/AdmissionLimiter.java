@@ -0,0 +1,144 @@
+package org.example.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Adaptive concurrency limit for one class of requests, AIMD on latency like TCP congestion control: a request that
+// finishes while the smoothed latency is under the target and the limit was actually in use adds 1/limit (about +1
+// per round of requests). Once the smoothed latency goes over the target, or a request fails, the limit is cut to 90%,
+// at most once per round, so a single slow request doesn't drag the whole class down. Requests over the limit wait in
+// a small queue for a short time, everything beyond that is turned away at once instead of piling up on Tomcat
+// threads and the JDBC pool.
+public class AdmissionLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+    // Weight of the newest request in the moving average, so roughly the last 20 requests count
+    private static final double SMOOTHING = 0.05;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int queueSize;
+    private final long maxWaitNanos;
+    private final long targetLatencyNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private int waiting;
+    private double smoothedLatencyNanos = -1;
+    private int releasesSinceBackoff = Integer.MAX_VALUE;
+
+    public AdmissionLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                            int queueSize, long maxWaitMillis, long targetLatencyMillis) {
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.queueSize = queueSize;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMillis);
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    // Taken when a request is admitted; the in-flight count at that moment tells whether the limit was the bottleneck
+    public record Permit(long startNanos, int inFlightAtStart) {
+    }
+
+    // Returns null when the request is rejected: the queue is full, or no slot freed up within the wait time
+    public Permit tryAcquire() throws InterruptedException {
+        lock.lock();
+        try {
+            if (inFlight >= (int) limit) {
+                if (waiting >= queueSize) {
+                    return null;
+                }
+                waiting++;
+                try {
+                    long remaining = maxWaitNanos;
+                    while (inFlight >= (int) limit) {
+                        if (remaining <= 0) {
+                            return null;
+                        }
+                        remaining = released.awaitNanos(remaining);
+                    }
+                } finally {
+                    waiting--;
+                }
+            }
+            inFlight++;
+            return new Permit(System.nanoTime(), inFlight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(Permit permit, boolean failed) {
+        long latency = System.nanoTime() - permit.startNanos();
+        lock.lock();
+        try {
+            inFlight--;
+            smoothedLatencyNanos = smoothedLatencyNanos < 0 ? latency
+                    : smoothedLatencyNanos + SMOOTHING * (latency - smoothedLatencyNanos);
+            if (releasesSinceBackoff < Integer.MAX_VALUE) {
+                releasesSinceBackoff++;
+            }
+            if (failed || smoothedLatencyNanos > targetLatencyNanos) {
+                // Requests admitted under the old limit are still finishing, give the cut a round to show
+                if (releasesSinceBackoff >= limit) {
+                    limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+                    releasesSinceBackoff = 0;
+                }
+            } else if (permit.inFlightAtStart() * 2 >= limit) {
+                // Only grow when the limit was in use, or a quiet period would push it up to the maximum
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+            released.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // For requests that keep running after the handler returns (streams); their duration says nothing about load
+    public void releaseUnmeasured(Permit permit) {
+        lock.lock();
+        try {
+            inFlight--;
+            released.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getWaiting() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
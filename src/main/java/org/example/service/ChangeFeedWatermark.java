@@ -0,0 +1,80 @@
+package org.example.service;
+
+import org.example.repository.TaskRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Change sequence values are taken before a write commits, so two writers can commit out of order: a feed reader
+// that already saw 12 would move its "since" past 11 and never see it. Write transactions enter() before taking
+// values and stay registered until they complete; readers only go up to current(), below which every value
+// belongs to a write that has committed or rolled back.
+@Component
+public class ChangeFeedWatermark {
+
+    private final TaskRepository taskRepository;
+    private final ReentrantLock lock = new ReentrantLock();
+    // Lowest value each open write transaction can take -> how many transactions started from it
+    private final TreeMap<Long, Integer> open = new TreeMap<>();
+
+    public ChangeFeedWatermark(TaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+    }
+
+    // Registers the current transaction as a writer until it completes. Must run inside the transaction and before
+    // it takes change sequence values; calling it again in the same transaction does nothing.
+    public void enter() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Change sequence values must be taken inside a transaction");
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        long lowest = register();
+        TransactionSynchronizationManager.bindResource(this, lowest);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ChangeFeedWatermark.this);
+                leave(lowest);
+            }
+        });
+    }
+
+    // Highest change sequence value up to which the feed is complete. The sequence is read before the open
+    // writers, so a writer that starts in between can only take values above the one read.
+    public long current() {
+        long taken = taskRepository.currentChangeSequence();
+        lock.lock();
+        try {
+            return open.isEmpty() ? taken : Math.min(taken, open.firstKey() - 1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // For writes outside a Spring transaction (R2DBC): register() before the write and leave() with the value it
+    // returned once the write has committed or failed. Reads the sequence, so it blocks.
+    public long register() {
+        long lowest = taskRepository.currentChangeSequence() + 1;
+        lock.lock();
+        try {
+            open.merge(lowest, 1, Integer::sum);
+        } finally {
+            lock.unlock();
+        }
+        return lowest;
+    }
+
+    public void leave(long lowest) {
+        lock.lock();
+        try {
+            open.computeIfPresent(lowest, (value, count) -> count == 1 ? null : count - 1);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
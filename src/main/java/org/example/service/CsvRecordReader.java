@@ -0,0 +1,127 @@
+package org.example.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// Minimal streaming CSV reader (RFC 4180): comma separated, fields may be quoted, "" inside quotes is a quote
+// and quoted fields may span lines. Reads one record at a time, so the input is never held in memory. A record
+// longer than maxRecordChars (a stray quote swallowing the rest of the file) is dropped from the end of the line it
+// overflows on, and the next record starts on the following line.
+final class CsvRecordReader {
+
+    private final Reader reader;
+    private final int maxRecordChars;
+    private final StringBuilder field = new StringBuilder();
+    private int peeked = -2;
+    private long line = 1;
+    private long recordLine;
+    private boolean unterminatedQuote;
+    private boolean tooLong;
+
+    CsvRecordReader(Reader reader, int maxRecordChars) {
+        this.reader = reader;
+        this.maxRecordChars = maxRecordChars;
+    }
+
+    // Line the last record returned by next() started on
+    long recordLine() {
+        return recordLine;
+    }
+
+    // Whether the last record ran into the end of the input inside a quoted field
+    boolean unterminatedQuote() {
+        return unterminatedQuote;
+    }
+
+    // Whether the last record was cut off at maxRecordChars; its fields are empty then
+    boolean tooLong() {
+        return tooLong;
+    }
+
+    // Next non-blank record, or null at the end of the input
+    List<String> next() throws IOException {
+        while (true) {
+            if (peek() == -1) {
+                return null;
+            }
+            List<String> record = readRecord();
+            if (record.size() > 1 || !record.get(0).isEmpty() || unterminatedQuote || tooLong) {
+                return record;
+            }
+        }
+    }
+
+    private List<String> readRecord() throws IOException {
+        recordLine = line;
+        unterminatedQuote = false;
+        tooLong = false;
+        List<String> record = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        int recordChars = 0;
+        while (true) {
+            int c = read();
+            if (c != -1 && ++recordChars > maxRecordChars) {
+                return dropRecord(c);
+            }
+            if (quoted) {
+                if (c == -1) {
+                    unterminatedQuote = true;
+                    record.add(field.toString());
+                    return record;
+                } else if (c == '"') {
+                    if (peek() == '"') {
+                        field.append((char) read());
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r' || c == -1) {
+                if (c == '\r' && peek() == '\n') {
+                    read();
+                }
+                record.add(field.toString());
+                return record;
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+
+    private List<String> dropRecord(int c) throws IOException {
+        while (c != '\n' && c != '\r' && c != -1) {
+            c = read();
+        }
+        if (c == '\r' && peek() == '\n') {
+            read();
+        }
+        tooLong = true;
+        field.setLength(0);
+        return List.of("");
+    }
+
+    private int peek() throws IOException {
+        if (peeked == -2) {
+            peeked = reader.read();
+        }
+        return peeked;
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        peeked = -2;
+        if (c == '\n' || (c == '\r' && peek() != '\n')) {
+            line++;
+        }
+        return c;
+    }
+}
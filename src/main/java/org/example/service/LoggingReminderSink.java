@@ -0,0 +1,21 @@
+package org.example.service;
+
+import org.example.model.TaskReminder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class LoggingReminderSink implements ReminderSink {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingReminderSink.class);
+
+    @Override
+    public void send(List<TaskReminder> reminders) {
+        for (TaskReminder reminder : reminders) {
+            log.info("{}: task {} \"{}\" was due {}", reminder.level(), reminder.taskId(), reminder.title(), reminder.deadline());
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.event.TaskCountsChanged;
+import org.example.event.TaskEvent;
+import org.example.model.Task;
+import org.example.repository.ReactiveTaskRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+// Non-blocking counterpart of TaskService for the reactive profile. Same validation rules and the same
+// TaskEvents, so the snapshot, SSE stream and metrics keep working. Missing tasks complete empty. The repository
+// doesn't return what an update or delete replaced, so those ask TaskStatsService's counters for a recount.
+// Writes register with ChangeFeedWatermark until they have committed, as TaskService's transactions do.
+@Service
+@Profile("reactive")
+public class ReactiveTaskService {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final ReactiveTaskRepository taskRepository;
+    private final TaskValidator taskValidator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionalOperator transactionalOperator;
+    private final ChangeFeedWatermark changeFeedWatermark;
+    private final Counter notFoundCounter;
+
+    public ReactiveTaskService(ReactiveTaskRepository taskRepository, TaskValidator taskValidator,
+                               ApplicationEventPublisher eventPublisher, TransactionalOperator transactionalOperator,
+                               ChangeFeedWatermark changeFeedWatermark, MeterRegistry meterRegistry) {
+        this.taskRepository = taskRepository;
+        this.taskValidator = taskValidator;
+        this.eventPublisher = eventPublisher;
+        this.transactionalOperator = transactionalOperator;
+        this.changeFeedWatermark = changeFeedWatermark;
+        this.notFoundCounter = meterRegistry.counter("tasks.not.found");
+    }
+
+    // Without a limit the whole table is streamed; with one it is a keyset page like TaskService.getTaskPage
+    public Flux<Task> getTasks(Long after, Integer limit) {
+        long afterId = after == null ? 0L : after;
+        if (limit == null) {
+            return after == null ? taskRepository.findAll() : taskRepository.findPage(afterId, Integer.MAX_VALUE);
+        }
+        return taskRepository.findPage(afterId, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+    }
+
+    public Mono<Task> getTask(Long id) {
+        return countMissing(taskRepository.findById(id));
+    }
+
+    public Mono<Task> addTask(Task task) {
+        return Mono.defer(() -> {
+            taskValidator.validate(task);
+            return registered(taskRepository.insert(task));
+        }).doOnNext(saved -> {
+            eventPublisher.publishEvent(TaskEvent.created(saved));
+            // Published after the insert has committed, so a stats count running meanwhile may hold it already
+            eventPublisher.publishEvent(TaskCountsChanged.recountAll());
+        });
+    }
+
+    public Mono<Task> updateTask(Long id, Task taskDetails) {
+        return Mono.defer(() -> {
+            taskValidator.validate(taskDetails); // every field is replaced, so the details are the new task
+            return countMissing(registered(taskRepository.update(id, taskDetails)));
+        }).doOnNext(saved -> {
+            eventPublisher.publishEvent(TaskEvent.updated(saved));
+            eventPublisher.publishEvent(TaskCountsChanged.recountAll());
+        });
+    }
+
+    public Mono<Task> markAsCompleted(Long id) {
+        return countMissing(registered(taskRepository.updateStatus(id, Task.TaskStatus.COMPLETED)))
+                .doOnNext(task -> {
+                    eventPublisher.publishEvent(TaskEvent.completed(id, task));
+                    eventPublisher.publishEvent(TaskCountsChanged.recountAll());
+                });
+    }
+
+    // Tombstone and delete in one transaction, emits false when there was no such task
+    public Mono<Boolean> deleteTask(Long id) {
+        return registered(taskRepository.insertTombstone(id)
+                .flatMap(tombstones -> tombstones == 0 ? Mono.just(false) : taskRepository.deleteById(id).thenReturn(true))
+                .as(transactionalOperator::transactional))
+                .doOnNext(deleted -> {
+                    if (deleted) {
+                        eventPublisher.publishEvent(TaskEvent.deleted(id));
+                        eventPublisher.publishEvent(TaskCountsChanged.recountAll());
+                    } else {
+                        notFoundCounter.increment();
+                    }
+                });
+    }
+
+    // register() reads the sequence over JDBC, so it runs off the event loop
+    private <T> Mono<T> registered(Mono<T> write) {
+        return Mono.usingWhen(Mono.fromCallable(changeFeedWatermark::register).subscribeOn(Schedulers.boundedElastic()),
+                lowest -> write,
+                lowest -> Mono.fromRunnable(() -> changeFeedWatermark.leave(lowest)));
+    }
+
+    private Mono<Task> countMissing(Mono<Task> task) {
+        return task.doOnSuccess(found -> {
+            if (found == null) {
+                notFoundCounter.increment();
+            }
+        });
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.service;
+
+import org.example.model.TaskReminder;
+
+import java.util.List;
+
+// Where the overdue scanner delivers reminders, one page at a time. LoggingReminderSink is the default;
+// declare another implementation as @Primary to send them somewhere real (mail, chat, a queue).
+// Delivery is at least once: a page is sent before the scanner moves its cursor past it.
+public interface ReminderSink {
+
+    void send(List<TaskReminder> reminders);
+}
@@ -0,0 +1,137 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.example.config.CacheConfig;
+import org.example.event.TaskCountsChanged;
+import org.example.event.TaskEvent;
+import org.example.model.ArchivedTask;
+import org.example.model.ArchivedTaskPage;
+import org.example.model.Task;
+import org.example.repository.ArchivedTaskRepository;
+import org.example.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+// Moves completed tasks out of the live table once they have been completed for longer than tasks.archive.after,
+// so list queries, exports and the in-memory indexes only deal with the working set. Each chunk of up to
+// chunk-size tasks is copied, tombstoned (so change feed clients drop them) and deleted in its own transaction.
+@Service
+public class TaskArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskArchiveService.class);
+
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final TaskRepository taskRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChangeFeedWatermark changeFeedWatermark;
+    private final Cache taskCache;
+    private final Counter archivedCounter;
+    private final boolean enabled;
+    private final Duration archiveAfter;
+    private final int chunkSize;
+
+    public TaskArchiveService(TaskRepository taskRepository,
+                              ArchivedTaskRepository archivedTaskRepository,
+                              EntityManager entityManager,
+                              PlatformTransactionManager transactionManager,
+                              ApplicationEventPublisher eventPublisher,
+                              ChangeFeedWatermark changeFeedWatermark,
+                              CacheManager cacheManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${tasks.archive.enabled:false}") boolean enabled,
+                              @Value("${tasks.archive.after:30d}") Duration archiveAfter,
+                              @Value("${tasks.archive.chunk-size:500}") int chunkSize) {
+        this.taskRepository = taskRepository;
+        this.archivedTaskRepository = archivedTaskRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.changeFeedWatermark = changeFeedWatermark;
+        this.taskCache = cacheManager.getCache(CacheConfig.TASK_CACHE);
+        this.archivedCounter = meterRegistry.counter("tasks.archived");
+        this.enabled = enabled;
+        this.archiveAfter = archiveAfter;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(initialDelayString = "${tasks.archive.initial-delay-ms:60000}",
+            fixedDelayString = "${tasks.archive.interval-ms:3600000}")
+    public void archiveScheduled() {
+        if (enabled) {
+            archiveCompletedBefore(Instant.now().minus(archiveAfter));
+        }
+    }
+
+    // Archives every task completed before the cutoff, chunk by chunk, and returns how many were moved
+    public int archiveCompletedBefore(Instant cutoff) {
+        long started = System.nanoTime();
+        int total = 0;
+        List<Long> ids;
+        do {
+            ids = transactionTemplate.execute(status -> archiveChunk(cutoff));
+            if (taskCache != null) {
+                ids.forEach(taskCache::evict);
+            }
+            archivedCounter.increment(ids.size());
+            total += ids.size();
+        } while (ids.size() == chunkSize);
+
+        if (total > 0) {
+            eventPublisher.publishEvent(TaskEvent.bulk());
+            log.info("Archived {} tasks completed before {} in {} ms", total, cutoff, (System.nanoTime() - started) / 1_000_000);
+        }
+        return total;
+    }
+
+    public ArchivedTaskPage getArchivePage(Long after, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<ArchivedTask> tasks = archivedTaskRepository.findPage(after == null ? 0L : after, PageRequest.of(0, pageSize));
+        Long nextCursor = tasks.size() < pageSize ? null : tasks.get(tasks.size() - 1).getId();
+        return new ArchivedTaskPage(tasks, nextCursor);
+    }
+
+    private List<Long> archiveChunk(Instant cutoff) {
+        List<Task> tasks = taskRepository.findByStatusAndCompletedAtBefore(Task.TaskStatus.COMPLETED, cutoff,
+                PageRequest.of(0, chunkSize));
+        if (tasks.isEmpty()) {
+            return List.of();
+        }
+        Instant archivedAt = Instant.now();
+        tasks.forEach(task -> entityManager.persist(ArchivedTask.of(task, archivedAt)));
+        entityManager.flush();
+        List<Long> ids = tasks.stream().map(Task::getId).toList();
+        changeFeedWatermark.enter();
+        taskRepository.deleteAllWithTombstones(ids);
+        entityManager.clear(); // the archived entities and the deleted tasks are not needed anymore
+        if (!taskRepository.joinsTransactions()) {
+            // The read's row locks are gone already, a task may have changed before the delete
+            eventPublisher.publishEvent(TaskCountsChanged.recountAll());
+            return ids;
+        }
+        // The rows were locked when read, so these are exactly the counts leaving with the chunk
+        TaskCountsChanged.Builder counts = TaskCountsChanged.builder();
+        tasks.forEach(counts::remove);
+        eventPublisher.publishEvent(counts.build());
+        return ids;
+    }
+}
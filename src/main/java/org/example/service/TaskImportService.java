@@ -0,0 +1,249 @@
+package org.example.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.example.event.TaskEvent;
+import org.example.model.ImportSummary;
+import org.example.model.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Bulk import for POST /tasks/import. The body is parsed record by record as it arrives, every task goes through
+// TaskValidator.check (no exception per bad row) and valid tasks are stored in chunks of batch-size, one
+// transaction and a few JDBC batches each. Rejected rows are reported with their line number.
+@Service
+public class TaskImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskImportService.class);
+
+    private static final int READ_BUFFER_CHARS = 64 * 1024;
+    private static final Task.TaskStatus[] STATUSES = Task.TaskStatus.values();
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private final TaskService taskService;
+    private final TaskValidator taskValidator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectReader taskReader;
+    private final int batchSize;
+    private final int maxReportedErrors;
+    private final int maxRecordChars;
+
+    public TaskImportService(TaskService taskService, TaskValidator taskValidator,
+                             ApplicationEventPublisher eventPublisher, ObjectMapper objectMapper,
+                             @Value("${tasks.import.batch-size:500}") int batchSize,
+                             @Value("${tasks.import.max-reported-errors:1000}") int maxReportedErrors,
+                             @Value("${tasks.import.max-record-chars:65536}") int maxRecordChars) {
+        this.taskService = taskService;
+        this.taskValidator = taskValidator;
+        this.eventPublisher = eventPublisher;
+        this.taskReader = objectMapper.readerFor(Task.class);
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+        this.maxRecordChars = maxRecordChars;
+    }
+
+    public ImportSummary importTasks(InputStream body, Format format) throws IOException {
+        long started = System.nanoTime();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), READ_BUFFER_CHARS);
+        ImportRun run = new ImportRun();
+        try {
+            if (format == Format.CSV) {
+                readCsv(reader, run);
+            } else {
+                readNdjson(reader, run);
+            }
+            run.flush();
+        } finally {
+            // Whatever got stored is visible now, also when the upload broke off halfway
+            if (run.accepted > 0) {
+                eventPublisher.publishEvent(TaskEvent.bulk());
+            }
+        }
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        log.info("Imported {} tasks ({} rejected) from {} in {} ms ({} tasks/s)",
+                run.accepted, run.rejected, format, elapsedMillis, run.accepted * 1000 / elapsedMillis);
+        return new ImportSummary(run.accepted, run.rejected, run.errors, run.rejected > run.errors.size());
+    }
+
+    private void readNdjson(BufferedReader reader, ImportRun run) throws IOException {
+        long line = 0;
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            try {
+                Task task = taskReader.readValue(text);
+                if (task == null) {
+                    run.reject(line, "Expected a JSON object");
+                } else {
+                    run.add(line, task);
+                }
+            } catch (JsonProcessingException ex) {
+                run.reject(line, "Malformed JSON: " + ex.getOriginalMessage());
+            }
+        }
+    }
+
+    // The header row names the columns: title, description, deadline (yyyy-MM-dd), category and status,
+    // in any order. Other columns are ignored, like unknown JSON properties. Empty fields are null.
+    private void readCsv(BufferedReader reader, ImportRun run) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader, maxRecordChars);
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+        if (csv.tooLong()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "CSV header is longer than " + maxRecordChars + " characters");
+        }
+        List<String> columns = header.stream().map(name -> name.trim().toLowerCase(Locale.ROOT)).toList();
+        int title = columns.indexOf("title");
+        int description = columns.indexOf("description");
+        int deadline = columns.indexOf("deadline");
+        int category = columns.indexOf("category");
+        int status = columns.indexOf("status");
+        if (title < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CSV header must contain a title column");
+        }
+
+        List<String> record;
+        while ((record = csv.next()) != null) {
+            long line = csv.recordLine();
+            if (csv.tooLong()) {
+                run.reject(line, "Record is longer than " + maxRecordChars + " characters");
+            } else if (csv.unterminatedQuote()) {
+                run.reject(line, "Quoted field is not closed");
+            } else if (record.size() != columns.size()) {
+                run.reject(line, "Expected " + columns.size() + " fields but found " + record.size());
+            } else {
+                Task task = new Task();
+                task.setTitle(field(record, title));
+                task.setDescription(field(record, description));
+                task.setCategory(field(record, category));
+                String statusName = field(record, status);
+                String deadlineText = field(record, deadline);
+                if (statusName != null && !setStatus(task, statusName)) {
+                    run.reject(line, "Unknown status " + statusName);
+                } else if (deadlineText != null && !setDeadline(task, deadlineText)) {
+                    run.reject(line, "Deadline must be a date like 2024-12-31");
+                } else {
+                    run.add(line, task);
+                }
+            }
+        }
+    }
+
+    private static String field(List<String> record, int column) {
+        if (column < 0) {
+            return null;
+        }
+        String value = record.get(column);
+        return value.isEmpty() ? null : value;
+    }
+
+    private static boolean setStatus(Task task, String name) {
+        for (Task.TaskStatus status : STATUSES) {
+            if (status.name().equalsIgnoreCase(name.trim())) {
+                task.setStatus(status);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean setDeadline(Task task, String text) {
+        try {
+            task.setDeadline(LocalDate.parse(text.trim()));
+            return true;
+        } catch (DateTimeParseException ex) {
+            return false;
+        }
+    }
+
+    // Counts and the pending chunk of one import
+    private class ImportRun {
+
+        private final List<Task> batch = new ArrayList<>(batchSize);
+        private final List<Long> batchLines = new ArrayList<>(batchSize);
+        private final List<ImportSummary.RejectedRow> errors = new ArrayList<>();
+        private long accepted;
+        private long rejected;
+
+        void add(long line, Task task) {
+            String violation = taskValidator.check(task);
+            if (violation != null) {
+                reject(line, violation);
+                return;
+            }
+            // Imports always create new tasks; ids and versions in the file are not ours
+            task.setId(null);
+            task.setVersion(null);
+            batch.add(task);
+            batchLines.add(line);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(long line, String reason) {
+            rejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ImportSummary.RejectedRow(line, reason));
+            }
+        }
+
+        // A chunk the database refuses is retried row by row, so only the rows it refuses are rejected; the chunks
+        // before it stay stored. The database's message is only logged, it may quote SQL and data.
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                taskService.storeImportedTasks(new ArrayList<>(batch));
+                accepted += batch.size();
+            } catch (RuntimeException chunkFailure) {
+                log.warn("Storing an import chunk of {} tasks failed, retrying them one by one", batch.size(), chunkFailure);
+                for (int i = 0; i < batch.size(); i++) {
+                    Task task = batch.get(i);
+                    // The rolled back attempt may have handed out an id already
+                    task.setId(null);
+                    task.setVersion(null);
+                    try {
+                        taskService.storeImportedTasks(List.of(task));
+                        accepted++;
+                    } catch (RuntimeException ex) {
+                        log.warn("Storing the imported task on line {} failed", batchLines.get(i), ex);
+                        reject(batchLines.get(i), "Could not be stored");
+                    }
+                }
+            } finally {
+                batch.clear();
+                batchLines.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package org.example.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.example.exception.IngestQueueFullException;
+import org.example.model.IngestTicket;
+import org.example.model.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Write-behind ingestion for POST /tasks. Tasks are validated on the request thread, queued and answered with a
+// ticket; one flusher thread stores them through TaskService.addTasks in batches of up to batch-size tasks or
+// whatever arrived within flush-interval-ms of the first one. A full queue is rejected with 429 instead of blocking.
+// On shutdown new tasks are refused and everything already queued is flushed before the application stops.
+@Service
+public class TaskIngestService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskIngestService.class);
+
+    private record Pending(String ticket, Task task) {
+    }
+
+    // Queued by shutdown to wake a flusher that is waiting for tasks
+    private static final Pending STOP = new Pending(null, null);
+
+    private final TaskService taskService;
+    private final TaskValidator taskValidator;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final long retryAfterSeconds;
+    private final long shutdownTimeoutMillis;
+
+    private final BlockingQueue<Pending> queue;
+    private final Cache<String, IngestTicket> tickets;
+    private final ExecutorService flusher;
+    private final Counter rejected;
+    private volatile boolean accepting = true;
+
+    public TaskIngestService(TaskService taskService,
+                             TaskValidator taskValidator,
+                             MeterRegistry meterRegistry,
+                             @Value("${tasks.ingest.enabled:false}") boolean enabled,
+                             @Value("${tasks.ingest.queue-size:10000}") int queueSize,
+                             @Value("${tasks.ingest.batch-size:500}") int batchSize,
+                             @Value("${tasks.ingest.flush-interval-ms:100}") long flushIntervalMillis,
+                             @Value("${tasks.ingest.retry-after-seconds:1}") long retryAfterSeconds,
+                             @Value("${tasks.ingest.ticket-ttl-minutes:15}") long ticketTtlMinutes,
+                             @Value("${tasks.ingest.finished-ticket-ttl-seconds:60}") long finishedTicketTtlSeconds,
+                             @Value("${tasks.ingest.max-tickets:100000}") long maxTickets,
+                             @Value("${tasks.ingest.shutdown-timeout-ms:30000}") long shutdownTimeoutMillis) {
+        this.taskService = taskService;
+        this.taskValidator = taskValidator;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        // Queued tickets live for the ticket TTL, stored and failed ones only long enough to be polled once more.
+        // The size cap keeps a sustained burst from piling up tickets; it never goes below the queue size.
+        this.tickets = Caffeine.newBuilder()
+                .maximumSize(Math.max(maxTickets, queueSize))
+                .expireAfter(new TicketExpiry(Duration.ofMinutes(ticketTtlMinutes), Duration.ofSeconds(finishedTicketTtlSeconds)))
+                .build();
+        this.flusher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-ingest-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("tasks.ingest.queued", queue, BlockingQueue::size)
+                .description("Tasks accepted with 202 and not stored yet")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("tasks.ingest.rejected")
+                .description("POST /tasks requests turned away with 429 because the ingest queue was full")
+                .register(meterRegistry);
+        flusher.execute(this::flushLoop);
+    }
+
+    // Whether POST /tasks queues by default; clients can also ask for it with "Prefer: respond-async"
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public IngestTicket submit(Task task) {
+        taskValidator.validate(task);
+        if (!accepting) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Task ingestion is shutting down");
+        }
+        IngestTicket ticket = IngestTicket.queued(UUID.randomUUID().toString());
+        tickets.put(ticket.id(), ticket);
+        if (!queue.offer(new Pending(ticket.id(), task))) {
+            tickets.invalidate(ticket.id());
+            rejected.increment();
+            throw new IngestQueueFullException("Task ingest queue is full, retry later", retryAfterSeconds);
+        }
+        return ticket;
+    }
+
+    public Optional<IngestTicket> getTicket(String id) {
+        return Optional.ofNullable(tickets.getIfPresent(id));
+    }
+
+    private void flushLoop() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (accepting || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null || first == STOP) {
+                    continue;
+                }
+                batch.add(first);
+                // Wait for the batch to fill up, but never longer than the flush interval
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                while (batch.size() < batchSize && accepting) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+                queue.drainTo(batch, batchSize - batch.size());
+                batch.removeIf(pending -> pending == STOP);
+                flush(batch);
+            } catch (InterruptedException ex) {
+                // Nothing interrupts the flusher, but keep what was taken off the queue if something does
+                batch.removeIf(pending -> pending == STOP);
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Task ingest flush failed", ex);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // One transaction per batch. If it fails, the tasks are stored one by one so a single bad task
+    // only fails its own ticket.
+    private void flush(List<Pending> batch) {
+        try {
+            List<Task> saved = taskService.addTasks(batch.stream().map(Pending::task).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                complete(batch.get(i).ticket(), saved.get(i).getId(), null);
+            }
+        } catch (RuntimeException batchFailure) {
+            log.warn("Storing a batch of {} ingested tasks failed, retrying them one by one", batch.size(), batchFailure);
+            for (Pending pending : batch) {
+                try {
+                    complete(pending.ticket(), taskService.addTask(pending.task()).getId(), null);
+                } catch (RuntimeException ex) {
+                    complete(pending.ticket(), null, ex.getMessage());
+                }
+            }
+        }
+    }
+
+    private void complete(String ticketId, Long taskId, String error) {
+        tickets.asMap().computeIfPresent(ticketId, (id, ticket) -> error == null ? ticket.stored(taskId) : ticket.failed(error));
+    }
+
+    private record TicketExpiry(Duration queued, Duration finished) implements Expiry<String, IngestTicket> {
+
+        @Override
+        public long expireAfterCreate(String id, IngestTicket ticket, long currentTime) {
+            return (ticket.status() == IngestTicket.Status.QUEUED ? queued : finished).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String id, IngestTicket ticket, long currentTime, long currentDuration) {
+            return expireAfterCreate(id, ticket, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String id, IngestTicket ticket, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        accepting = false;
+        // Not shutdownNow: an interrupt would also land in a running addTasks and lose tasks already answered with 202.
+        // The flusher sees accepting turn false, drains the queue and stops; STOP only wakes it if it is waiting.
+        // If the queue is full the offer fails, but then the flusher isn't waiting either.
+        queue.offer(STOP);
+        flusher.shutdown();
+        if (!flusher.awaitTermination(shutdownTimeoutMillis, TimeUnit.MILLISECONDS)) {
+            log.warn("Task ingest flush still running after {} ms, {} queued tasks dropped", shutdownTimeoutMillis, queue.size());
+            return;
+        }
+        // Tasks still queued, including any a request put there just after the accepting check
+        List<Pending> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.removeIf(pending -> pending == STOP);
+        if (!remaining.isEmpty()) {
+            flush(remaining);
+        }
+    }
+}
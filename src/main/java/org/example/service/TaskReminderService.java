@@ -0,0 +1,220 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.model.ReminderCursor;
+import org.example.model.SentReminder;
+import org.example.model.Task;
+import org.example.model.TaskReminder;
+import org.example.repository.ReminderCursorRepository;
+import org.example.repository.SentReminderRepository;
+import org.example.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Overdue scanner. Each run sends a REMINDER for pending tasks that became due since the last run and an
+// ESCALATION for those that have now been overdue for escalate-after-days. Both walk idx_task_status_deadline_id
+// from a stored (deadline, id) high-water mark, so a run reads only the newly due rows, however large the table.
+// Tasks written with a deadline that is already behind a mark (created late, reopened, deadline moved back)
+// are picked up from the change sequence instead, skipping those already reminded at that level for that deadline
+// (e.g. an overdue task whose title was edited). Sent levels are kept for sent-retention-days past the deadline.
+@Service
+public class TaskReminderService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskReminderService.class);
+
+    static final String CURSOR_NAME = "overdue";
+
+    private final TaskRepository taskRepository;
+    private final ReminderCursorRepository cursorRepository;
+    private final SentReminderRepository sentReminderRepository;
+    private final ChangeFeedWatermark changeFeedWatermark;
+    private final ReminderSink reminderSink;
+    private final Counter remindersSent;
+    private final Counter escalationsSent;
+    private final boolean enabled;
+    private final int escalateAfterDays;
+    private final int lookbackDays;
+    private final int pageSize;
+    private final int sentRetentionDays;
+    // A scan() called by hand waits for a scheduled one, so both can't read the same cursor and remind twice
+    private final ReentrantLock scanLock = new ReentrantLock();
+
+    public TaskReminderService(TaskRepository taskRepository,
+                               ReminderCursorRepository cursorRepository,
+                               SentReminderRepository sentReminderRepository,
+                               ChangeFeedWatermark changeFeedWatermark,
+                               ReminderSink reminderSink,
+                               MeterRegistry meterRegistry,
+                               @Value("${tasks.reminders.enabled:false}") boolean enabled,
+                               @Value("${tasks.reminders.escalate-after-days:3}") int escalateAfterDays,
+                               @Value("${tasks.reminders.lookback-days:7}") int lookbackDays,
+                               @Value("${tasks.reminders.page-size:500}") int pageSize,
+                               @Value("${tasks.reminders.sent-retention-days:30}") int sentRetentionDays) {
+        this.taskRepository = taskRepository;
+        this.cursorRepository = cursorRepository;
+        this.sentReminderRepository = sentReminderRepository;
+        this.changeFeedWatermark = changeFeedWatermark;
+        this.reminderSink = reminderSink;
+        this.remindersSent = meterRegistry.counter("tasks.reminders.sent", "level", "reminder");
+        this.escalationsSent = meterRegistry.counter("tasks.reminders.sent", "level", "escalation");
+        this.enabled = enabled;
+        this.escalateAfterDays = escalateAfterDays;
+        this.lookbackDays = lookbackDays;
+        this.pageSize = pageSize;
+        this.sentRetentionDays = sentRetentionDays;
+    }
+
+    @Scheduled(initialDelayString = "${tasks.reminders.initial-delay-ms:30000}",
+            fixedDelayString = "${tasks.reminders.interval-ms:60000}")
+    public void scanScheduled() {
+        if (enabled) {
+            scan(LocalDate.now());
+        }
+    }
+
+    // Sends what became due up to and including today and returns how many reminders went out.
+    // The first run only looks lookback-days back, older overdue tasks are not reminded about.
+    public int scan(LocalDate today) {
+        scanLock.lock();
+        try {
+            return scanLocked(today);
+        } finally {
+            scanLock.unlock();
+        }
+    }
+
+    private int scanLocked(LocalDate today) {
+        LocalDate escalateBy = today.minusDays(escalateAfterDays);
+        // Every write up to here has committed, so the change walk can end there even when nothing it read was due
+        long upTo = changeFeedWatermark.current();
+        ReminderCursor cursor = cursorRepository.findById(CURSOR_NAME).orElseGet(() -> new ReminderCursor(CURSOR_NAME,
+                today.minusDays(lookbackDays), escalateBy.minusDays(lookbackDays), upTo));
+
+        // Changes first: anything due and ahead of a mark is left to the keyset walks below
+        int sent = sendChanged(cursor, today, upTo);
+        sent += sendNewlyDue(cursor, TaskReminder.Level.REMINDER, today);
+        sent += sendNewlyDue(cursor, TaskReminder.Level.ESCALATION, escalateBy);
+        cursorRepository.save(cursor);
+        sentReminderRepository.deleteByDeadlineBefore(today.minusDays(sentRetentionDays));
+        if (sent > 0) {
+            log.info("Sent {} overdue reminders for {}", sent, today);
+        }
+        return sent;
+    }
+
+    private int sendChanged(ReminderCursor cursor, LocalDate dueBy, long upTo) {
+        int sent = 0;
+        List<Task> page;
+        do {
+            page = taskRepository.findChangedDueSince(cursor.getModSeq(), Task.TaskStatus.PENDING, dueBy,
+                    PageRequest.of(0, pageSize));
+            List<TaskReminder> reminders = new ArrayList<>();
+            for (Task task : page) {
+                if (task.getModSeq() > upTo) {
+                    // Written after the scan started, the next run gets it
+                    page = List.of();
+                    break;
+                }
+                if (isBehind(task, cursor.getEscalationDeadline(), cursor.getEscalationId())) {
+                    reminders.add(TaskReminder.of(task, TaskReminder.Level.ESCALATION));
+                } else if (isBehind(task, cursor.getReminderDeadline(), cursor.getReminderId())) {
+                    reminders.add(TaskReminder.of(task, TaskReminder.Level.REMINDER));
+                }
+                cursor.setModSeq(task.getModSeq());
+            }
+            sent += send(reminders);
+            cursorRepository.save(cursor);
+        } while (page.size() == pageSize);
+        cursor.setModSeq(Math.max(cursor.getModSeq(), upTo));
+        return sent;
+    }
+
+
+    private int sendNewlyDue(ReminderCursor cursor, TaskReminder.Level level, LocalDate dueBy) {
+        boolean escalation = level == TaskReminder.Level.ESCALATION;
+        int sent = 0;
+        List<Task> page;
+        do {
+            LocalDate afterDeadline = escalation ? cursor.getEscalationDeadline() : cursor.getReminderDeadline();
+            long afterId = escalation ? cursor.getEscalationId() : cursor.getReminderId();
+            page = taskRepository.findDueAfter(Task.TaskStatus.PENDING, afterDeadline, afterId, dueBy,
+                    PageRequest.of(0, pageSize));
+            sent += send(page.stream().map(task -> TaskReminder.of(task, level)).toList());
+            if (!page.isEmpty()) {
+                Task last = page.get(page.size() - 1);
+                if (escalation) {
+                    cursor.setEscalationDeadline(last.getDeadline());
+                    cursor.setEscalationId(last.getId());
+                } else {
+                    cursor.setReminderDeadline(last.getDeadline());
+                    cursor.setReminderId(last.getId());
+                }
+                cursorRepository.save(cursor);
+            }
+        } while (page.size() == pageSize);
+
+        // Nothing else can become due up to dueBy except through a write, which sendChanged covers
+        if (escalation) {
+            cursor.setEscalationDeadline(dueBy);
+            cursor.setEscalationId(Long.MAX_VALUE);
+        } else {
+            cursor.setReminderDeadline(dueBy);
+            cursor.setReminderId(Long.MAX_VALUE);
+        }
+        return sent;
+    }
+
+    // Sends the reminders that didn't already go out at that level for that deadline and records them
+    private int send(List<TaskReminder> candidates) {
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+        Map<Long, SentReminder> sentBefore = sentReminderRepository
+                .findAllById(candidates.stream().map(TaskReminder::taskId).toList()).stream()
+                .collect(Collectors.toMap(SentReminder::getTaskId, Function.identity()));
+        List<TaskReminder> reminders = new ArrayList<>(candidates.size());
+        List<SentReminder> records = new ArrayList<>(candidates.size());
+        for (TaskReminder reminder : candidates) {
+            SentReminder record = sentBefore.get(reminder.taskId());
+            if (record != null && record.covers(reminder.deadline(), reminder.level())) {
+                continue;
+            }
+            if (record == null) {
+                record = new SentReminder(reminder.taskId(), reminder.deadline(), reminder.level());
+            } else {
+                record.setDeadline(reminder.deadline());
+                record.setLevel(reminder.level());
+            }
+            reminders.add(reminder);
+            records.add(record);
+        }
+        if (reminders.isEmpty()) {
+            return 0;
+        }
+        reminderSink.send(reminders);
+        sentReminderRepository.saveAll(records);
+        for (TaskReminder reminder : reminders) {
+            (reminder.level() == TaskReminder.Level.ESCALATION ? escalationsSent : remindersSent).increment();
+        }
+        return reminders.size();
+    }
+
+    // Whether the task sorts at or before the (deadline, id) mark, i.e. the keyset walk has already passed it
+    private static boolean isBehind(Task task, LocalDate deadline, long id) {
+        int compared = task.getDeadline().compareTo(deadline);
+        return compared < 0 || (compared == 0 && task.getId() <= id);
+    }
+}
@@ -0,0 +1,186 @@
+package org.example.service;
+
+import org.example.model.Task;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// In-memory inverted index over task title and description. Terms are kept sorted, so a prefix is one range scan.
+// Each task remembers its term weights and version: re-indexing removes the old postings first, and an older
+// version of a task never replaces a newer one. Reads share a lock, writes take it exclusively.
+class TaskSearchIndex {
+
+    static final int TITLE_WEIGHT = 3;
+    static final int DESCRIPTION_WEIGHT = 1;
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private record Document(long version, Map<String, Integer> termWeights) {
+    }
+
+    private record Hit(long id, int score) {
+    }
+
+    // One indexed term that matches a query term; factor is 2 for an exact match and 1 for a prefix match
+    private record Match(Map<Long, Integer> posting, int factor) {
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+
+    void put(Task task) {
+        long version = task.getVersion() == null ? 0L : task.getVersion();
+        Map<String, Integer> termWeights = new HashMap<>();
+        tokenize(task.getTitle()).forEach(term -> termWeights.merge(term, TITLE_WEIGHT, Integer::sum));
+        tokenize(task.getDescription()).forEach(term -> termWeights.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+
+        lock.writeLock().lock();
+        try {
+            Document previous = documents.get(task.getId());
+            if (previous != null && previous.version() > version) {
+                return;
+            }
+            removeLocked(task.getId());
+            documents.put(task.getId(), new Document(version, termWeights));
+            termWeights.forEach((term, weight) -> postings.computeIfAbsent(term, key -> new HashMap<>()).put(task.getId(), weight));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Every query term must match. The last one may also match as a prefix (search as you type), at half the
+    // weight of an exact match. Returns the ids of the best scoring tasks, ties broken by id.
+    List<Long> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            List<List<Match>> matches = new ArrayList<>(terms.size());
+            for (int i = 0; i < terms.size(); i++) {
+                List<Match> termMatches = i == terms.size() - 1 ? matchPrefix(terms.get(i)) : matchExact(terms.get(i));
+                if (termMatches.isEmpty()) {
+                    return List.of();
+                }
+                matches.add(termMatches);
+            }
+            // Walk the rarest term's postings and look the candidates up in the others, so the cost follows the
+            // most selective word instead of the most common one
+            matches.sort(Comparator.comparingLong(TaskSearchIndex::postingCount));
+            List<Match> driver = matches.get(0);
+            Map<Long, Integer> candidates = driver.size() == 1 ? driver.get(0).posting() : new HashMap<>();
+            int driverFactor = driver.size() == 1 ? driver.get(0).factor() : 1;
+            if (driver.size() > 1) {
+                // Several terms share the prefix, so one task can show up in more than one posting
+                for (Match match : driver) {
+                    match.posting().forEach((id, weight) -> candidates.merge(id, weight * match.factor(), Integer::sum));
+                }
+            }
+
+            Comparator<Hit> ranking = Comparator.comparingInt(Hit::score).reversed().thenComparingLong(Hit::id);
+            PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, ranking.reversed());
+            candidates.forEach((id, driverScore) -> {
+                int score = driverScore * driverFactor;
+                for (int i = 1; i < matches.size(); i++) {
+                    int termScore = score(matches.get(i), id);
+                    if (termScore == 0) {
+                        return;
+                    }
+                    score += termScore;
+                }
+                // Keeps only the best "limit" hits on a heap instead of sorting every match
+                best.offer(new Hit(id, score));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            });
+            List<Hit> hits = new ArrayList<>(best);
+            hits.sort(ranking);
+            return hits.stream().map(Hit::id).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Match> matchExact(String term) {
+        Map<Long, Integer> posting = postings.get(term);
+        return posting == null ? List.of() : List.of(new Match(posting, 2));
+    }
+
+    private List<Match> matchPrefix(String prefix) {
+        List<Match> matches = new ArrayList<>();
+        postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false)
+                .forEach((term, posting) -> matches.add(new Match(posting, term.equals(prefix) ? 2 : 1)));
+        return matches;
+    }
+
+    private static long postingCount(List<Match> matches) {
+        return matches.stream().mapToLong(match -> match.posting().size()).sum();
+    }
+
+    private static int score(List<Match> matches, long id) {
+        int score = 0;
+        for (Match match : matches) {
+            Integer weight = match.posting().get(id);
+            if (weight != null) {
+                score += weight * match.factor();
+            }
+        }
+        return score;
+    }
+
+    private void removeLocked(long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        document.termWeights().keySet().forEach(term -> {
+            Map<Long, Integer> posting = postings.get(term);
+            posting.remove(id);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+            }
+        });
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> terms = new ArrayList<>();
+        for (String term : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,120 @@
+package org.example.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.event.TaskEvent;
+import org.example.model.Task;
+import org.example.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Backs GET /tasks/search with a TaskSearchIndex. The index is built from the table once the application is ready,
+// then kept in sync from the TaskEvents of every write. Bulk writes do not say which tasks they touched, so they
+// trigger a rebuild in the background; queries keep using the old index until the new one is complete.
+@Service
+public class TaskSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskSearchService.class);
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 100;
+
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService rebuildExecutor;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private volatile TaskSearchIndex index = new TaskSearchIndex();
+    // Set while a rebuild is reading the table, so writes that land meanwhile reach the new index as well
+    private volatile TaskSearchIndex building;
+
+    public TaskSearchService(TaskRepository taskRepository, PlatformTransactionManager transactionManager) {
+        this.taskRepository = taskRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-search-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Best matches first. Tasks deleted since they were indexed are skipped when the rows are loaded.
+    public List<Task> search(String query, Integer limit) {
+        int size = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        List<Long> ids = index.search(query, size);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Task> tasks = taskRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        List<Task> ranked = new ArrayList<>(ids.size());
+        ids.forEach(id -> {
+            Task task = tasks.get(id);
+            if (task != null) {
+                ranked.add(task);
+            }
+        });
+        return ranked;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildLock.lock();
+        TaskSearchIndex rebuilt = new TaskSearchIndex();
+        building = rebuilt;
+        try {
+            long start = System.nanoTime();
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<Task> all = taskRepository.streamAll()) {
+                    all.forEach(rebuilt::put);
+                }
+            });
+            index = rebuilt;
+            log.info("Search index built with {} tasks in {} ms", rebuilt.size(), (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            building = null;
+            rebuildLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskEvent event) {
+        switch (event.type()) {
+            case CREATED, UPDATED -> apply(target -> target.put(event.task()));
+            case DELETED -> apply(target -> target.remove(event.taskId()));
+            case BULK -> rebuildExecutor.execute(this::rebuild);
+            case COMPLETED -> {
+                // Completing a task does not change its text
+            }
+        }
+    }
+
+    private void apply(Consumer<TaskSearchIndex> change) {
+        change.accept(index);
+        TaskSearchIndex next = building;
+        if (next != null) {
+            change.accept(next);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+}
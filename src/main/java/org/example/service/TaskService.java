@@ -1,87 +1,446 @@
 package org.example.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.config.CacheConfig;
+import org.example.event.TaskCountsChanged;
+import org.example.event.TaskEvent;
 import org.example.exception.TaskNotFoundException;
+import org.example.exception.TaskVersionMismatchException;
+import org.example.model.CategoryStatusCount;
 import org.example.model.Task;
+import org.example.model.TaskChanges;
+import org.example.model.TaskCount;
+import org.example.model.TaskPage;
+import org.example.model.TaskTombstone;
 import org.example.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
+// Every public method gets a tasks.service timer (tagged with class and method) with a percentile histogram
 @Service
+@Timed(value = "tasks.service", histogram = true)
 public class TaskService {
 
     private final TaskRepository taskRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskValidator taskValidator;
+    private final ObjectMapper objectMapper;
+    private final ChangeFeedWatermark changeFeedWatermark;
+    private final TombstonePruner tombstonePruner;
+    private final Counter notFoundCounter;
+    // Only the in-memory stats counters use per-write deltas. Without them, or when the repository's calls don't
+    // join our transaction (so a locked read wouldn't hold until the write), the single-statement writes below don't
+    // read or lock their rows first, they publish a recount instead.
+    private final boolean countDeltas;
 
-    private static final int MIN_DESCRIPTION_LENGTH = 5;
-    private static final int MIN_TITLE_LENGTH = 3; // Minimum title length
-    private static final int MAX_TITLE_LENGTH = 50; // Maximum title length
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
 
-    public TaskService(TaskRepository taskRepository) {
+    public TaskService(TaskRepository taskRepository, ApplicationEventPublisher eventPublisher,
+                       TaskValidator taskValidator, ObjectMapper objectMapper, ChangeFeedWatermark changeFeedWatermark,
+                       TombstonePruner tombstonePruner, MeterRegistry meterRegistry,
+                       @Value("${tasks.stats.mode:query}") String statsMode) {
         this.taskRepository = taskRepository;
+        this.eventPublisher = eventPublisher;
+        this.taskValidator = taskValidator;
+        this.objectMapper = objectMapper;
+        this.changeFeedWatermark = changeFeedWatermark;
+        this.tombstonePruner = tombstonePruner;
+        this.notFoundCounter = meterRegistry.counter("tasks.not.found");
+        this.countDeltas = "counters".equalsIgnoreCase(statsMode) && taskRepository.joinsTransactions();
     }
 
+    // Writes run in a transaction so the change sequence value they take stays below the feed watermark until they
+    // commit (ChangeFeedWatermark)
+    @Transactional
     public Task addTask(Task task) {
-        validateTask(task);
-        return taskRepository.save(task);
+        taskValidator.validate(task);
+        stampChanges(List.of(task));
+        Task saved = taskRepository.save(task);
+        eventPublisher.publishEvent(TaskEvent.created(saved));
+        publishCounts(TaskCountsChanged.builder().add(saved));
+        return saved;
     }
 
+    @Transactional
+    @CachePut(cacheNames = CacheConfig.TASK_CACHE, key = "#id")
     public Task updateTask(Long id, Task taskDetails) {
         Optional<Task> optionalTask = taskRepository.findById(id);
         if (optionalTask.isPresent()) {
             Task task = optionalTask.get();
-            task.setTitle(taskDetails.getTitle());
-            task.setDescription(taskDetails.getDescription());
-            task.setStatus(taskDetails.getStatus());
-            task.setDeadline(taskDetails.getDeadline());
-            task.setCategory(taskDetails.getCategory());
-
-            validateTask(task); // Validate before updating
-            return taskRepository.save(task);
+            TaskCountsChanged.Builder counts = TaskCountsChanged.builder().remove(task);
+            applyDetails(task, taskDetails);
+
+            taskValidator.validate(task); // Validate before updating
+            stampChanges(List.of(task));
+            Task saved = taskRepository.save(task);
+            eventPublisher.publishEvent(TaskEvent.updated(saved));
+            publishCounts(counts.add(saved));
+            return saved;
         } else {
-            throw new RuntimeException("Task not found");
+            throw notFound("Task not found");
+        }
+    }
+
+    // JSON Merge Patch (RFC 7396): fields in the patch are set, explicit nulls are cleared, everything else is kept.
+    // With an expected version (If-Match) a stale client gets a 412 instead of overwriting a newer edit, and a
+    // patch that changes nothing writes nothing.
+    @Transactional
+    @CachePut(cacheNames = CacheConfig.TASK_CACHE, key = "#id")
+    public Task patchTask(Long id, ObjectNode patch, Long expectedVersion) {
+        Task task = taskRepository.findById(id).orElseThrow(() -> notFound("Task not found"));
+        if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+            throw new TaskVersionMismatchException(id, task.getVersion());
+        }
+
+        Task original = new Task();
+        applyDetails(original, task);
+        patch.remove("id"); // the path says which task this is; version, modSeq and completedAt are read-only anyway
+        try {
+            objectMapper.readerForUpdating(task).readValue(patch);
+        } catch (IOException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid merge patch: " + ex.getMessage());
+        }
+        if (sameDetails(original, task)) {
+            return task;
+        }
+
+        taskValidator.validate(task);
+        stampChanges(List.of(task));
+        Task saved;
+        try {
+            // Flushed here so a write that slipped in after our read is reported against If-Match
+            saved = taskRepository.saveAndFlush(task);
+        } catch (ObjectOptimisticLockingFailureException ex) {
+            if (expectedVersion == null) {
+                throw ex;
+            }
+            throw new TaskVersionMismatchException(id, null);
         }
+        eventPublisher.publishEvent(TaskEvent.updated(saved));
+        publishCounts(TaskCountsChanged.builder().remove(original).add(saved));
+        return saved;
     }
 
+    // Batch variants: the whole list is validated first and written in one transaction, so either every task in the
+    // request is stored or none of them is. Not with a repository that doesn't join transactions (sharded, memory):
+    // there a failed write can leave part of the list stored, and the stats are told to recount.
+    @Transactional
+    public List<Task> addTasks(List<Task> tasks) {
+        tasks.forEach(taskValidator::validate);
+        stampChanges(tasks);
+        List<Task> saved = writeAll(() -> taskRepository.saveAll(tasks));
+        saved.forEach(task -> eventPublisher.publishEvent(TaskEvent.created(task)));
+        TaskCountsChanged.Builder counts = TaskCountsChanged.builder();
+        saved.forEach(counts::add);
+        publishCounts(counts);
+        return saved;
+    }
+
+    // Import path: stores a chunk of already validated tasks in one transaction. No per-task events are
+    // published, TaskImportService sends a single BULK event once the whole file is in; the counts of each
+    // chunk go out with its commit.
+    @Transactional
+    public List<Task> storeImportedTasks(List<Task> tasks) {
+        stampChanges(tasks);
+        List<Task> saved = writeAll(() -> taskRepository.saveAll(tasks));
+        TaskCountsChanged.Builder counts = TaskCountsChanged.builder();
+        saved.forEach(counts::add);
+        publishCounts(counts);
+        return saved;
+    }
+
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TASK_CACHE, allEntries = true)
+    public List<Task> updateTasks(List<Task> taskDetails) {
+        Map<Long, Task> existing = findAllOrThrow(taskDetails.stream().map(this::requireId).toList());
+        List<Task> tasks = new ArrayList<>(taskDetails.size());
+        TaskCountsChanged.Builder counts = TaskCountsChanged.builder();
+        for (Task details : taskDetails) {
+            Task task = existing.get(details.getId());
+            counts.remove(task);
+            applyDetails(task, details);
+            taskValidator.validate(task);
+            tasks.add(task);
+        }
+        stampChanges(tasks);
+        List<Task> saved = writeAll(() -> taskRepository.saveAll(tasks));
+        saved.forEach(task -> eventPublisher.publishEvent(TaskEvent.updated(task)));
+        saved.forEach(counts::add);
+        publishCounts(counts);
+        return saved;
+    }
+
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TASK_CACHE, allEntries = true)
+    public List<Task> markAllAsCompleted(List<Long> ids) {
+        Map<Long, Task> existing = findAllOrThrow(ids);
+        List<Task> tasks = ids.stream().distinct().map(existing::get).toList();
+        TaskCountsChanged.Builder counts = TaskCountsChanged.builder();
+        tasks.forEach(counts::remove);
+        tasks.forEach(task -> task.setStatus(Task.TaskStatus.COMPLETED));
+        stampChanges(tasks);
+        List<Task> saved = writeAll(() -> taskRepository.saveAll(tasks));
+        saved.forEach(task -> eventPublisher.publishEvent(TaskEvent.completed(task.getId(), task)));
+        saved.forEach(counts::add);
+        publishCounts(counts);
+        return saved;
+    }
+
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TASK_CACHE, key = "#id")
     public void deleteTask(Long id) {
-        Task task = taskRepository.findById(id).orElseThrow(() -> new TaskNotFoundException("Task not found."));
-        taskRepository.delete(task);
+        Task task = countDeltas ? taskRepository.findLockedById(id).orElseThrow(() -> notFound("Task not found.")) : null;
+        changeFeedWatermark.enter();
+        if (taskRepository.deleteWithTombstone(id) == 0) {
+            throw notFound("Task not found.");
+        }
+        eventPublisher.publishEvent(TaskEvent.deleted(id));
+        publishCounts(task == null ? null : TaskCountsChanged.builder().remove(task));
+    }
+
+    // Deletes completed tasks whose deadline lies before the given date, returns how many were removed
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TASK_CACHE, allEntries = true)
+    public int deleteCompletedTasksBefore(LocalDate before) {
+        List<CategoryStatusCount> removing = countDeltas
+                ? taskRepository.countByStatusAndDeadlineBefore(Task.TaskStatus.COMPLETED, before) : null;
+        changeFeedWatermark.enter();
+        int deleted = writeAll(() -> taskRepository.deleteWithTombstonesByStatusAndDeadlineBefore(Task.TaskStatus.COMPLETED, before));
+        publishBulk(deleted);
+        if (removing == null) {
+            publishRecount(deleted);
+            return deleted;
+        }
+        TaskCountsChanged.Builder counts = TaskCountsChanged.builder();
+        removing.forEach(row -> counts.change(row.category(), row.status(), null, -row.count()));
+        publishCounts(counts, removing.stream().mapToLong(CategoryStatusCount::count).sum(), deleted);
+        return deleted;
     }
 
+    // Served from the task cache; writes below keep it in sync
+    @Cacheable(cacheNames = CacheConfig.TASK_CACHE, key = "#id")
+    public Task getTask(Long id) {
+        return taskRepository.findById(id).orElseThrow(() -> notFound("Task not found."));
+    }
 
     public List<Task> getTasks() {
         return taskRepository.findAll();
     }
 
+    public TaskPage getTaskPage(Long after, Integer limit, Task.TaskStatus status, String category,
+                                LocalDate deadlineFrom, LocalDate deadlineTo) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        long afterId = after == null ? 0L : after;
+
+        List<Task> tasks = taskRepository.findPage(afterId, status, category, deadlineFrom, deadlineTo,
+                PageRequest.of(0, pageSize));
+
+        // A short page means we reached the end, so there is nothing to continue from
+        Long nextCursor = tasks.size() < pageSize ? null : tasks.get(tasks.size() - 1).getId();
+        return new TaskPage(tasks, nextCursor);
+    }
+
+    // Everything created, updated or deleted after the given change sequence value, oldest change first.
+    // Both lists are read with the page limit and merged, so the returned version never skips a change. Changes
+    // above the watermark are left for the next call, a write with a lower value may still commit.
+    public TaskChanges getChanges(Long since, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        long from = since == null ? 0L : since;
+        PageRequest page = PageRequest.of(0, pageSize);
+
+        long upTo = changeFeedWatermark.current();
+        Iterator<Task> changed = taskRepository.findChangedSince(from, page).stream()
+                .filter(task -> task.getModSeq() <= upTo).iterator();
+        Iterator<TaskTombstone> removed = taskRepository.findTombstonesSince(from, page).stream()
+                .filter(tombstone -> tombstone.getModSeq() <= upTo).iterator();
+        // Checked after reading, see TombstonePruner.prune. since=0 is a full read and needs no tombstones.
+        if (from > 0 && from < tombstonePruner.prunedUpTo()) {
+            throw new ResponseStatusException(HttpStatus.GONE,
+                    "Deletes before change " + tombstonePruner.prunedUpTo() + " were pruned, start again with since=0");
+        }
+        Task nextTask = changed.hasNext() ? changed.next() : null;
+        TaskTombstone nextTombstone = removed.hasNext() ? removed.next() : null;
+
+        List<Task> tasks = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        long version = from;
+        while ((nextTask != null || nextTombstone != null) && tasks.size() + deleted.size() < pageSize) {
+            if (nextTombstone == null || (nextTask != null && nextTask.getModSeq() < nextTombstone.getModSeq())) {
+                tasks.add(nextTask);
+                version = nextTask.getModSeq();
+                nextTask = changed.hasNext() ? changed.next() : null;
+            } else {
+                deleted.add(nextTombstone.getTaskId());
+                version = nextTombstone.getModSeq();
+                nextTombstone = removed.hasNext() ? removed.next() : null;
+            }
+        }
+        return new TaskChanges(tasks, deleted, version, tasks.size() + deleted.size() == pageSize);
+    }
+
+    @Transactional
+    @CachePut(cacheNames = CacheConfig.TASK_CACHE, key = "#id")
     public Task markAsCompleted(Long id) {
-        Optional<Task> optionalTask = taskRepository.findById(id);
-        if (optionalTask.isPresent()) {
-            Task task = optionalTask.get();
-            task.setStatus(Task.TaskStatus.COMPLETED);
-            return taskRepository.save(task);
-        } else {
-            throw new RuntimeException("Task not found");
+        completeOrThrow(id);
+        Task task = taskRepository.findById(id).orElseThrow(() -> notFound("Task not found"));
+        eventPublisher.publishEvent(TaskEvent.completed(id, task));
+        return task;
+    }
+
+    // Same as markAsCompleted without reading the task back, for callers that do not need it
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TASK_CACHE, key = "#id")
+    public void completeTask(Long id) {
+        completeOrThrow(id);
+        eventPublisher.publishEvent(TaskEvent.completed(id, null));
+    }
+
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TASK_CACHE, allEntries = true)
+    public int completeTasksInCategory(String category) {
+        List<TaskCount> completing = countDeltas
+                ? taskRepository.countByCategoryAndStatusNot(category, Task.TaskStatus.COMPLETED) : null;
+        changeFeedWatermark.enter();
+        int updated = writeAll(() -> taskRepository.updateStatusByCategory(category, Task.TaskStatus.COMPLETED.name()));
+        publishBulk(updated);
+        if (completing == null) {
+            publishRecount(updated);
+            return updated;
+        }
+        TaskCountsChanged.Builder counts = TaskCountsChanged.builder();
+        for (TaskCount row : completing) {
+            counts.change(row.category(), row.status(), row.deadline(), -row.count());
+            counts.change(row.category(), Task.TaskStatus.COMPLETED, row.deadline(), row.count());
         }
+        publishCounts(counts, completing.stream().mapToLong(TaskCount::count).sum(), updated);
+        return updated;
     }
 
-    // Validation method
-    private void validateTask(Task task) {
-        if (task.getTitle() == null || task.getTitle().trim().isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Task title must not be empty");
+    // The status UPDATE for one task. With counters the task is read and locked first so its counts can move with it.
+    private void completeOrThrow(Long id) {
+        Task task = countDeltas ? taskRepository.findLockedById(id).orElseThrow(() -> notFound("Task not found")) : null;
+        changeFeedWatermark.enter();
+        if (taskRepository.updateStatus(id, Task.TaskStatus.COMPLETED.name()) == 0) {
+            throw notFound("Task not found");
         }
+        publishCounts(task == null ? null : TaskCountsChanged.builder().remove(task)
+                .change(task.getCategory(), Task.TaskStatus.COMPLETED, task.getDeadline(), 1));
+    }
+
+    // Gives every task its own change sequence value, fetched in one round trip
+    private void stampChanges(List<Task> tasks) {
+        changeFeedWatermark.enter();
+        Iterator<Long> sequences = taskRepository.nextChangeSequences(tasks.size()).iterator();
+        tasks.forEach(task -> task.setModSeq(sequences.next()));
+    }
+
+    // A write that can span several shards. If the repository's calls don't join this transaction, a failure can
+    // leave part of it committed although the transaction rolls back, so the stats are told to recount.
+    private <T> T writeAll(Supplier<T> write) {
+        try {
+            return write.get();
+        } catch (RuntimeException ex) {
+            if (!taskRepository.joinsTransactions()) {
+                eventPublisher.publishEvent(TaskCountsChanged.recountAll());
+            }
+            throw ex;
+        }
+    }
 
-        if (task.getTitle().length() < MIN_TITLE_LENGTH) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Task title must be at least " + MIN_TITLE_LENGTH + " characters long");
+    private void publishBulk(int affectedRows) {
+        if (affectedRows > 0) {
+            eventPublisher.publishEvent(TaskEvent.bulk());
         }
+    }
 
-        if (task.getTitle().length() > MAX_TITLE_LENGTH) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Task title must be no more than " + MAX_TITLE_LENGTH + " characters long");
+    // null means the previous state wasn't read (no counters), so only a recount would be right
+    private void publishCounts(TaskCountsChanged.Builder counts) {
+        if (counts == null) {
+            eventPublisher.publishEvent(TaskCountsChanged.recountAll());
+        } else if (!counts.isEmpty()) {
+            eventPublisher.publishEvent(counts.build());
         }
+    }
 
-        if (task.getDescription() == null || task.getDescription().length() < MIN_DESCRIPTION_LENGTH) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Task description must be at least " + MIN_DESCRIPTION_LENGTH + " characters long");
+    private void publishRecount(int affectedRows) {
+        if (affectedRows > 0) {
+            eventPublisher.publishEvent(TaskCountsChanged.recountAll());
         }
     }
-}
\ No newline at end of file
+
+    // Range writes count their rows before they run; a concurrent write that changed that set shows up as a
+    // different row count, and then only a recount is right
+    private void publishCounts(TaskCountsChanged.Builder counts, long counted, int affectedRows) {
+        if (counted != affectedRows) {
+            eventPublisher.publishEvent(TaskCountsChanged.recountAll());
+        } else {
+            publishCounts(counts);
+        }
+    }
+
+    private void applyDetails(Task task, Task taskDetails) {
+        task.setTitle(taskDetails.getTitle());
+        task.setDescription(taskDetails.getDescription());
+        task.setStatus(taskDetails.getStatus());
+        task.setDeadline(taskDetails.getDeadline());
+        task.setCategory(taskDetails.getCategory());
+    }
+
+    private boolean sameDetails(Task a, Task b) {
+        return Objects.equals(a.getTitle(), b.getTitle())
+                && Objects.equals(a.getDescription(), b.getDescription())
+                && a.getStatus() == b.getStatus()
+                && Objects.equals(a.getDeadline(), b.getDeadline())
+                && Objects.equals(a.getCategory(), b.getCategory());
+    }
+
+    private Long requireId(Task task) {
+        if (task.getId() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Task id must not be null");
+        }
+        return task.getId();
+    }
+
+    // Loads all tasks with one query and fails if any of the ids is missing
+    private Map<Long, Task> findAllOrThrow(List<Long> ids) {
+        Map<Long, Task> tasks = taskRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        for (Long id : ids) {
+            if (!tasks.containsKey(id)) {
+                throw notFound("Task not found: " + id);
+            }
+        }
+        return tasks;
+    }
+
+    private TaskNotFoundException notFound(String message) {
+        notFoundCounter.increment();
+        return new TaskNotFoundException(message);
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.example.event.TaskEvent;
+import org.example.model.TaskSnapshot;
+import org.example.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+
+// Optional read mode for GET /tasks: the list is kept as ready-made JSON and gzip bytes and only rebuilt after writes.
+// Every write bumps the generation and schedules a debounced rebuild, so bursts of writes cost one rebuild.
+// A read that finds an outdated snapshot rebuilds it on the spot, so clients always see their own writes.
+@Service
+public class TaskSnapshotService {
+
+    private final TaskRepository taskRepository;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final long debounceMillis;
+
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final ScheduledExecutorService scheduler;
+
+    private volatile TaskSnapshot snapshot;
+
+    public TaskSnapshotService(TaskRepository taskRepository,
+                               ObjectMapper objectMapper,
+                               @Value("${tasks.snapshot.enabled:false}") boolean enabled,
+                               @Value("${tasks.snapshot.debounce-ms:50}") long debounceMillis) {
+        this.taskRepository = taskRepository;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.debounceMillis = debounceMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public TaskSnapshot current() {
+        TaskSnapshot current = snapshot;
+        if (current != null && current.generation() == generation.get()) {
+            return current;
+        }
+        rebuildLock.lock();
+        try {
+            // Another reader may have rebuilt it while we were waiting for the lock
+            current = snapshot;
+            if (current != null && current.generation() == generation.get()) {
+                return current;
+            }
+            return rebuild();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskEvent event) {
+        if (!enabled) {
+            return;
+        }
+        generation.incrementAndGet();
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::rebuildInBackground, debounceMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void rebuildInBackground() {
+        rebuildScheduled.set(false);
+        current();
+    }
+
+    // Must be called with rebuildLock held. The generation is read before the query, so writes that
+    // land while we are reading leave the result outdated and the next read rebuilds again.
+    private TaskSnapshot rebuild() {
+        long builtFrom = generation.get();
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(taskRepository.findAll());
+            String etag = "\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+            TaskSnapshot rebuilt = new TaskSnapshot(json, gzip(json), etag, builtFrom);
+            snapshot = rebuilt;
+            return rebuilt;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, bytes.length / 4));
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(bytes);
+        }
+        return buffer.toByteArray();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
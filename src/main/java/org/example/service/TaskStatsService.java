@@ -0,0 +1,190 @@
+package org.example.service;
+
+import org.example.event.TaskCountsChanged;
+import org.example.model.CategoryStatusCount;
+import org.example.model.Task;
+import org.example.model.TaskCount;
+import org.example.model.TaskStats;
+import org.example.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Numbers behind GET /tasks/stats. By default (tasks.stats.mode=query) every call runs two GROUP BY queries.
+// With tasks.stats.mode=counters the counts live in memory: tasks per (category, status) and pending tasks per
+// (category, deadline) for the overdue numbers. Every write publishes a TaskCountsChanged with its deltas, applied
+// once it commits. The first read, and the next read after a write that asked for a recount, count the table again.
+// A write that is committing while that count runs may or may not be in it, so such a count only answers that one
+// read and the next read counts again.
+@Service
+public class TaskStatsService {
+
+    private final TaskRepository taskRepository;
+    private final boolean counters;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<CountKey, Long> counts = new HashMap<>();
+    private final Map<String, TreeMap<LocalDate, Long>> pendingDeadlines = new HashMap<>();
+    private boolean loaded;
+    // Writes between publishing their deltas and completing, and a tick for every such start and end
+    private int committing;
+    private long generation;
+
+    private record CountKey(String category, Task.TaskStatus status) {
+    }
+
+    public TaskStatsService(TaskRepository taskRepository,
+                            @Value("${tasks.stats.mode:query}") String mode) {
+        this.taskRepository = taskRepository;
+        this.counters = "counters".equalsIgnoreCase(mode);
+    }
+
+    public TaskStats getStats() {
+        LocalDate today = LocalDate.now();
+        if (!counters) {
+            return TaskStats.of(taskRepository.countByCategoryAndStatus(),
+                    taskRepository.countByStatusAndDeadlineBefore(Task.TaskStatus.PENDING, today));
+        }
+        long started;
+        lock.lock();
+        try {
+            if (loaded) {
+                return snapshot(today);
+            }
+            started = committing == 0 ? generation : -1;
+        } finally {
+            lock.unlock();
+        }
+        // Counted outside the lock so committing writes aren't held up behind it
+        List<CategoryStatusCount> byCategoryAndStatus = taskRepository.countByCategoryAndStatus();
+        List<TaskCount> pending = taskRepository.countDeadlinesByStatus(Task.TaskStatus.PENDING);
+        lock.lock();
+        try {
+            if (loaded) {
+                return snapshot(today); // another read got there first
+            }
+            reload(byCategoryAndStatus, pending);
+            TaskStats stats = snapshot(today);
+            // Kept only if no write was committing at any point while counting
+            loaded = started >= 0 && started == generation && committing == 0;
+            return stats;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Deltas of a write in a transaction are applied once it commits; outside of one (R2DBC writes) right away
+    @EventListener
+    public void onCountsChanged(TaskCountsChanged event) {
+        if (!counters) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(event);
+            return;
+        }
+        lock.lock();
+        try {
+            committing++;
+            generation++;
+        } finally {
+            lock.unlock();
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                completed(event, status);
+            }
+        });
+    }
+
+    private void completed(TaskCountsChanged event, int status) {
+        lock.lock();
+        try {
+            committing--;
+            generation++;
+            if (status == TransactionSynchronization.STATUS_COMMITTED || event.recount()) {
+                // A recount also counts on rollback: repositories that don't join transactions keep partial writes
+                applyLocked(event);
+            } else if (status == TransactionSynchronization.STATUS_UNKNOWN) {
+                loaded = false;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void apply(TaskCountsChanged event) {
+        lock.lock();
+        try {
+            generation++;
+            applyLocked(event);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Must be called with the lock held
+    private TaskStats snapshot(LocalDate today) {
+        List<CategoryStatusCount> byCategoryAndStatus = new ArrayList<>(counts.size());
+        counts.forEach((key, count) -> byCategoryAndStatus.add(new CategoryStatusCount(key.category(), key.status(), count)));
+        List<CategoryStatusCount> overdue = new ArrayList<>();
+        pendingDeadlines.forEach((category, deadlines) -> {
+            long count = deadlines.headMap(today).values().stream().mapToLong(Long::longValue).sum();
+            if (count > 0) {
+                overdue.add(new CategoryStatusCount(category, Task.TaskStatus.PENDING, count));
+            }
+        });
+        return TaskStats.of(byCategoryAndStatus, overdue);
+    }
+
+    // Must be called with the lock held
+    private void applyLocked(TaskCountsChanged event) {
+        if (!loaded) {
+            return; // the next read counts everything anyway
+        }
+        if (event.recount()) {
+            loaded = false;
+            return;
+        }
+        event.changes().forEach(this::applyChange);
+    }
+
+    // Must be called with the lock held
+    private void reload(List<CategoryStatusCount> byCategoryAndStatus, List<TaskCount> pending) {
+        counts.clear();
+        pendingDeadlines.clear();
+        for (CategoryStatusCount row : byCategoryAndStatus) {
+            counts.merge(new CountKey(row.category(), row.status()), row.count(), Long::sum);
+        }
+        for (TaskCount row : pending) {
+            addDeadlines(row.category(), row.deadline(), row.count());
+        }
+    }
+
+    private void applyChange(TaskCount change) {
+        counts.merge(new CountKey(change.category(), change.status()), change.count(),
+                (count, delta) -> count + delta == 0 ? null : count + delta);
+        if (change.status() == Task.TaskStatus.PENDING && change.deadline() != null) {
+            addDeadlines(change.category(), change.deadline(), change.count());
+        }
+    }
+
+    private void addDeadlines(String category, LocalDate deadline, long delta) {
+        TreeMap<LocalDate, Long> deadlines = pendingDeadlines.computeIfAbsent(category, key -> new TreeMap<>());
+        deadlines.merge(deadline, delta, (count, change) -> count + change == 0 ? null : count + change);
+        if (deadlines.isEmpty()) {
+            pendingDeadlines.remove(category);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.model.Task;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+// The task rules shared by the servlet (TaskService) and reactive (ReactiveTaskService) stacks
+@Component
+public class TaskValidator {
+
+    private static final int MIN_DESCRIPTION_LENGTH = 5;
+    private static final int MIN_TITLE_LENGTH = 3; // Minimum title length
+    private static final int MAX_TITLE_LENGTH = 50; // Maximum title length
+    private static final String VALIDATION_REJECTED_METRIC = "tasks.validation.rejected";
+
+    private final MeterRegistry meterRegistry;
+
+    public TaskValidator(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void validate(Task task) {
+        String violation = check(task);
+        if (violation != null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, violation);
+        }
+    }
+
+    // Same rules without the exception: returns the first broken rule's message, or null for a valid task.
+    // Used where rejections are collected instead of thrown, like the bulk import.
+    public String check(Task task) {
+        if (task.getTitle() == null || task.getTitle().trim().isEmpty()) {
+            return rejected("title_empty", "Task title must not be empty");
+        }
+
+        if (task.getTitle().length() < MIN_TITLE_LENGTH) {
+            return rejected("title_too_short", "Task title must be at least " + MIN_TITLE_LENGTH + " characters long");
+        }
+
+        if (task.getTitle().length() > MAX_TITLE_LENGTH) {
+            return rejected("title_too_long", "Task title must be no more than " + MAX_TITLE_LENGTH + " characters long");
+        }
+
+        if (task.getDescription() == null || task.getDescription().length() < MIN_DESCRIPTION_LENGTH) {
+            return rejected("description_too_short", "Task description must be at least " + MIN_DESCRIPTION_LENGTH + " characters long");
+        }
+        return null;
+    }
+
+    // Counts the rejection per rule, so the metrics show which check clients trip over most
+    private String rejected(String rule, String message) {
+        meterRegistry.counter(VALIDATION_REJECTED_METRIC, "rule", rule).increment();
+        return message;
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.service;
+
+import org.example.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Deletes change feed tombstones once they are older than tasks.changes.tombstone-retention. Tombstones carry no
+// timestamp, so every run notes the feed watermark and the next runs delete up to the mark noted a retention period
+// ago. A client whose "since" lies below what was deleted may have missed deletes and gets a 410 from
+// GET /tasks/changes. The marks and that limit are kept in memory, a restart starts counting again.
+@Service
+public class TombstonePruner {
+
+    private static final Logger log = LoggerFactory.getLogger(TombstonePruner.class);
+
+    private record Mark(Instant at, long modSeq) {
+    }
+
+    private final TaskRepository taskRepository;
+    private final ChangeFeedWatermark changeFeedWatermark;
+    private final Duration retention;
+    private final ReentrantLock lock = new ReentrantLock(); // marks and prunedUpTo, when prune() overlaps the scheduled run
+    private final Deque<Mark> marks = new ArrayDeque<>();
+    private volatile long prunedUpTo;
+
+    public TombstonePruner(TaskRepository taskRepository, ChangeFeedWatermark changeFeedWatermark,
+                           @Value("${tasks.changes.tombstone-retention:7d}") Duration retention) {
+        this.taskRepository = taskRepository;
+        this.changeFeedWatermark = changeFeedWatermark;
+        this.retention = retention;
+    }
+
+    @Scheduled(initialDelayString = "${tasks.changes.prune-interval-ms:3600000}",
+            fixedDelayString = "${tasks.changes.prune-interval-ms:3600000}")
+    public void pruneScheduled() {
+        prune(Instant.now());
+    }
+
+    // Notes the current watermark and deletes the tombstones up to the newest mark that is older than the
+    // retention. Returns how many were deleted.
+    public int prune(Instant now) {
+        lock.lock();
+        try {
+            marks.addLast(new Mark(now, changeFeedWatermark.current()));
+            long upTo = 0;
+            while (!marks.isEmpty() && !marks.peekFirst().at().isAfter(now.minus(retention))) {
+                upTo = marks.pollFirst().modSeq();
+            }
+            if (upTo <= prunedUpTo) {
+                return 0;
+            }
+            // Raised before the delete, and TaskService.getChanges checks it after reading, so a reader that
+            // raced the delete finds out
+            prunedUpTo = upTo;
+            int deleted = taskRepository.deleteTombstonesUpTo(upTo);
+            if (deleted > 0) {
+                log.info("Pruned {} tombstones up to change {}", deleted, upTo);
+            }
+            return deleted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Highest change sequence value whose tombstones may be gone
+    public long prunedUpTo() {
+        return prunedUpTo;
+    }
+}
@@ -0,0 +1,58 @@
+-- Tables for the prod profile, which does not let Hibernate create or update the schema at startup.
+-- Generated from the entities; ProdProfileIntegrationTest fails when they drift apart. Runs after schema.sql.
+CREATE SEQUENCE IF NOT EXISTS task_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS task (
+    id bigint NOT NULL,
+    title varchar(255),
+    description varchar(255),
+    status varchar(255) CHECK (status IN ('PENDING', 'COMPLETED')),
+    deadline date,
+    category varchar(255),
+    version bigint,
+    mod_seq bigint,
+    completed_at timestamp(6) with time zone,
+    PRIMARY KEY (id)
+);
+CREATE INDEX IF NOT EXISTS idx_task_status_id ON task (status, id);
+CREATE INDEX IF NOT EXISTS idx_task_category_id ON task (category, id);
+CREATE INDEX IF NOT EXISTS idx_task_deadline_id ON task (deadline, id);
+CREATE INDEX IF NOT EXISTS idx_task_mod_seq ON task (mod_seq);
+CREATE INDEX IF NOT EXISTS idx_task_status_completed_at ON task (status, completed_at);
+CREATE INDEX IF NOT EXISTS idx_task_status_deadline_id ON task (status, deadline, id);
+
+CREATE TABLE IF NOT EXISTS task_tombstone (
+    task_id bigint NOT NULL,
+    mod_seq bigint,
+    PRIMARY KEY (task_id)
+);
+CREATE INDEX IF NOT EXISTS idx_task_tombstone_mod_seq ON task_tombstone (mod_seq);
+
+CREATE TABLE IF NOT EXISTS archived_task (
+    id bigint NOT NULL,
+    title varchar(255),
+    description varchar(255),
+    deadline date,
+    category varchar(255),
+    completed_at timestamp(6) with time zone,
+    archived_at timestamp(6) with time zone,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS reminder_cursor (
+    name varchar(255) NOT NULL,
+    reminder_deadline date,
+    reminder_id bigint,
+    escalation_deadline date,
+    escalation_id bigint,
+    mod_seq bigint,
+    PRIMARY KEY (name)
+);
+
+CREATE TABLE IF NOT EXISTS sent_reminder (
+    task_id bigint NOT NULL,
+    deadline date,
+    level varchar(255),
+    PRIMARY KEY (task_id)
+);
+CREATE INDEX IF NOT EXISTS idx_sent_reminder_deadline ON sent_reminder (deadline);
@@ -0,0 +1,2 @@
+-- Runs before Hibernate creates or updates the tables
+CREATE SEQUENCE IF NOT EXISTS task_change_seq;
@@ -29,7 +29,8 @@ document.getElementById('addTaskForm').addEventListener('submit', function(event
         })
         .then(task => {
             console.log('Task added:', task);
-            loadTasks(); // Reload the list of tasks
+            applyTask(task);
+            renderTasks();
         })
         .catch(error => {
             console.error('Error adding task:', error);
@@ -37,26 +38,134 @@ document.getElementById('addTaskForm').addEventListener('submit', function(event
         });
 });
 
+const PAGE_SIZE = 500;
+
+// Local copy of the task list, kept current by the server's events and, for what they don't carry, its change feed
+const tasksById = new Map();
+// Ids are never reused, so a deleted task must not come back from a pull that was already on its way
+const deletedIds = new Set();
+let changesVersion = 0;
+// One pull at a time: pulls asked for while one runs become a single pull once it finishes
+let pulling = false;
+let pullAgain = false;
+
 function loadTasks() {
-    fetch('http://localhost:8080/tasks')
-        .then(response => response.json())
-        .then(tasks => {
-            const taskList = document.getElementById('taskList');
-            taskList.innerHTML = ''; // Clear existing tasks
-            tasks.forEach(task => {
-                const li = document.createElement('li');
-                li.textContent = `${task.title} - ${task.description} (Due: ${task.deadline}) `;
-
-                // Create delete button
-                const deleteBtn = document.createElement('button');
-                deleteBtn.textContent = 'Delete';
-                deleteBtn.onclick = function() { deleteTask(task.id); };
-                li.appendChild(deleteBtn);
-
-                taskList.appendChild(li);
-            });
+    if (pulling) {
+        pullAgain = true;
+        return;
+    }
+    pulling = true;
+    pullChanges();
+}
+
+function pullChanges() {
+    fetch(`http://localhost:8080/tasks/changes?since=${changesVersion}&limit=${PAGE_SIZE}`)
+        .then(response => {
+            if (response.status === 410) {
+                // Deletes we haven't seen were pruned, so start over from a full read
+                return null;
+            }
+            if (!response.ok) {
+                throw new Error(`Change feed answered ${response.status}`);
+            }
+            return response.json();
         })
-        .catch(error => console.error('Error loading tasks:', error));
+        .then(changes => {
+            if (changes === null) {
+                tasksById.clear();
+                changesVersion = 0;
+                pullChanges();
+                return;
+            }
+            changes.tasks.forEach(applyTask);
+            changes.deleted.forEach(removeTask);
+            changesVersion = changes.version;
+            if (changes.hasMore) {
+                pullChanges(); // Keep going until we have caught up
+                return;
+            }
+            renderTasks();
+            pullDone();
+        })
+        .catch(error => {
+            console.error('Error loading tasks:', error);
+            pullDone();
+        });
+}
+
+function pullDone() {
+    pulling = false;
+    if (pullAgain) {
+        pullAgain = false;
+        loadTasks();
+    }
+}
+
+// Events and pulls can deliver the same task in either order, so the newer write wins
+function applyTask(task) {
+    const known = tasksById.get(task.id);
+    if (deletedIds.has(task.id) || (known && known.modSeq > task.modSeq)) {
+        return;
+    }
+    tasksById.set(task.id, task);
+}
+
+function removeTask(id) {
+    deletedIds.add(id);
+    tasksById.delete(id);
+}
+
+// A burst of events redraws the list (and reruns an active search) once
+let renderQueued = false;
+
+function scheduleRender() {
+    if (!renderQueued) {
+        renderQueued = true;
+        setTimeout(() => {
+            renderQueued = false;
+            renderTasks();
+        }, 100);
+    }
+}
+
+// While a search is active the list shows the server's ranked results instead of the local copy
+let searchQuery = '';
+let searchTimer;
+
+document.getElementById('search').addEventListener('input', event => {
+    clearTimeout(searchTimer);
+    searchTimer = setTimeout(() => {
+        searchQuery = event.target.value.trim();
+        renderTasks();
+    }, 150);
+});
+
+function renderTasks() {
+    if (searchQuery) {
+        fetch(`http://localhost:8080/tasks/search?q=${encodeURIComponent(searchQuery)}`)
+            .then(response => response.json())
+            .then(renderTaskList)
+            .catch(error => console.error('Error searching tasks:', error));
+        return;
+    }
+    renderTaskList([...tasksById.values()].sort((a, b) => a.id - b.id));
+}
+
+function renderTaskList(tasks) {
+    const taskList = document.getElementById('taskList');
+    taskList.innerHTML = ''; // Clear existing tasks
+    tasks.forEach(task => {
+        const li = document.createElement('li');
+        li.textContent = `${task.title} - ${task.description} (Due: ${task.deadline}) `;
+
+        // Create delete button
+        const deleteBtn = document.createElement('button');
+        deleteBtn.textContent = 'Delete';
+        deleteBtn.onclick = function() { deleteTask(task.id); };
+        li.appendChild(deleteBtn);
+
+        taskList.appendChild(li);
+    });
 }
 
 function deleteTask(taskId) {
@@ -65,7 +174,8 @@ function deleteTask(taskId) {
     })
         .then(response => {
             if (response.ok) {
-                loadTasks(); // Reload tasks to update the list
+                removeTask(taskId);
+                renderTasks();
             }
         })
         .catch(error => console.error('Error deleting task:', error));
@@ -81,4 +191,24 @@ function displayErrorMessage(message) {
 }
 
 // Load tasks on initial page load
-loadTasks();
\ No newline at end of file
+loadTasks();
+
+// Apply the task each event carries instead of polling. BULK events (and completions sent without the task) say
+// only that something changed, so those pull the change feed.
+const taskStream = new EventSource('http://localhost:8080/tasks/stream');
+['CREATED', 'UPDATED', 'COMPLETED'].forEach(type => {
+    taskStream.addEventListener(type, message => {
+        const event = JSON.parse(message.data);
+        if (event.task) {
+            applyTask(event.task);
+            scheduleRender();
+        } else {
+            loadTasks();
+        }
+    });
+});
+taskStream.addEventListener('DELETED', message => {
+    removeTask(JSON.parse(message.data).taskId);
+    scheduleRender();
+});
+taskStream.addEventListener('BULK', () => loadTasks());
\ No newline at end of file
@@ -0,0 +1,84 @@
+package org.example.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.service.AdmissionLimiter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "tasks.admission.enabled=true",
+        "tasks.admission.initial-limit=2",
+        "tasks.admission.queue-size=0",
+        "tasks.admission.retry-after-seconds=3"
+})
+@AutoConfigureMockMvc
+public class AdmissionControlIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    @Qualifier("readAdmissionLimiter")
+    private AdmissionLimiter readLimiter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void testReadsBeyondTheLimitGetServiceUnavailableWhileWritesStillPass() throws Exception {
+        // Arrange: hold every read slot, as if that many slow reads were in progress
+        List<AdmissionLimiter.Permit> held = new ArrayList<>();
+        while (readLimiter.getInFlight() < readLimiter.getLimit()) {
+            held.add(readLimiter.tryAcquire());
+        }
+        double rejectedBefore = meterRegistry.counter("tasks.admission.rejected", "class", "read").count();
+
+        try {
+            // Act & Assert
+            mockMvc.perform(get("/tasks"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "3"));
+
+            mockMvc.perform(post("/tasks")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"title\":\"Admitted\",\"description\":\"Writes have their own limit\",\"category\":\"Work\"}"))
+                    .andExpect(status().isOk());
+
+            assertEquals(rejectedBefore + 1, meterRegistry.counter("tasks.admission.rejected", "class", "read").count());
+        } finally {
+            held.forEach(permit -> readLimiter.release(permit, false));
+        }
+
+        mockMvc.perform(get("/tasks"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void testPermitIsReturnedAfterEachRequest() throws Exception {
+        // Act
+        mockMvc.perform(get("/tasks"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/tasks/{id}", Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+        // The SSE stream stays open, its slot is given back as soon as the handler returns
+        mockMvc.perform(get("/tasks/stream"))
+                .andExpect(request().asyncStarted());
+
+        // Assert
+        assertEquals(0, readLimiter.getInFlight());
+        assertEquals(0, (int) meterRegistry.get("tasks.admission.in.flight").tag("class", "read").gauge().value());
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.example.model.Task;
+import org.example.repository.TaskRepository;
+import org.example.repository.memory.InMemoryTaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "tasks.memory.log-path=target/memory-test/tasks.log")
+@ActiveProfiles("memory")
+@AutoConfigureMockMvc
+public class InMemoryTaskControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        taskRepository.deleteAll();
+    }
+
+    @Test
+    public void testTaskApiRunsOnTheInMemoryRepository() throws Exception {
+        // Arrange
+        Task task = new Task(null, "Title", "Description", LocalDate.now(), "Category");
+
+        // Act: Create, complete and list a task through the API
+        mockMvc.perform(post("/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(task)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.version", is(0)));
+        Long id = taskRepository.findAll().get(0).getId();
+        mockMvc.perform(put("/tasks/{id}/complete", id))
+            .andExpect(status().is2xxSuccessful());
+
+        // Assert
+        assertInstanceOf(InMemoryTaskRepository.class, taskRepository);
+        mockMvc.perform(get("/tasks"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].status", is("COMPLETED")));
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// The prod profile creates the schema from schema-prod.sql. Hibernate validates it against the entities here,
+// on a database of its own so tables created by ddl-auto=update in other tests can't hide a drift.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:prodschema",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@ActiveProfiles("prod")
+@AutoConfigureMockMvc
+public class ProdProfileIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testSchemaMatchesTheEntities() throws Exception {
+        // Act & Assert - lazy init builds the EntityManagerFactory (and validates) on the first request
+        mockMvc.perform(post("/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Prod\",\"description\":\"Prod profile smoke test\",\"status\":\"PENDING\",\"category\":\"ops\",\"deadline\":\"2030-01-01\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/tasks"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title", is("Prod")));
+    }
+
+    @Test
+    public void testH2ConsoleIsOff() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/h2-console"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,11 @@
+package org.example.controller;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+// Same load as TaskControllerLoadTest, served by ReactiveTaskController on Netty
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.main.web-application-type=reactive")
+@ActiveProfiles("reactive")
+public class ReactiveLoadTest extends TaskControllerLoadTest {
+}
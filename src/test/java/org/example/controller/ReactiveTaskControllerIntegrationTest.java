@@ -0,0 +1,217 @@
+package org.example.controller;
+
+import org.example.event.ReactiveTaskEventBroadcaster;
+import org.example.model.Task;
+import org.example.model.TaskChanges;
+import org.example.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.main.web-application-type=reactive")
+@ActiveProfiles("reactive")
+@AutoConfigureWebTestClient
+public class ReactiveTaskControllerIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ReactiveTaskEventBroadcaster taskEventBroadcaster;
+
+    @LocalServerPort
+    private int port;
+
+    @BeforeEach
+    public void setUp() {
+        // Clear the repository to ensure only our test data is present
+        taskRepository.deleteAll();
+    }
+
+    @Test
+    public void testAddTaskThenGetTaskReturnsStoredTask() {
+        // Arrange & Act: Create a task through the reactive API
+        Task created = webTestClient.post().uri("/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new Task(null, "Title", "Description", LocalDate.now(), "Category"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Task.class)
+                .returnResult().getResponseBody();
+
+        // Assert: It can be read back by id, also through JPA
+        webTestClient.get().uri("/tasks/{id}", created.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Title")
+                .jsonPath("$.status").isEqualTo("PENDING");
+        assertEquals("Title", taskRepository.findById(created.getId()).orElseThrow().getTitle());
+    }
+
+    @Test
+    public void testAddTaskFromAnHttp2ClientGetsItsBodyThrough() throws Exception {
+        // Arrange: A client that asks for an h2c upgrade on a request with a body
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/tasks"))
+                .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                .timeout(Duration.ofSeconds(10))
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"title\":\"Over h2c\",\"description\":\"Description\",\"category\":\"Category\"}"))
+                .build();
+
+        // Act
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+        // Assert: Netty doesn't offer the upgrade, so the request is answered over HTTP/1.1 instead of hanging
+        assertEquals(200, response.statusCode());
+        assertEquals(HttpClient.Version.HTTP_1_1, response.version());
+        assertEquals(1, taskRepository.count());
+    }
+
+    @Test
+    public void testAddTaskInvalidTaskReturnsBadRequest() {
+        // Act & Assert: The servlet stack's validation rules apply here too
+        webTestClient.post().uri("/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new Task(null, "A", "Description", LocalDate.now(), "Category"))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void testGetTasksStreamsAllTasksAsNdjson() {
+        // Arrange: Tasks written through JPA, ids handed out by the pooled-lo optimizer
+        taskRepository.saveAll(List.of(
+                new Task(null, "Title 1", "Description 1", LocalDate.now(), "Category 1"),
+                new Task(null, "Title 2", "Description 2", LocalDate.now(), "Category 2")));
+
+        // Act
+        List<Task> tasks = webTestClient.get().uri("/tasks")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Task.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        // Assert
+        assertEquals(List.of("Title 1", "Title 2"), tasks.stream().map(Task::getTitle).toList());
+    }
+
+    @Test
+    public void testUpdateCompleteAndDeleteTask() {
+        // Arrange
+        Task task = taskRepository.save(new Task(null, "Title", "Description", LocalDate.now(), "Category"));
+
+        // Act & Assert: Update bumps the version, complete flips the status, delete leaves nothing behind
+        webTestClient.put().uri("/tasks/{id}", task.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new Task(null, "New title", "New description", LocalDate.now(), "Category"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("New title")
+                .jsonPath("$.version").isEqualTo(1);
+        webTestClient.put().uri("/tasks/{id}/complete", task.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo("COMPLETED");
+        webTestClient.delete().uri("/tasks/{id}", task.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+        webTestClient.delete().uri("/tasks/{id}", task.getId())
+                .exchange()
+                .expectStatus().isNotFound();
+        assertFalse(taskRepository.existsById(task.getId()));
+    }
+
+    @Test
+    public void testGetChangesReturnsReactiveWritesAndDeletes() {
+        // Arrange: Catch up first; without the mapping "changes" went to /{id} and came back as a 400
+        long version = webTestClient.get().uri("/tasks/changes?limit=1000")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TaskChanges.class)
+                .returnResult().getResponseBody().version();
+        Task kept = webTestClient.post().uri("/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new Task(null, "Kept", "Description", LocalDate.now(), "Category"))
+                .exchange()
+                .expectBody(Task.class)
+                .returnResult().getResponseBody();
+        Task removed = taskRepository.save(new Task(null, "Removed", "Description", LocalDate.now(), "Category"));
+
+        // Act
+        webTestClient.delete().uri("/tasks/{id}", removed.getId()).exchange().expectStatus().isNoContent();
+
+        // Assert: The reactive insert and the tombstone both show up past the old version
+        webTestClient.get().uri("/tasks/changes?since={since}", version)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.tasks.length()").isEqualTo(1)
+                .jsonPath("$.tasks[0].id").isEqualTo(kept.getId().intValue())
+                .jsonPath("$.deleted.length()").isEqualTo(1)
+                .jsonPath("$.deleted[0]").isEqualTo(removed.getId().intValue())
+                .jsonPath("$.hasMore").isEqualTo(false);
+    }
+
+    @Test
+    public void testStreamSendsNamedEventsForReactiveWrites() throws Exception {
+        // Arrange: The dashboard's EventSource, connected before the write
+        WebClient client = WebClient.create("http://localhost:" + port);
+        CompletableFuture<ServerSentEvent<String>> first = client.get().uri("/tasks/stream")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .retrieve()
+                .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<String>>() {
+                })
+                .next()
+                .toFuture();
+        long connectedBy = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (taskEventBroadcaster.getSubscriberCount() == 0 && System.nanoTime() < connectedBy) {
+            Thread.sleep(10);
+        }
+
+        // Act
+        webTestClient.post().uri("/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new Task(null, "Streamed", "Description", LocalDate.now(), "Category"))
+                .exchange()
+                .expectStatus().isOk();
+
+        // Assert: The create arrives named CREATED with the stored task in its data
+        ServerSentEvent<String> event = first.get(10, TimeUnit.SECONDS);
+        assertEquals("CREATED", event.event());
+        assertTrue(event.data().contains("\"title\":\"Streamed\""));
+    }
+}
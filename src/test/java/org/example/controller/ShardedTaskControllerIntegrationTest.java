@@ -0,0 +1,79 @@
+package org.example.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.example.model.Task;
+import org.example.repository.TaskRepository;
+import org.example.repository.sharded.ShardedTaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "tasks.sharding.shards=2",
+        "tasks.sharding.url=jdbc:h2:mem:controller-shard-{shard};DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles("sharded")
+@AutoConfigureMockMvc
+public class ShardedTaskControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        taskRepository.deleteAll();
+    }
+
+    @Test
+    public void testTaskApiRunsOnTheShardedRepository() throws Exception {
+        // Arrange
+        Task task = new Task(null, "Title", "Description", LocalDate.now(), "Category");
+
+        // Act: Create two tasks, which land on different shards, and complete the first
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/tasks")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(task)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version", is(0)));
+        }
+        List<Long> ids = taskRepository.findAll().stream().map(Task::getId).toList();
+        mockMvc.perform(put("/tasks/{id}/complete", ids.get(0)))
+            .andExpect(status().is2xxSuccessful());
+
+        // Assert
+        assertInstanceOf(ShardedTaskRepository.class, taskRepository);
+        assertEquals(2, ids.size());
+        mockMvc.perform(get("/tasks"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$[0].status", is("COMPLETED")))
+            .andExpect(jsonPath("$[1].status", is("PENDING")));
+        mockMvc.perform(get("/tasks/{id}", ids.get(1)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id", is(ids.get(1).intValue())));
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.example.model.Task;
+import org.example.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Compression and protocol negotiation are done by Tomcat, so these go over real HTTP instead of MockMvc
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class TaskControllerCompressionTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void testLargeTaskListIsGzipped() throws Exception {
+        // Arrange: enough tasks to pass the 2KB threshold and spill out of the converter's 16KB buffer
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            tasks.add(new Task(null, "Task " + i, "Compressed on the wire", LocalDate.now(), "Work"));
+        }
+        taskService.addTasks(tasks);
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+
+        // Act
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/tasks"))
+                .header("Accept-Encoding", "gzip")
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+
+        // Assert: No h2c upgrade without TLS, the client falls back to HTTP/1.1
+        assertEquals(200, response.statusCode());
+        assertEquals(HttpClient.Version.HTTP_1_1, response.version());
+        assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(null));
+        try (GZIPInputStream body = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            Task[] listed = objectMapper.readValue(body, Task[].class);
+            assertTrue(listed.length >= 150);
+        }
+    }
+
+    @Test
+    public void testSmallResponseIsNotCompressed() throws Exception {
+        // Arrange
+        Task task = taskService.addTask(new Task(null, "Small", "Below the threshold", LocalDate.now(), "Work"));
+        HttpClient client = HttpClient.newHttpClient();
+
+        // Act
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/tasks/" + task.getId()))
+                .header("Accept-Encoding", "gzip")
+                .build(), HttpResponse.BodyHandlers.ofString());
+
+        // Assert
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Encoding").isEmpty());
+        assertTrue(response.body().contains("\"title\":\"Small\""));
+    }
+
+    @Test
+    public void testObjectMapperUsesBlackbird() {
+        // Assert
+        assertTrue(objectMapper.getRegisteredModuleIds().contains(new BlackbirdModule().getTypeId()));
+    }
+}
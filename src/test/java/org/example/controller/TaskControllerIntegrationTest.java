@@ -2,25 +2,50 @@ package org.example.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.example.model.Task;
+import org.example.repository.ArchivedTaskRepository;
 import org.example.repository.TaskRepository;
+import org.example.service.TaskArchiveService;
+import org.example.service.TaskReminderService;
+import org.example.service.TaskService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
 @AutoConfigureMockMvc
+@AutoConfigureObservability // keeps the Prometheus registry, which tests leave out by default
 public class TaskControllerIntegrationTest {
 
     @Autowired
@@ -29,6 +54,24 @@ public class TaskControllerIntegrationTest {
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private ArchivedTaskRepository archivedTaskRepository;
+
+    @Autowired
+    private TaskArchiveService taskArchiveService;
+
+    @Autowired
+    private TaskReminderService taskReminderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     private ObjectMapper objectMapper;
 
     @BeforeEach
@@ -118,4 +161,436 @@ public class TaskControllerIntegrationTest {
             .andExpect(status().isOk())  // Expect HTTP 200 status
             .andExpect(jsonPath("$.status", is("COMPLETED")));  // Check the task's status
     }
+
+    @Test
+    public void testGetTasksWithLimitPagesByCursor() throws Exception {
+        taskRepository.deleteAll();
+        Task task1 = new Task(null, "Title 1", "Description 1", LocalDate.now(), "Work");
+        Task task2 = new Task(null, "Title 2", "Description 2", LocalDate.now(), "Home");
+        Task task3 = new Task(null, "Title 3", "Description 3", LocalDate.now(), "Work");
+        taskRepository.saveAll(List.of(task1, task2, task3));
+
+        // First page is full, so it carries a cursor to the next one
+        mockMvc.perform(get("/tasks").param("limit", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$[0].title", is("Title 1")))
+            .andExpect(header().string("X-Next-Cursor", String.valueOf(task2.getId())));
+
+        // Following the cursor returns the rest and no further cursor
+        mockMvc.perform(get("/tasks").param("limit", "2").param("after", String.valueOf(task2.getId())))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].title", is("Title 3")))
+            .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    public void testGetTasksFiltersByCategoryAndDeadline() throws Exception {
+        taskRepository.deleteAll();
+        LocalDate today = LocalDate.now();
+        taskRepository.saveAll(List.of(
+                new Task(null, "Soon", "Description", today, "Work"),
+                new Task(null, "Later", "Description", today.plusDays(10), "Work"),
+                new Task(null, "Other", "Description", today, "Home")));
+
+        mockMvc.perform(get("/tasks")
+                .param("category", "Work")
+                .param("deadlineTo", today.plusDays(1).toString()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].title", is("Soon")))
+            .andExpect(header().string("X-Next-Cursor", nullValue()));
+    }
+
+    @Test
+    public void testExportTasksStreamsOneJsonObjectPerLine() throws Exception {
+        taskRepository.deleteAll();
+        taskRepository.saveAll(List.of(
+                new Task(null, "Title 1", "Description 1", LocalDate.of(2024, 1, 2), "Category 1"),
+                new Task(null, "Title 2", "Description 2", LocalDate.of(2024, 1, 3), "Category 2")));
+
+        // The body is written asynchronously, so wait for it before looking at the content
+        MvcResult result = mockMvc.perform(get("/tasks/export"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        result.getAsyncResult();
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Title 1", objectMapper.readValue(lines[0], Task.class).getTitle());
+        assertEquals(LocalDate.of(2024, 1, 3), objectMapper.readValue(lines[1], Task.class).getDeadline());
+    }
+
+    @Test
+    public void testAddTasksBatchReturnsCreatedTasks() throws Exception {
+        List<Task> tasks = List.of(
+                new Task(null, "Title 1", "Description 1", LocalDate.now(), "Category"),
+                new Task(null, "Title 2", "Description 2", LocalDate.now(), "Category"));
+
+        mockMvc.perform(post("/tasks/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(tasks)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$[0].id", notNullValue()))
+            .andExpect(jsonPath("$[1].title", is("Title 2")));
+    }
+
+    @Test
+    public void testMarkAsCompletedPreferMinimalReturnsNoContent() throws Exception {
+        Task task = new Task(null, "Title", "Description", LocalDate.now(), "Category");
+        taskRepository.save(task);
+
+        mockMvc.perform(put("/tasks/{id}/complete", task.getId()).header("Prefer", "return=minimal"))
+            .andExpect(status().isNoContent());
+
+        assertEquals(Task.TaskStatus.COMPLETED, taskRepository.findById(task.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    public void testDeleteCompletedTasksRemovesOnlyOldCompletedTasks() throws Exception {
+        taskRepository.deleteAll();
+        LocalDate today = LocalDate.now();
+        Task oldCompleted = new Task(null, "Old", "Description", today.minusDays(30), "Category");
+        oldCompleted.setStatus(Task.TaskStatus.COMPLETED);
+        Task oldPending = new Task(null, "Pending", "Description", today.minusDays(30), "Category");
+        Task recentCompleted = new Task(null, "Recent", "Description", today, "Category");
+        recentCompleted.setStatus(Task.TaskStatus.COMPLETED);
+        taskRepository.saveAll(List.of(oldCompleted, oldPending, recentCompleted));
+
+        mockMvc.perform(delete("/tasks/completed").param("before", today.minusDays(1).toString()))
+            .andExpect(status().isOk())
+            .andExpect(content().string("1"));
+
+        assertEquals(2, taskRepository.count());
+    }
+
+    @Test
+    public void testGetTaskReflectsUpdatesAndDeletes() throws Exception {
+        Task task = new Task(null, "Title", "Description", LocalDate.now(), "Category");
+        taskRepository.save(task);
+
+        // First read fills the cache
+        mockMvc.perform(get("/tasks/{id}", task.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.title", is("Title")));
+
+        // Writes through the service must not leave a stale entry behind
+        task.setTitle("Updated Title");
+        mockMvc.perform(put("/tasks/{id}", task.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(task)))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/tasks/{id}", task.getId()))
+            .andExpect(jsonPath("$.title", is("Updated Title")));
+
+        mockMvc.perform(delete("/tasks/{id}", task.getId()))
+            .andExpect(status().isNoContent());
+        mockMvc.perform(get("/tasks/{id}", task.getId()))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testGetChangesReturnsOnlyWhatChangedSinceVersion() throws Exception {
+        Task kept = new Task(null, "Kept", "Description", LocalDate.now(), "Category");
+        Task removed = new Task(null, "Removed", "Description", LocalDate.now(), "Category");
+        mockMvc.perform(post("/tasks/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(kept, removed))))
+            .andExpect(status().isOk());
+
+        // Catch up with everything that happened so far
+        MvcResult caughtUp = mockMvc.perform(get("/tasks/changes").param("limit", "1000"))
+            .andExpect(status().isOk())
+            .andReturn();
+        long version = objectMapper.readTree(caughtUp.getResponse().getContentAsString()).get("version").asLong();
+        List<Task> all = taskRepository.findAll();
+        Long removedId = all.stream().filter(task -> task.getTitle().equals("Removed")).findFirst().orElseThrow().getId();
+        Long keptId = all.stream().filter(task -> task.getTitle().equals("Kept")).findFirst().orElseThrow().getId();
+
+        // One update and one delete later, only those two show up
+        mockMvc.perform(put("/tasks/{id}/complete", keptId)).andExpect(status().isOk());
+        mockMvc.perform(delete("/tasks/{id}", removedId)).andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/tasks/changes").param("since", String.valueOf(version)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.tasks", hasSize(1)))
+            .andExpect(jsonPath("$.tasks[0].status", is("COMPLETED")))
+            .andExpect(jsonPath("$.deleted", hasSize(1)))
+            .andExpect(jsonPath("$.deleted[0]", is(removedId.intValue())))
+            .andExpect(jsonPath("$.hasMore", is(false)));
+    }
+
+    @Test
+    public void testGetChangesHoldsBackWritesThatCommitOutOfOrder() throws Exception {
+        // Arrange: Catch up, then start a write that takes its change sequence value and stays open
+        MvcResult caughtUp = mockMvc.perform(get("/tasks/changes").param("limit", "1000")).andReturn();
+        long version = objectMapper.readTree(caughtUp.getResponse().getContentAsString()).get("version").asLong();
+        CountDownLatch taken = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CompletableFuture<Void> slowWrite = CompletableFuture.runAsync(() -> transaction.executeWithoutResult(status -> {
+            taskService.addTask(new Task(null, "Slow", "Description", LocalDate.now(), "Category"));
+            taken.countDown();
+            await(commit);
+        }));
+        await(taken);
+
+        // Act: A later write commits first
+        mockMvc.perform(post("/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new Task(null, "Fast", "Description", LocalDate.now(), "Category"))))
+            .andExpect(status().isOk());
+
+        // Assert: Nothing is handed out past the open write until it commits, then both arrive in sequence order
+        mockMvc.perform(get("/tasks/changes").param("since", String.valueOf(version)))
+            .andExpect(jsonPath("$.tasks", hasSize(0)))
+            .andExpect(jsonPath("$.version", is((int) version)));
+        commit.countDown();
+        slowWrite.get(10, TimeUnit.SECONDS);
+        mockMvc.perform(get("/tasks/changes").param("since", String.valueOf(version)))
+            .andExpect(jsonPath("$.tasks[*].title", contains("Slow", "Fast")));
+    }
+
+    @Test
+    public void testPrometheusEndpointExposesServiceAndDatabaseMetrics() throws Exception {
+        // Arrange: One successful and one rejected request
+        Task task = new Task(null, "Metrics", "Description", LocalDate.now(), "Category");
+        mockMvc.perform(post("/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(task)))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/tasks/{id}", Long.MAX_VALUE))
+            .andExpect(status().isNotFound());
+
+        // Act & Assert: Service timers, not-found counter, Hikari pool and Hibernate statistics are all scraped
+        mockMvc.perform(get("/actuator/prometheus"))
+            .andExpect(status().isOk())
+            .andExpect(content().string(containsString("tasks_service_seconds_bucket{class=\"org.example.service.TaskService\",exception=\"none\",method=\"addTask\"")))
+            .andExpect(content().string(containsString("tasks_not_found_total")))
+            .andExpect(content().string(containsString("hikaricp_connections_active")))
+            .andExpect(content().string(containsString("hibernate_statements_total")));
+    }
+
+    @Test
+    public void testGetStatsCountsByStatusCategoryAndOverdue() throws Exception {
+        // Clear the repository to ensure only our test data is present
+        taskRepository.deleteAll();
+
+        // Arrange: Two work tasks (one overdue, one completed) and one home task
+        Task overdue = new Task(null, "Overdue", "Description", LocalDate.now().minusDays(1), "Work");
+        Task completed = new Task(null, "Completed", "Description", LocalDate.now().minusDays(1), "Work");
+        completed.setStatus(Task.TaskStatus.COMPLETED);
+        Task home = new Task(null, "Home", "Description", LocalDate.now().plusDays(1), "Home");
+        taskRepository.saveAll(List.of(overdue, completed, home));
+
+        // Act & Assert
+        mockMvc.perform(get("/tasks/stats"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.total", is(3)))
+            .andExpect(jsonPath("$.byStatus.PENDING", is(2)))
+            .andExpect(jsonPath("$.byStatus.COMPLETED", is(1)))
+            .andExpect(jsonPath("$.byCategory.Work.PENDING", is(1)))
+            .andExpect(jsonPath("$.byCategory.Work.COMPLETED", is(1)))
+            .andExpect(jsonPath("$.byCategory.Home.PENDING", is(1)))
+            .andExpect(jsonPath("$.overdue", is(1)))
+            .andExpect(jsonPath("$.overdueByCategory.Work", is(1)));
+    }
+
+    @Test
+    public void testSearchTasksFindsCreatedTasksByPrefix() throws Exception {
+        // Arrange: Tasks created through the API reach the search index through their events
+        for (String title : List.of("Plan the offsite", "Book flights", "Pack bags")) {
+            Task task = new Task(null, title, "Trip preparation", LocalDate.now(), "Travel");
+            mockMvc.perform(post("/tasks")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(task)))
+                .andExpect(status().isOk());
+        }
+
+        // Act & Assert
+        mockMvc.perform(get("/tasks/search").param("q", "flig"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].title", is("Book flights")));
+        mockMvc.perform(get("/tasks/search").param("q", "trip prep"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(3)));
+    }
+
+    @Test
+    public void testAddTaskRespondAsyncReturnsTicketThatResolvesToStoredTask() throws Exception {
+        // Arrange
+        Task task = new Task(null, "Queued", "Written behind", LocalDate.now(), "Category");
+
+        // Act: Ask for write-behind ingestion
+        MvcResult result = mockMvc.perform(post("/tasks")
+                .header("Prefer", "respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(task)))
+            .andExpect(status().isAccepted())
+            .andExpect(header().string("Location", startsWith("/tasks/ingest/")))
+            .andExpect(jsonPath("$.status", is("QUEUED")))
+            .andReturn();
+        String location = result.getResponse().getHeader("Location");
+
+        // Assert: The ticket turns STORED once the flusher has run, and points at the new task
+        String status = "QUEUED";
+        for (int attempt = 0; attempt < 100 && status.equals("QUEUED"); attempt++) {
+            Thread.sleep(20);
+            String body = mockMvc.perform(get(location)).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+            status = objectMapper.readTree(body).get("status").asText();
+        }
+        assertEquals("STORED", status);
+        String body = mockMvc.perform(get(location)).andReturn().getResponse().getContentAsString();
+        mockMvc.perform(get("/tasks/{id}", objectMapper.readTree(body).get("taskId").asLong()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.title", is("Queued")));
+        mockMvc.perform(get("/tasks/ingest/{ticket}", "unknown"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testArchiverMovesOldCompletedTasksToTheArchive() throws Exception {
+        // Clear the repositories to ensure only our test data is present
+        taskRepository.deleteAll();
+        archivedTaskRepository.deleteAll();
+
+        // Arrange: One task completed 60 days ago, one completed just now (through the native update) and one pending
+        Task old = new Task(null, "Old", "Description", LocalDate.now(), "Category");
+        old.setStatus(Task.TaskStatus.COMPLETED);
+        old.setCompletedAt(Instant.now().minus(Duration.ofDays(60)));
+        Task recent = new Task(null, "Recent", "Description", LocalDate.now(), "Category");
+        Task pending = new Task(null, "Pending", "Description", LocalDate.now(), "Category");
+        taskRepository.saveAll(List.of(old, recent, pending));
+        mockMvc.perform(put("/tasks/{id}/complete", recent.getId()))
+            .andExpect(status().is2xxSuccessful());
+        mockMvc.perform(get("/tasks/{id}", recent.getId()))
+            .andExpect(jsonPath("$.completedAt", notNullValue()));
+        mockMvc.perform(get("/tasks/{id}", pending.getId()))
+            .andExpect(jsonPath("$.completedAt", nullValue()));
+
+        long since = taskRepository.nextChangeSequences(1).get(0);
+
+        // Act
+        int archived = taskArchiveService.archiveCompletedBefore(Instant.now().minus(Duration.ofDays(30)));
+
+        // Assert: Only the old task moved, and change feed clients learn that it left the live list
+        assertEquals(1, archived);
+        mockMvc.perform(get("/tasks"))
+            .andExpect(jsonPath("$", hasSize(2)));
+        mockMvc.perform(get("/tasks/{id}", old.getId()))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(get("/tasks/archive").param("limit", "10"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(TaskController.NEXT_CURSOR_HEADER))
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].title", is("Old")))
+            .andExpect(jsonPath("$[0].completedAt", notNullValue()))
+            .andExpect(jsonPath("$[0].archivedAt", notNullValue()));
+        mockMvc.perform(get("/tasks/changes").param("since", String.valueOf(since)))
+            .andExpect(jsonPath("$.deleted", contains(old.getId().intValue())));
+    }
+
+    @Test
+    public void testImportTasksFromCsvStoresValidRowsAndReportsRejectedOnes() throws Exception {
+        // Clear the repository to ensure only our test data is present
+        taskRepository.deleteAll();
+
+        // Arrange
+        String csv = "title,description,deadline,category\n"
+                + "Imported one,First imported task,2024-12-31,Import\n"
+                + "No,Title too short,,Import\n"
+                + "Imported two,Second imported task,,Import\n";
+
+        // Act & Assert
+        mockMvc.perform(post("/tasks/import")
+                .contentType("text/csv")
+                .content(csv))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.accepted", is(2)))
+            .andExpect(jsonPath("$.rejected", is(1)))
+            .andExpect(jsonPath("$.errors[0].line", is(3)))
+            .andExpect(jsonPath("$.errors[0].reason", containsString("at least 3 characters")));
+        mockMvc.perform(get("/tasks"))
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$[0].title", is("Imported one")));
+    }
+
+    @Test
+    public void testOverdueScannerWalksTheDeadlineIndexFromItsCursor() throws Exception {
+        // Clear the repository to ensure only our test data is present
+        taskRepository.deleteAll();
+
+        // Arrange: Two pending tasks due well in the future (so earlier runs of other tests never reached them)
+        LocalDate day = LocalDate.now().plusYears(50);
+        taskRepository.saveAll(List.of(
+                new Task(null, "Due first", "Description", day, "Category"),
+                new Task(null, "Due second", "Description", day.plusDays(1), "Category")));
+        taskReminderService.scan(day.minusDays(1));
+
+        // Act & Assert: Each day only the newly due task is sent, then escalated three days later
+        assertEquals(1, taskReminderService.scan(day));
+        assertEquals(1, taskReminderService.scan(day.plusDays(1)));
+        assertEquals(0, taskReminderService.scan(day.plusDays(1)));
+        assertEquals(1, taskReminderService.scan(day.plusDays(3)));
+
+        // Assert: H2 serves the keyset range from the (status, deadline, id) index
+        String plan = jdbcTemplate.queryForObject("EXPLAIN SELECT id FROM task WHERE status = 'PENDING'"
+                + " AND deadline <= DATE '2024-06-10' AND deadline >= DATE '2024-06-01'"
+                + " AND (deadline > DATE '2024-06-01' OR id > 5) ORDER BY deadline, id FETCH FIRST 500 ROWS ONLY", String.class);
+        assertThat(plan, containsString("IDX_TASK_STATUS_DEADLINE_ID"));
+    }
+
+    @Test
+    public void testPatchTaskWithIfMatchAppliesOnceAndRejectsTheStaleSecondEdit() throws Exception {
+        // Arrange: A stored task and its ETag
+        Task task = taskRepository.save(new Task(null, "Title", "A long description nobody resends", LocalDate.now(), "Category"));
+        String etag = mockMvc.perform(get("/tasks/{id}", task.getId()))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act & Assert: The first editor changes only the title and gets the new ETag
+        mockMvc.perform(patch("/tasks/{id}", task.getId())
+                .contentType("application/merge-patch+json")
+                .header(HttpHeaders.IF_MATCH, etag)
+                .content("{\"title\":\"Edited title\"}"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+            .andExpect(jsonPath("$.title", is("Edited title")))
+            .andExpect(jsonPath("$.description", is("A long description nobody resends")));
+
+        // Act & Assert: A second editor still holding the old ETag gets a 412 instead of overwriting it
+        mockMvc.perform(patch("/tasks/{id}", task.getId())
+                .contentType("application/merge-patch+json")
+                .header(HttpHeaders.IF_MATCH, etag)
+                .content("{\"title\":\"Lost update\"}"))
+            .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(get("/tasks/{id}", task.getId()))
+            .andExpect(jsonPath("$.title", is("Edited title")));
+    }
+
+    @Test
+    public void testPatchOrUpdateOfMissingTaskReturnsNotFound() throws Exception {
+        // Act & Assert: Both edits of a task that does not exist are a 404, not a 500
+        mockMvc.perform(patch("/tasks/{id}", Long.MAX_VALUE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Nobody\"}"))
+            .andExpect(status().isNotFound());
+
+        mockMvc.perform(put("/tasks/{id}", Long.MAX_VALUE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new Task(null, "Nobody", "Description", LocalDate.now(), "Category"))))
+            .andExpect(status().isNotFound());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
 }
@@ -0,0 +1,212 @@
+package org.example.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.example.model.Task;
+import org.example.service.TaskService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Opt-in load test (mvn -Pload-test test). Seeds the embedded H2 and drives a weighted mix of requests
+// against /tasks from many concurrent clients over real HTTP, then reports throughput and latency percentiles.
+// The default client count is above Tomcat's 200 worker threads, so this run, VirtualThreadLoadTest and ReactiveLoadTest
+// can be compared. Clients are virtual threads, so -Dload.clients can go to tens of thousands of open connections.
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class TaskControllerLoadTest {
+
+    private static final int SEED_TASKS = Integer.getInteger("load.tasks", 10_000);
+    private static final int CLIENTS = Integer.getInteger("load.clients", 256);
+    private static final int DURATION_SECONDS = Integer.getInteger("load.durationSeconds", 30);
+    private static final String MIX = System.getProperty("load.mix", "GET=40,LIST=20,POST=15,PUT=10,COMPLETE=10,DELETE=5");
+    private static final long MAX_P99_MILLIS = Long.getLong("load.maxP99Millis", 0);
+
+    enum Operation { GET, LIST, POST, PUT, COMPLETE, DELETE }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${tasks.threads.virtual.enabled}")
+    private boolean virtualThreads;
+
+    @Value("${spring.main.web-application-type:servlet}")
+    private String webApplicationType;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final List<Long> liveIds = Collections.synchronizedList(new ArrayList<>());
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+    @Test
+    public void runMixedLoad() throws Exception {
+        seed();
+        List<Operation> weighted = parseMix();
+        for (Operation operation : Operation.values()) {
+            // Microseconds, up to one minute, three significant digits
+            latencies.put(operation, new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3));
+            errors.put(operation, new LongAdder());
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DURATION_SECONDS);
+        ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+        long started = System.nanoTime();
+        for (int i = 0; i < CLIENTS; i++) {
+            clients.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    Operation operation = weighted.get(ThreadLocalRandom.current().nextInt(weighted.size()));
+                    execute(operation);
+                }
+            });
+        }
+        clients.shutdown();
+        assertTrue(clients.awaitTermination(DURATION_SECONDS + 60, TimeUnit.SECONDS));
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+        report(elapsedSeconds);
+        if (MAX_P99_MILLIS > 0) {
+            for (Operation operation : Operation.values()) {
+                long p99Millis = latencies.get(operation).getValueAtPercentile(99) / 1000;
+                assertTrue(p99Millis <= MAX_P99_MILLIS, operation + " p99 " + p99Millis + " ms exceeds " + MAX_P99_MILLIS + " ms");
+            }
+        }
+    }
+
+    private void seed() {
+        List<Task> batch = new ArrayList<>();
+        for (int i = 0; i < SEED_TASKS; i++) {
+            batch.add(newTask("Seeded " + i));
+            if (batch.size() == 1000 || i == SEED_TASKS - 1) {
+                taskService.addTasks(batch).forEach(task -> liveIds.add(task.getId()));
+                batch = new ArrayList<>();
+            }
+        }
+    }
+
+    private List<Operation> parseMix() {
+        List<Operation> weighted = new ArrayList<>();
+        for (String entry : MIX.split(",")) {
+            String[] parts = entry.trim().split("=");
+            Operation operation = Operation.valueOf(parts[0].trim().toUpperCase());
+            for (int i = 0; i < Integer.parseInt(parts[1].trim()); i++) {
+                weighted.add(operation);
+            }
+        }
+        return weighted;
+    }
+
+    private void execute(Operation operation) {
+        try {
+            HttpRequest request = buildRequest(operation);
+            if (request == null) {
+                return; // nothing left to update or delete
+            }
+            long start = System.nanoTime();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            latencies.get(operation).recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start),
+                    TimeUnit.MINUTES.toMicros(1)));
+            if (response.statusCode() >= 400) {
+                errors.get(operation).increment();
+            } else if (operation == Operation.POST) {
+                liveIds.add(objectMapper.readValue(response.body(), Task.class).getId());
+            }
+        } catch (Exception ex) {
+            errors.get(operation).increment();
+        }
+    }
+
+    private HttpRequest buildRequest(Operation operation) throws Exception {
+        String base = "http://localhost:" + port + "/tasks";
+        HttpRequest.Builder builder = HttpRequest.newBuilder().timeout(Duration.ofSeconds(30));
+        switch (operation) {
+            case LIST -> builder.uri(URI.create(base + "?limit=100&after=" + ThreadLocalRandom.current().nextLong(SEED_TASKS))).GET();
+            case POST -> builder.uri(URI.create(base))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(newTask("Load test"))));
+            default -> {
+                Long id = operation == Operation.DELETE ? takeId() : pickId();
+                if (id == null) {
+                    return null;
+                }
+                switch (operation) {
+                    case GET -> builder.uri(URI.create(base + "/" + id)).GET();
+                    case PUT -> builder.uri(URI.create(base + "/" + id))
+                            .header("Content-Type", "application/json")
+                            .PUT(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(newTask("Updated by load test"))));
+                    case COMPLETE -> builder.uri(URI.create(base + "/" + id + "/complete")).PUT(HttpRequest.BodyPublishers.noBody());
+                    default -> builder.uri(URI.create(base + "/" + id)).DELETE();
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private Long pickId() {
+        synchronized (liveIds) {
+            return liveIds.isEmpty() ? null : liveIds.get(ThreadLocalRandom.current().nextInt(liveIds.size()));
+        }
+    }
+
+    // Removed from the pool before the DELETE is sent, so other clients stop picking it
+    private Long takeId() {
+        synchronized (liveIds) {
+            if (liveIds.isEmpty()) {
+                return null;
+            }
+            int index = ThreadLocalRandom.current().nextInt(liveIds.size());
+            Long last = liveIds.remove(liveIds.size() - 1);
+            return index == liveIds.size() ? last : liveIds.set(index, last);
+        }
+    }
+
+    private Task newTask(String title) {
+        return new Task(null, title, "Generated by the load test", LocalDate.now().plusDays(7), "Load");
+    }
+
+    private void report(double elapsedSeconds) {
+        long total = 0;
+        StringBuilder report = new StringBuilder(String.format("%nLoad test (%s): %d clients, %d seeded tasks, %.1f s%n",
+                "reactive".equals(webApplicationType) ? "WebFlux event loop" : virtualThreads ? "virtual threads" : "platform threads",
+                CLIENTS, SEED_TASKS, elapsedSeconds));
+        report.append(String.format("%-9s %9s %8s %9s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = latencies.get(operation);
+            total += histogram.getTotalCount();
+            report.append(String.format("%-9s %9d %8d %9.1f %9.2f %9.2f %9.2f %9.2f%n", operation,
+                    histogram.getTotalCount(), errors.get(operation).sum(), histogram.getTotalCount() / elapsedSeconds,
+                    histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getValueAtPercentile(99.9) / 1000.0, histogram.getMaxValue() / 1000.0));
+        }
+        report.append(String.format("total     %9d %8s %9.1f%n", total, "", total / elapsedSeconds));
+        System.out.println(report);
+    }
+}
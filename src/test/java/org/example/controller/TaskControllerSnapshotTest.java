@@ -0,0 +1,68 @@
+package org.example.controller;
+
+import org.example.model.Task;
+import org.example.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// GET /tasks served from the ready-made snapshot bytes
+@SpringBootTest(properties = "tasks.snapshot.enabled=true")
+@AutoConfigureMockMvc
+public class TaskControllerSnapshotTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Test
+    public void testGzipRefusedWithZeroQualityGetsThePlainJson() throws Exception {
+        // Arrange
+        taskService.addTask(new Task(null, "Snapshot", "Served as JSON", LocalDate.now(), "Work"));
+
+        // Act & Assert
+        MvcResult result = mockMvc.perform(get("/tasks").header("Accept-Encoding", "gzip;q=0, identity"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andReturn();
+        assertTrue(result.getResponse().getContentAsString().contains("\"title\":\"Snapshot\""));
+        assertFalse(result.getResponse().getHeader("ETag").endsWith("-gz\""));
+    }
+
+    @Test
+    public void testGzipAndJsonRepresentationsHaveTheirOwnETags() throws Exception {
+        // Arrange
+        taskService.addTask(new Task(null, "Snapshot", "Served twice", LocalDate.now(), "Work"));
+        String jsonTag = mockMvc.perform(get("/tasks"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Act: "*" accepts gzip, an explicit entry for it would take precedence
+        String gzipTag = mockMvc.perform(get("/tasks").header("Accept-Encoding", "br;q=1.0, *;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Assert: Each tag only revalidates its own representation
+        assertEquals(jsonTag.substring(0, jsonTag.length() - 1) + "-gz\"", gzipTag);
+        mockMvc.perform(get("/tasks").header("Accept-Encoding", "gzip").header("If-None-Match", gzipTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", gzipTag));
+        mockMvc.perform(get("/tasks").header("If-None-Match", gzipTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", jsonTag));
+    }
+}
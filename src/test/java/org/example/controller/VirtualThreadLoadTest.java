@@ -0,0 +1,8 @@
+package org.example.controller;
+
+import org.springframework.test.context.TestPropertySource;
+
+// Same load as TaskControllerLoadTest, with Tomcat serving requests on virtual threads
+@TestPropertySource(properties = "tasks.threads.virtual.enabled=true")
+public class VirtualThreadLoadTest extends TaskControllerLoadTest {
+}
@@ -0,0 +1,127 @@
+package org.example.event;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskEventBroadcasterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TaskEventBroadcaster broadcaster;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        broadcaster = new TaskEventBroadcaster(meterRegistry, 2, 60_000, 4);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    public void testEventsReachEverySubscriber() throws Exception {
+        // Arrange: Two connected clients
+        RecordingEmitter first = new RecordingEmitter(null);
+        RecordingEmitter second = new RecordingEmitter(null);
+        broadcaster.register(first);
+        broadcaster.register(second);
+
+        // Act: One write happens
+        broadcaster.onTaskChanged(TaskEvent.deleted(1L));
+
+        // Assert: Both receive it and the gauge counts them
+        assertNotNull(first.sent.poll(5, TimeUnit.SECONDS));
+        assertNotNull(second.sent.poll(5, TimeUnit.SECONDS));
+        assertEquals(2.0, meterRegistry.get("tasks.stream.subscribers").gauge().value());
+    }
+
+    @Test
+    public void testSlowSubscriberIsDroppedWithoutBlockingOthers() throws Exception {
+        // Arrange: One client that never finishes a send, and one healthy client
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter stuck = new RecordingEmitter(release);
+        RecordingEmitter healthy = new RecordingEmitter(null);
+        broadcaster.register(stuck);
+        broadcaster.register(healthy);
+
+        // Act: More events than the stuck client's buffer can hold; the healthy one keeps up with each
+        broadcaster.onTaskChanged(TaskEvent.deleted(1L));
+        assertNotNull(stuck.sent.poll(5, TimeUnit.SECONDS)); // it is now blocked inside send
+        assertNotNull(healthy.sent.poll(5, TimeUnit.SECONDS));
+        for (long id = 2; id <= 5; id++) {
+            broadcaster.onTaskChanged(TaskEvent.deleted(id));
+            assertNotNull(healthy.sent.poll(5, TimeUnit.SECONDS));
+        }
+
+        // Assert: Only the stuck client was dropped
+        assertEquals(1, broadcaster.getSubscriberCount());
+        assertEquals(1.0, meterRegistry.get("tasks.stream.dropped").counter().count());
+        release.countDown();
+    }
+
+    @Test
+    public void testSenderThreadsAreBounded() throws Exception {
+        // Arrange: More stuck clients than sender threads
+        broadcaster.shutdown();
+        broadcaster = new TaskEventBroadcaster(meterRegistry, 2, 60_000, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        List<RecordingEmitter> clients = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            RecordingEmitter client = new RecordingEmitter(release);
+            clients.add(client);
+            broadcaster.register(client);
+        }
+
+        // Act
+        broadcaster.onTaskChanged(TaskEvent.deleted(1L));
+
+        // Assert: Only two sends run at once, the rest wait their turn and get the event once those finish
+        Thread.sleep(200);
+        assertEquals(2, clients.stream().mapToInt(client -> client.sent.size()).sum());
+        release.countDown();
+        for (RecordingEmitter client : clients) {
+            assertNotNull(client.sent.poll(5, TimeUnit.SECONDS));
+        }
+    }
+
+    // Records what would have been written to the client; optionally blocks inside send like a full socket
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<SseEventBuilder> sent = new LinkedBlockingQueue<>();
+        private final CountDownLatch release;
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sent.add(builder);
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public synchronized void complete() {
+            // Not attached to a real response in this test
+        }
+    }
+}
@@ -2,6 +2,7 @@ package org.example.exception;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.context.request.WebRequest;
@@ -27,4 +28,16 @@ public class GlobalExceptionHandlerTest {
         assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
         assertEquals("Task not found", responseEntity.getBody());
     }
+
+    @Test
+    void handleAdmissionRejectedException() {
+        AdmissionRejectedException exception = new AdmissionRejectedException("Too many concurrent read requests, try again later", 2);
+        WebRequest webRequest = mock(WebRequest.class);
+
+        ResponseEntity<?> responseEntity = globalExceptionHandler.handleAdmissionRejectedException(exception, webRequest);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, responseEntity.getStatusCode());
+        assertEquals("2", responseEntity.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals("Too many concurrent read requests, try again later", responseEntity.getBody());
+    }
 }
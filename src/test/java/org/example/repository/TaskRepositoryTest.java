@@ -0,0 +1,107 @@
+package org.example.repository;
+
+import org.example.model.Task;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:taskrepository",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=org.example.repository.TaskRepositoryTest$LastSelect"
+})
+public class TaskRepositoryTest {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        taskRepository.deleteAllInBatch();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Task task = new Task(null, "Task " + i, "Description", LocalDate.of(2024, 1, 1).plusDays(i), "cat-" + i % 4);
+            task.setStatus(i % 2 == 0 ? Task.TaskStatus.PENDING : Task.TaskStatus.COMPLETED);
+            tasks.add(task);
+        }
+        taskRepository.saveAll(tasks);
+    }
+
+    @Test
+    public void testFilteredPagesReturnMatchingTasksInIdOrder() {
+        // Act
+        List<Task> page = taskRepository.findPage(0L, Task.TaskStatus.PENDING, "cat-0",
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 15), PageRequest.of(0, 10));
+
+        // Assert: Tasks 0, 4, 8 and 12 are pending in cat-0 with a deadline in range
+        assertEquals(List.of("Task 0", "Task 4", "Task 8", "Task 12"), page.stream().map(Task::getTitle).toList());
+    }
+
+    @Test
+    public void testEqualityFiltersUseTheirIndex() {
+        // Assert: Only the filters that are set reach the WHERE clause, so H2 picks the matching (filter, id) index
+        assertTrue(explainPage(Task.TaskStatus.PENDING, null, null, null).contains("IDX_TASK_STATUS_ID"));
+        assertTrue(explainPage(null, "cat-1", null, null).contains("IDX_TASK_CATEGORY_ID"));
+    }
+
+    @Test
+    public void testDeadlineRangesWalkThePrimaryKeyFromTheCursor() {
+        // Assert: H2 won't use (deadline, id) for a range in id order, but the page still starts at the cursor
+        String plan = explainPage(null, null, LocalDate.of(2024, 1, 5), LocalDate.of(2024, 1, 6));
+        assertTrue(plan.contains("PRIMARY_KEY"));
+        assertTrue(plan.contains("ID > ?1 */"));
+        assertTrue(plan.contains("INDEX SORTED"));
+    }
+
+    // Runs findPage and then EXPLAIN on the SQL Hibernate sent, with the parameters bound in the same order
+    private String explainPage(Task.TaskStatus status, String category, LocalDate deadlineFrom, LocalDate deadlineTo) {
+        LastSelect.sql = null;
+        taskRepository.findPage(3L, status, category, deadlineFrom, deadlineTo, PageRequest.of(0, 5));
+        String sql = LastSelect.sql;
+
+        List<Object> parameters = new ArrayList<>(List.of(3L));
+        if (status != null) {
+            parameters.add(status.name());
+        }
+        if (category != null) {
+            parameters.add(category);
+        }
+        if (deadlineFrom != null) {
+            parameters.add(deadlineFrom);
+        }
+        if (deadlineTo != null) {
+            parameters.add(deadlineTo);
+        }
+        while (parameters.size() < sql.chars().filter(c -> c == '?').count()) {
+            parameters.add(5); // offset and limit
+        }
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, parameters.toArray());
+        return plan.toUpperCase();
+    }
+
+    // Remembers the last task SELECT Hibernate prepares
+    public static class LastSelect implements StatementInspector {
+
+        static volatile String sql;
+
+        @Override
+        public String inspect(String statement) {
+            if (statement.startsWith("select") && statement.contains(" from task ")) {
+                sql = statement;
+            }
+            return statement;
+        }
+    }
+}
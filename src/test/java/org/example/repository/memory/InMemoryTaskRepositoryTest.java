@@ -0,0 +1,222 @@
+package org.example.repository.memory;
+
+import org.example.model.CategoryStatusCount;
+import org.example.model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryTaskRepositoryTest {
+
+    @TempDir
+    Path dir;
+
+    private Path logPath;
+    private InMemoryTaskRepository repository;
+
+    @BeforeEach
+    public void setUp() {
+        logPath = dir.resolve("tasks.log");
+        repository = open();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        repository.close();
+    }
+
+    @Test
+    public void testSaveFindAndDelete() {
+        // Act
+        Task first = repository.save(task("Task 1", Task.TaskStatus.PENDING, "work", LocalDate.of(2024, 1, 1)));
+        Task second = repository.save(task("Task 2", Task.TaskStatus.COMPLETED, "home", null));
+        repository.deleteById(first.getId());
+
+        // Assert
+        assertEquals(1L, first.getId());
+        assertEquals(0L, first.getVersion());
+        assertTrue(repository.findById(first.getId()).isEmpty());
+        Task found = repository.findById(second.getId()).orElseThrow();
+        assertEquals("Task 2", found.getTitle());
+        assertEquals(Task.TaskStatus.COMPLETED, found.getStatus());
+        assertEquals("home", found.getCategory());
+        assertNull(found.getDeadline());
+        assertEquals(1, repository.count());
+    }
+
+    @Test
+    public void testUpdatesBumpTheVersionAndRejectStaleCopies() {
+        // Arrange
+        Task saved = repository.save(task("Task 1", Task.TaskStatus.PENDING, "work", null));
+        Task stale = repository.findById(saved.getId()).orElseThrow();
+
+        // Act
+        Task current = repository.findById(saved.getId()).orElseThrow();
+        current.setTitle("Renamed");
+        repository.save(current);
+
+        // Assert
+        assertEquals(1L, repository.findById(saved.getId()).orElseThrow().getVersion());
+        stale.setTitle("Lost update");
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> repository.save(stale));
+    }
+
+    @Test
+    public void testPagesAndCountsFilterLikeTheJpaQueries() {
+        // Arrange
+        repository.save(task("Task 1", Task.TaskStatus.PENDING, "work", LocalDate.of(2024, 1, 1)));
+        repository.save(task("Task 2", Task.TaskStatus.COMPLETED, "work", LocalDate.of(2024, 2, 1)));
+        repository.save(task("Task 3", Task.TaskStatus.PENDING, "home", LocalDate.of(2024, 3, 1)));
+        repository.save(task("Task 4", Task.TaskStatus.PENDING, "work", null));
+
+        // Act
+        List<Task> page = repository.findPage(1L, Task.TaskStatus.PENDING, null,
+                LocalDate.of(2024, 1, 1), null, PageRequest.ofSize(10));
+        List<CategoryStatusCount> overdue = repository.countByStatusAndDeadlineBefore(
+                Task.TaskStatus.PENDING, LocalDate.of(2024, 6, 1));
+
+        // Assert
+        assertEquals(List.of(3L), page.stream().map(Task::getId).toList());
+        assertEquals(4, repository.streamAll().count());
+        assertEquals(2, overdue.stream().mapToLong(CategoryStatusCount::count).sum());
+        assertEquals(4, repository.countByCategoryAndStatus().stream().mapToLong(CategoryStatusCount::count).sum());
+    }
+
+    @Test
+    public void testStateIsReplayedFromTheLogAfterRestart() throws IOException {
+        // Arrange
+        Task kept = repository.save(task("Task 1", Task.TaskStatus.PENDING, "work", LocalDate.of(2024, 1, 1)));
+        Task deleted = repository.save(task("Task 2", Task.TaskStatus.PENDING, "work", null));
+        repository.nextChangeSequences(1);
+        repository.updateStatus(kept.getId(), Task.TaskStatus.COMPLETED.name());
+        kept = repository.findById(kept.getId()).orElseThrow();
+        repository.insertTombstone(deleted.getId());
+        repository.deleteTaskById(deleted.getId());
+
+        // Act
+        repository.close();
+        repository = open();
+
+        // Assert: The task, its version, the tombstone and both counters survive; the deleted id is not reused
+        Task replayed = repository.findById(kept.getId()).orElseThrow();
+        assertEquals(Task.TaskStatus.COMPLETED, replayed.getStatus());
+        assertEquals(LocalDate.of(2024, 1, 1), replayed.getDeadline());
+        assertEquals(1L, replayed.getVersion());
+        assertEquals(kept.getCompletedAt(), replayed.getCompletedAt());
+        assertEquals(List.of(deleted.getId()), repository.findTombstonesSince(0, PageRequest.ofSize(10))
+                .stream().map(tombstone -> tombstone.getTaskId()).toList());
+        assertEquals(4L, repository.nextChangeSequences(1).get(0));
+        assertEquals(3L, repository.save(task("Task 3", null, null, null)).getId());
+    }
+
+    @Test
+    public void testPrunedTombstonesStayGoneAndTheirSequenceIsNotReused() throws IOException {
+        // Arrange: The newest change is a delete whose tombstone gets pruned
+        Task kept = repository.save(task("Task 1", Task.TaskStatus.PENDING, "work", null));
+        Task deleted = repository.save(task("Task 2", Task.TaskStatus.PENDING, "work", null));
+        repository.insertTombstone(deleted.getId());
+        repository.deleteTaskById(deleted.getId());
+        long lastChange = repository.currentChangeSequence();
+
+        // Act
+        int pruned = repository.deleteTombstonesUpTo(lastChange);
+        repository.close();
+        repository = open();
+
+        // Assert
+        assertEquals(1, pruned);
+        assertTrue(repository.findTombstonesSince(0, PageRequest.ofSize(10)).isEmpty());
+        assertEquals(lastChange, repository.currentChangeSequence());
+        assertTrue(repository.findById(kept.getId()).isPresent());
+    }
+
+    @Test
+    public void testStartupCompactsTheLog() throws IOException {
+        // Arrange: Many updates of one task
+        Task task = repository.save(task("Task", Task.TaskStatus.PENDING, "work", null));
+        for (int i = 0; i < 100; i++) {
+            task.setDescription("Revision " + i);
+            repository.save(task);
+        }
+        repository.close();
+        long before = Files.size(logPath);
+
+        // Act
+        repository = open();
+        repository.close();
+
+        // Assert
+        assertTrue(Files.size(logPath) < before / 50, "log should shrink to a single record");
+        repository = open();
+        assertEquals("Revision 99", repository.findById(task.getId()).orElseThrow().getDescription());
+    }
+
+    @Test
+    public void testLogIsCompactedWhileRunning() throws IOException {
+        // Arrange: A 1 MB threshold
+        repository.close();
+        repository = open(1);
+        Task task = repository.save(task("Task", Task.TaskStatus.PENDING, "work", null));
+
+        // Act: Enough updates of one task to pass it a few times
+        for (int i = 0; i < 30_000; i++) {
+            task.setDescription("Revision " + i);
+            repository.save(task);
+        }
+        repository.close();
+
+        // Assert: The log never grew much past the threshold, and nothing was lost
+        assertTrue(Files.size(logPath) < 2L << 20, "log should have been compacted while running");
+        repository = open();
+        assertEquals("Revision 29999", repository.findById(task.getId()).orElseThrow().getDescription());
+        assertEquals(1, repository.count());
+    }
+
+    @Test
+    public void testTornTailIsIgnored() throws IOException {
+        // Arrange: Cut the last record in half, as a crash during the write would
+        repository.save(task("Task 1", Task.TaskStatus.PENDING, "work", null));
+        repository.save(task("Task 2", Task.TaskStatus.PENDING, "work", null));
+        repository.close();
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 5);
+        }
+
+        // Act
+        repository = open();
+
+        // Assert
+        assertEquals(List.of(1L), repository.findAll().stream().map(Task::getId).toList());
+    }
+
+    private InMemoryTaskRepository open() {
+        return open(256);
+    }
+
+    private InMemoryTaskRepository open(int compactAfterMb) {
+        return new InMemoryTaskRepository(logPath.toString(), false, compactAfterMb);
+    }
+
+    private static Task task(String title, Task.TaskStatus status, String category, LocalDate deadline) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setDescription("Description");
+        task.setStatus(status);
+        task.setCategory(category);
+        task.setDeadline(deadline);
+        return task;
+    }
+}
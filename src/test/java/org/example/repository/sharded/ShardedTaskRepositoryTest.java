@@ -0,0 +1,218 @@
+package org.example.repository.sharded;
+
+import org.example.model.CategoryStatusCount;
+import org.example.model.Task;
+import org.example.model.TaskTombstone;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardedTaskRepositoryTest {
+
+    private String name;
+    private JdbcTemplate coordinator;
+    private ShardedTaskRepository repository;
+
+    @BeforeEach
+    public void setUp() {
+        name = "shard-test-" + UUID.randomUUID();
+        coordinator = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        coordinator.execute("CREATE SEQUENCE task_change_seq");
+        repository = open(3, "id");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        repository.close();
+        coordinator.execute("SHUTDOWN");
+    }
+
+    @Test
+    public void testShardOfMapsIdBlocksRoundRobin() {
+        // Assert: Blocks of Task.ID_ALLOCATION_SIZE ids, dealt out to the shards in turn
+        assertEquals(0, ShardedTaskRepository.shardOf(1, 3));
+        assertEquals(0, ShardedTaskRepository.shardOf(50, 3));
+        assertEquals(1, ShardedTaskRepository.shardOf(51, 3));
+        assertEquals(2, ShardedTaskRepository.shardOf(101, 3));
+        assertEquals(0, ShardedTaskRepository.shardOf(151, 3));
+    }
+
+    @Test
+    public void testSaveAllSpreadsTasksAndKeepsTheInputOrder() {
+        // Arrange
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            tasks.add(task("Task " + i, Task.TaskStatus.PENDING, "work", null));
+        }
+
+        // Act
+        List<Task> saved = repository.saveAll(tasks);
+
+        // Assert: Every task sits on the shard its id names, and every shard got some
+        assertEquals(tasks.stream().map(Task::getTitle).toList(), saved.stream().map(Task::getTitle).toList());
+        assertEquals(120, saved.stream().map(Task::getId).distinct().count());
+        for (Task task : saved) {
+            assertTrue(repository.shardOf(task.getId()).<Boolean>read(shard -> shard.existsById(task.getId())));
+        }
+        Set<Integer> used = saved.stream().map(task -> repository.shardOf(task.getId()).index()).collect(Collectors.toSet());
+        assertEquals(Set.of(0, 1, 2), used);
+        assertEquals(120, repository.count());
+    }
+
+    @Test
+    public void testQueriesMergeAllShardsInOrder() {
+        // Arrange
+        for (int i = 0; i < 9; i++) {
+            repository.save(task("Task " + i, i % 3 == 0 ? Task.TaskStatus.COMPLETED : Task.TaskStatus.PENDING,
+                    i % 2 == 0 ? "work" : "home", LocalDate.of(2024, 1, 9 - i)));
+        }
+
+        // Act
+        List<Task> all = repository.findAll();
+        List<Task> page = repository.findPage(0L, Task.TaskStatus.PENDING, null, null, null, PageRequest.ofSize(4));
+        List<Task> due = repository.findDueAfter(Task.TaskStatus.PENDING, LocalDate.of(2000, 1, 1), 0L,
+                LocalDate.of(2024, 12, 31), PageRequest.ofSize(3));
+        List<CategoryStatusCount> counts = repository.countByCategoryAndStatus();
+
+        // Assert
+        List<Long> ids = all.stream().map(Task::getId).toList();
+        assertEquals(ids.stream().sorted().toList(), ids);
+        assertEquals(all.stream().filter(task -> task.getStatus() == Task.TaskStatus.PENDING).limit(4).toList()
+                .stream().map(Task::getId).toList(), page.stream().map(Task::getId).toList());
+        assertEquals(List.of(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 2), LocalDate.of(2024, 1, 4)),
+                due.stream().map(Task::getDeadline).toList());
+        assertEquals(9, counts.stream().mapToLong(CategoryStatusCount::count).sum());
+        assertEquals(4, counts.size());
+        assertEquals(9, repository.streamAll().count());
+    }
+
+    @Test
+    public void testChangeFeedIsOrderedAcrossShards() {
+        // Arrange: Stamp change sequence values like TaskService does
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            tasks.add(task("Task " + i, Task.TaskStatus.PENDING, "work", null));
+        }
+        Iterator<Long> sequences = repository.nextChangeSequences(tasks.size()).iterator();
+        tasks.forEach(task -> task.setModSeq(sequences.next()));
+        List<Task> saved = repository.saveAll(tasks);
+
+        // Act
+        int updated = repository.updateStatusByCategory("work", Task.TaskStatus.COMPLETED.name());
+        int tombstoned = repository.insertTombstone(saved.get(0).getId());
+        repository.deleteTaskById(saved.get(0).getId());
+
+        // Assert: Every write got a new value, in order, from the block reserved on the coordinator
+        assertEquals(6, updated);
+        assertEquals(1, tombstoned);
+        List<Task> changed = repository.findChangedSince(6, PageRequest.ofSize(10));
+        assertEquals(5, changed.size());
+        List<Long> modSeqs = changed.stream().map(Task::getModSeq).toList();
+        assertEquals(modSeqs.stream().sorted().toList(), modSeqs);
+        assertTrue(changed.stream().allMatch(task -> task.getStatus() == Task.TaskStatus.COMPLETED
+                && task.getCompletedAt() != null && task.getVersion() == 1L));
+        List<TaskTombstone> tombstones = repository.findTombstonesSince(0, PageRequest.ofSize(10));
+        assertEquals(List.of(saved.get(0).getId()), tombstones.stream().map(TaskTombstone::getTaskId).toList());
+        assertEquals(13L, tombstones.get(0).getModSeq());
+        assertEquals(13L, repository.currentChangeSequence());
+    }
+
+    @Test
+    public void testChangeSequenceValuesComeFromBlocks() {
+        // Arrange
+        repository.close();
+        repository = open(3, "id", 5);
+        long before = repository.currentChangeSequence();
+
+        // Act
+        List<Long> first = repository.nextChangeSequences(3);
+        List<Long> second = repository.nextChangeSequences(4);
+
+        // Assert: Two round trips of five values each, handed out in order without gaps
+        assertEquals(0L, before);
+        assertEquals(List.of(1L, 2L, 3L), first);
+        assertEquals(List.of(4L, 5L, 6L, 7L), second);
+        assertEquals(7L, repository.currentChangeSequence());
+        assertEquals(10L, coordinator.queryForObject("SELECT BASE_VALUE - 1 FROM information_schema.sequences"
+                + " WHERE sequence_name = 'TASK_CHANGE_SEQ'", Long.class));
+    }
+
+    @Test
+    public void testDeleteWithTombstoneWritesBothOnTheTasksShard() {
+        // Arrange
+        Task saved = repository.save(task("Task", Task.TaskStatus.COMPLETED, "work", LocalDate.of(2020, 1, 1)));
+        Task old = repository.save(task("Old", Task.TaskStatus.COMPLETED, "work", LocalDate.of(2020, 1, 1)));
+
+        // Act
+        int deleted = repository.deleteWithTombstone(saved.getId());
+        int missing = repository.deleteWithTombstone(saved.getId());
+        int deletedBefore = repository.deleteWithTombstonesByStatusAndDeadlineBefore(Task.TaskStatus.COMPLETED,
+                LocalDate.of(2021, 1, 1));
+
+        // Assert: Both tasks are gone and each left one tombstone
+        assertEquals(1, deleted);
+        assertEquals(0, missing);
+        assertEquals(1, deletedBefore);
+        assertEquals(0, repository.count());
+        assertEquals(Set.of(saved.getId(), old.getId()), repository.findTombstonesSince(0, PageRequest.ofSize(10)).stream()
+                .map(TaskTombstone::getTaskId).collect(Collectors.toSet()));
+        assertFalse(repository.joinsTransactions());
+    }
+
+    @Test
+    public void testCategoryKeyKeepsACategoryOnOneShard() {
+        // Arrange
+        repository.close();
+        repository = open(3, "category");
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            repository.save(task("Task " + i, Task.TaskStatus.PENDING, "work", null));
+        }
+
+        // Assert
+        assertEquals(1, repository.findAll().stream()
+                .map(task -> repository.shardOf(task.getId()).index()).distinct().count());
+    }
+
+    @Test
+    public void testReopeningWithAnotherShardCountFails() {
+        // Arrange
+        repository.save(task("Task", Task.TaskStatus.PENDING, "work", null));
+
+        // Act / Assert: Ids already handed out would map to other shards
+        assertThrows(IllegalStateException.class, () -> open(2, "id"));
+    }
+
+    private ShardedTaskRepository open(int shards, String key) {
+        return open(shards, key, 1000);
+    }
+
+    private ShardedTaskRepository open(int shards, String key, int changeSequenceBlock) {
+        return new ShardedTaskRepository(shards, "jdbc:h2:mem:" + name + "-{shard};DB_CLOSE_DELAY=-1", 2, key,
+                changeSequenceBlock, "sa", "", coordinator);
+    }
+
+    private static Task task(String title, Task.TaskStatus status, String category, LocalDate deadline) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setDescription("Description");
+        task.setStatus(status);
+        task.setCategory(category);
+        task.setDeadline(deadline);
+        return task;
+    }
+}
@@ -0,0 +1,140 @@
+package org.example.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdmissionLimiterTest {
+
+    @Test
+    public void testRejectsOnceLimitAndQueueAreFull() throws Exception {
+        // Arrange: limit 2, no queue
+        AdmissionLimiter limiter = new AdmissionLimiter("read", 2, 1, 10, 0, 10, 1000);
+
+        // Act
+        AdmissionLimiter.Permit first = limiter.tryAcquire();
+        AdmissionLimiter.Permit second = limiter.tryAcquire();
+        AdmissionLimiter.Permit third = limiter.tryAcquire();
+
+        // Assert
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNull(third);
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    public void testQueuedRequestIsAdmittedWhenASlotFreesUp() throws Exception {
+        // Arrange: limit 1, one queue slot with plenty of wait time
+        AdmissionLimiter limiter = new AdmissionLimiter("write", 1, 1, 10, 1, 5000, 1000);
+        AdmissionLimiter.Permit held = limiter.tryAcquire();
+        CompletableFuture<AdmissionLimiter.Permit> queued = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limiter.tryAcquire();
+            } catch (InterruptedException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        while (limiter.getWaiting() == 0) {
+            Thread.onSpinWait();
+        }
+
+        // Act
+        limiter.release(held, false);
+
+        // Assert
+        assertNotNull(queued.get(5, TimeUnit.SECONDS));
+        assertEquals(1, limiter.getInFlight());
+        assertEquals(0, limiter.getWaiting());
+    }
+
+    @Test
+    public void testQueuedRequestTimesOut() throws Exception {
+        // Arrange
+        AdmissionLimiter limiter = new AdmissionLimiter("read", 1, 1, 10, 5, 20, 1000);
+        limiter.tryAcquire();
+
+        // Act & Assert
+        assertNull(limiter.tryAcquire());
+        assertEquals(0, limiter.getWaiting());
+    }
+
+    @Test
+    public void testLimitGrowsWhileFastAndBacksOffOnSlowOrFailedRequests() throws Exception {
+        // Arrange: 10 slots, target latency of 1 second that these requests stay well under
+        AdmissionLimiter limiter = new AdmissionLimiter("read", 10, 2, 100, 0, 10, 1000);
+
+        // Act: several rounds with the limit fully used
+        for (int round = 0; round < 5; round++) {
+            AdmissionLimiter.Permit[] permits = new AdmissionLimiter.Permit[limiter.getLimit()];
+            for (int i = 0; i < permits.length; i++) {
+                permits[i] = limiter.tryAcquire();
+            }
+            for (AdmissionLimiter.Permit permit : permits) {
+                limiter.release(permit, false);
+            }
+        }
+        int grown = limiter.getLimit();
+        limiter.release(limiter.tryAcquire(), true);
+
+        // Assert
+        assertTrue(grown > 10, "limit should grow, was " + grown);
+        assertTrue(limiter.getLimit() < grown);
+    }
+
+    @Test
+    public void testSingleSlowRequestDoesNotCutTheLimitButSustainedSlownessDoes() throws Exception {
+        // Arrange: 200 ms target, fast requests so far
+        AdmissionLimiter limiter = new AdmissionLimiter("read", 10, 2, 100, 0, 10, 200);
+        for (int i = 0; i < 20; i++) {
+            limiter.release(limiter.tryAcquire(), false);
+        }
+
+        // Act: One request takes a second, then every request does
+        limiter.release(slow(limiter.tryAcquire()), false);
+        int afterOne = limiter.getLimit();
+        for (int i = 0; i < 30; i++) {
+            limiter.release(slow(limiter.tryAcquire()), false);
+        }
+
+        // Assert
+        assertEquals(10, afterOne);
+        assertTrue(limiter.getLimit() < 10, "limit should back off, was " + limiter.getLimit());
+    }
+
+    @Test
+    public void testIdleTrafficDoesNotGrowTheLimit() throws Exception {
+        // Arrange
+        AdmissionLimiter limiter = new AdmissionLimiter("read", 10, 2, 100, 0, 10, 1000);
+
+        // Act: one request at a time never gets near the limit
+        for (int i = 0; i < 100; i++) {
+            limiter.release(limiter.tryAcquire(), false);
+        }
+
+        // Assert
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    public void testLimitNeverDropsBelowTheMinimum() throws Exception {
+        // Arrange
+        AdmissionLimiter limiter = new AdmissionLimiter("write", 10, 3, 100, 0, 10, 1000);
+
+        // Act: At most one cut per round of requests, so this takes a while
+        for (int i = 0; i < 200; i++) {
+            limiter.release(limiter.tryAcquire(), true);
+        }
+
+        // Assert
+        assertEquals(3, limiter.getLimit());
+    }
+
+    // Same permit, admitted a second ago
+    private static AdmissionLimiter.Permit slow(AdmissionLimiter.Permit permit) {
+        return new AdmissionLimiter.Permit(permit.startNanos() - TimeUnit.SECONDS.toNanos(1), permit.inFlightAtStart());
+    }
+}
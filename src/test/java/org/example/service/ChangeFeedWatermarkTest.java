@@ -0,0 +1,93 @@
+package org.example.service;
+
+import org.example.repository.TaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ChangeFeedWatermarkTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    private ChangeFeedWatermark watermark;
+
+    // Transaction synchronizations are per thread, so the open writer gets a thread of its own
+    private final ExecutorService writer = Executors.newSingleThreadExecutor();
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        watermark = new ChangeFeedWatermark(taskRepository);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        writer.shutdownNow();
+    }
+
+    @Test
+    public void testOpenWriterHoldsTheWatermarkBelowItsValues() throws Exception {
+        // Arrange: A writer starts when 10 is the last value taken and takes 11, a second writer takes 12 and commits
+        when(taskRepository.currentChangeSequence()).thenReturn(10L);
+        writer.submit(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            watermark.enter();
+        }).get();
+        when(taskRepository.currentChangeSequence()).thenReturn(12L);
+
+        // Act
+        long whileOpen = watermark.current();
+        writer.submit(() -> complete(TransactionSynchronization.STATUS_COMMITTED)).get();
+        long afterCommit = watermark.current();
+
+        // Assert
+        assertEquals(10L, whileOpen);
+        assertEquals(12L, afterCommit);
+    }
+
+    @Test
+    public void testEnteringTwiceInOneTransactionRegistersOnce() {
+        // Arrange
+        when(taskRepository.currentChangeSequence()).thenReturn(5L);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            watermark.enter();
+            watermark.enter();
+            assertEquals(5L, watermark.current());
+            complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+            when(taskRepository.currentChangeSequence()).thenReturn(7L);
+
+            // Assert: A rollback releases the mark as well
+            assertEquals(7L, watermark.current());
+            verify(taskRepository, times(3)).currentChangeSequence();
+        } finally {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.clear();
+            }
+        }
+    }
+
+    @Test
+    public void testEnterOutsideATransactionFails() {
+        // Act & Assert: Without a transaction there is no commit to wait for
+        assertThrows(IllegalStateException.class, () -> watermark.enter());
+    }
+
+    // What the transaction manager does when the transaction ends
+    private static void complete(int status) {
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(status));
+        TransactionSynchronizationManager.clear();
+    }
+}
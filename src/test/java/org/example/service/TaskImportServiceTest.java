@@ -0,0 +1,183 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.event.TaskEvent;
+import org.example.model.ImportSummary;
+import org.example.model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class TaskImportServiceTest {
+
+    private TaskService taskService;
+    private ApplicationEventPublisher eventPublisher;
+    private TaskImportService importService;
+
+    @BeforeEach
+    public void setUp() {
+        taskService = mock(TaskService.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        when(taskService.storeImportedTasks(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        importService = new TaskImportService(taskService, new TaskValidator(new SimpleMeterRegistry()), eventPublisher,
+                new ObjectMapper().registerModule(new JavaTimeModule()), 2, 10, 200);
+    }
+
+    @Test
+    public void testCsvImportStoresValidRowsInBatchesAndReportsRejectedLines() throws Exception {
+        // Arrange: Columns in their own order, a quoted field spanning two lines, and three bad rows
+        String csv = """
+                category,title,description,deadline,status
+                Work,Write report,"Quarterly numbers, \"\"final\"\"",2024-12-31,PENDING
+                Home,Buy groceries,"Milk
+                and bread",,completed
+                Home,A,Too short title,,
+                Home,Fix bike,Chain is loose,31.12.2024,
+                Home,Call bank
+                Work,Plan trip,Book the hotel,,
+                """;
+
+        // Act
+        ImportSummary summary = importService.importTasks(stream(csv), TaskImportService.Format.CSV);
+
+        // Assert: Line numbers point at where each rejected record starts
+        assertEquals(3, summary.accepted());
+        assertEquals(3, summary.rejected());
+        assertEquals(List.of(5L, 6L, 7L), summary.errors().stream().map(ImportSummary.RejectedRow::line).toList());
+        assertEquals("Expected 5 fields but found 2", summary.errors().get(2).reason());
+        assertFalse(summary.errorsTruncated());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Task>> batches = ArgumentCaptor.forClass(List.class);
+        verify(taskService, times(2)).storeImportedTasks(batches.capture());
+        Task report = batches.getAllValues().get(0).get(0);
+        assertEquals("Quarterly numbers, \"final\"", report.getDescription());
+        assertEquals(LocalDate.of(2024, 12, 31), report.getDeadline());
+        Task groceries = batches.getAllValues().get(0).get(1);
+        assertEquals("Milk\nand bread", groceries.getDescription());
+        assertEquals(Task.TaskStatus.COMPLETED, groceries.getStatus());
+        assertNull(groceries.getDeadline());
+        verify(eventPublisher, times(1)).publishEvent(any(TaskEvent.class));
+    }
+
+    @Test
+    public void testStrayQuoteIsRejectedOnceTheRecordOutgrowsTheCap() throws Exception {
+        // Arrange: The quote on line 2 never closes, so the record runs on into line 3 and past 200 characters
+        String csv = "title,description\n"
+                + "Write report,\"Stray quote\n"
+                + "x".repeat(300) + "\n"
+                + "Buy groceries,Milk and bread\n"
+                + "Plan trip,Book the hotel\n";
+
+        // Act
+        ImportSummary summary = importService.importTasks(stream(csv), TaskImportService.Format.CSV);
+
+        // Assert: The record is dropped up to the end of the line it overflowed on, the rows after it still count
+        assertEquals(2, summary.accepted());
+        assertEquals(List.of(new ImportSummary.RejectedRow(2, "Record is longer than 200 characters")), summary.errors());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Task>> batch = ArgumentCaptor.forClass(List.class);
+        verify(taskService).storeImportedTasks(batch.capture());
+        assertEquals(List.of("Buy groceries", "Plan trip"), batch.getValue().stream().map(Task::getTitle).toList());
+    }
+
+    @Test
+    public void testNdjsonImportSkipsMalformedAndInvalidLines() throws Exception {
+        // Arrange
+        String ndjson = """
+                {"title":"Write report","description":"Quarterly numbers","deadline":"2024-12-31"}
+
+                {"title":"Broken",
+                {"title":"No","description":"Title too short"}
+                {"id":42,"title":"Buy groceries","description":"Milk and bread"}
+                """;
+
+        // Act
+        ImportSummary summary = importService.importTasks(stream(ndjson), TaskImportService.Format.NDJSON);
+
+        // Assert: Ids from the file are not used, the store hands out new ones
+        assertEquals(2, summary.accepted());
+        assertEquals(List.of(3L, 4L), summary.errors().stream().map(ImportSummary.RejectedRow::line).toList());
+        assertTrue(summary.errors().get(0).reason().startsWith("Malformed JSON"));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Task>> batch = ArgumentCaptor.forClass(List.class);
+        verify(taskService).storeImportedTasks(batch.capture());
+        assertNull(batch.getValue().get(1).getId());
+    }
+
+    @Test
+    public void testOnlyTheFirstErrorsAreListedAndNothingStoredPublishesNoEvent() throws Exception {
+        // Arrange: 12 invalid rows, the summary lists at most 10
+        StringBuilder csv = new StringBuilder("title,description\n");
+        for (int i = 0; i < 12; i++) {
+            csv.append("X,short\n");
+        }
+
+        // Act
+        ImportSummary summary = importService.importTasks(stream(csv.toString()), TaskImportService.Format.CSV);
+
+        // Assert
+        assertEquals(0, summary.accepted());
+        assertEquals(12, summary.rejected());
+        assertEquals(10, summary.errors().size());
+        assertTrue(summary.errorsTruncated());
+        verify(taskService, never()).storeImportedTasks(anyList());
+        verify(eventPublisher, never()).publishEvent(any(TaskEvent.class));
+    }
+
+    @Test
+    public void testNullLineIsRejectedAsNotAnObject() throws Exception {
+        // Arrange
+        String ndjson = """
+                null
+                {"title":"Write report","description":"Quarterly numbers"}
+                """;
+
+        // Act
+        ImportSummary summary = importService.importTasks(stream(ndjson), TaskImportService.Format.NDJSON);
+
+        // Assert
+        assertEquals(1, summary.accepted());
+        assertEquals(List.of(new ImportSummary.RejectedRow(1, "Expected a JSON object")), summary.errors());
+    }
+
+    @Test
+    public void testRefusedChunkIsRetriedRowByRowWithoutTheDatabaseMessage() throws Exception {
+        // Arrange: The database refuses the chunk and, on retry, only the second row
+        when(taskService.storeImportedTasks(anyList())).thenAnswer(invocation -> {
+            List<Task> tasks = invocation.getArgument(0);
+            if (tasks.size() > 1 || tasks.get(0).getTitle().equals("Refused")) {
+                throw new IllegalStateException("could not execute statement [INSERT INTO task ...]");
+            }
+            return tasks;
+        });
+        String ndjson = """
+                {"title":"Stored","description":"First row"}
+                {"title":"Refused","description":"Second row"}
+                """;
+
+        // Act
+        ImportSummary summary = importService.importTasks(stream(ndjson), TaskImportService.Format.NDJSON);
+
+        // Assert
+        assertEquals(1, summary.accepted());
+        assertEquals(List.of(new ImportSummary.RejectedRow(2, "Could not be stored")), summary.errors());
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
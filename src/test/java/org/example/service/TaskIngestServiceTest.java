@@ -0,0 +1,198 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.exception.IngestQueueFullException;
+import org.example.model.IngestTicket;
+import org.example.model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class TaskIngestServiceTest {
+
+    private TaskService taskService;
+    private TaskIngestService ingestService;
+    private final AtomicLong ids = new AtomicLong();
+
+    @BeforeEach
+    public void setUp() {
+        taskService = mock(TaskService.class);
+        // Hand out ids the way the repository would
+        when(taskService.addTasks(anyList())).thenAnswer(invocation -> {
+            List<Task> tasks = invocation.getArgument(0);
+            tasks.forEach(task -> task.setId(ids.incrementAndGet()));
+            return tasks;
+        });
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        ingestService.shutdown();
+    }
+
+    @Test
+    public void testQueuedTasksAreStoredInOneBatch() throws Exception {
+        // Arrange: Batches of up to 10 tasks, flushed at most 200 ms after the first one arrives
+        ingestService = newIngestService(100, 10, 200);
+
+        // Act: Three tasks arrive together
+        List<IngestTicket> tickets = List.of(
+                ingestService.submit(task("First")), ingestService.submit(task("Second")), ingestService.submit(task("Third")));
+
+        // Assert: All three tickets resolve from a single addTasks call
+        for (IngestTicket ticket : tickets) {
+            assertEquals(IngestTicket.Status.QUEUED, ticket.status());
+            assertEquals(IngestTicket.Status.STORED, awaitTicket(ticket.id()).status());
+        }
+        verify(taskService, times(1)).addTasks(anyList());
+        assertNotNull(ingestService.getTicket(tickets.get(2).id()).orElseThrow().taskId());
+    }
+
+    @Test
+    public void testFinishedTicketsDoNotLiveAsLongAsQueuedOnes() throws Exception {
+        // Arrange: Stored tickets expire right away, queued ones after 15 minutes
+        CountDownLatch release = new CountDownLatch(1);
+        when(taskService.addTasks(anyList())).thenAnswer(invocation -> {
+            release.await();
+            List<Task> tasks = invocation.getArgument(0);
+            tasks.forEach(task -> task.setId(ids.incrementAndGet()));
+            return tasks;
+        });
+        ingestService = newIngestService(100, 10, 10, 0);
+
+        // Act
+        IngestTicket ticket = ingestService.submit(task("First"));
+        Thread.sleep(50);
+        boolean keptWhileQueued = ingestService.getTicket(ticket.id()).isPresent();
+        release.countDown();
+        verify(taskService, timeout(5_000)).addTasks(anyList());
+        Thread.sleep(50);
+
+        // Assert
+        assertTrue(keptWhileQueued);
+        assertTrue(ingestService.getTicket(ticket.id()).isEmpty());
+    }
+
+    @Test
+    public void testInvalidTaskIsRejectedBeforeQueueing() {
+        // Arrange
+        ingestService = newIngestService(100, 10, 10);
+
+        // Act & Assert: Validation still happens on the request thread
+        assertThrows(ResponseStatusException.class, () -> ingestService.submit(task("A")));
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    public void testFullQueueIsRejectedWithRetryAfter() throws Exception {
+        // Arrange: The flusher gets stuck storing the first task, the queue holds one more
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch flushing = new CountDownLatch(1);
+        when(taskService.addTasks(anyList())).thenAnswer(invocation -> {
+            flushing.countDown();
+            release.await();
+            return invocation.getArgument(0);
+        });
+        ingestService = newIngestService(1, 1, 10);
+        ingestService.submit(task("First"));
+        assertTrue(flushing.await(5, TimeUnit.SECONDS));
+        ingestService.submit(task("Second"));
+
+        // Act & Assert
+        IngestQueueFullException ex = assertThrows(IngestQueueFullException.class, () -> ingestService.submit(task("Third")));
+        assertEquals(1, ex.getRetryAfterSeconds());
+        release.countDown();
+    }
+
+    @Test
+    public void testShutdownDrainsTheQueue() throws Exception {
+        // Arrange: A long flush interval, so nothing would be flushed on its own yet
+        ingestService = newIngestService(100, 100, 60_000);
+        IngestTicket ticket = ingestService.submit(task("Pending"));
+
+        // Act
+        ingestService.shutdown();
+
+        // Assert: The queued task was stored before shutdown returned, new tasks are refused
+        assertEquals(IngestTicket.Status.STORED, ingestService.getTicket(ticket.id()).orElseThrow().status());
+        assertThrows(ResponseStatusException.class, () -> ingestService.submit(task("Too late")));
+    }
+
+    @Test
+    public void testShutdownLetsARunningFlushFinish() throws Exception {
+        // Arrange: The flusher is in the middle of storing a batch
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch flushing = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        when(taskService.addTasks(anyList())).thenAnswer(invocation -> {
+            flushing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                interrupted.set(true);
+                throw ex;
+            }
+            List<Task> tasks = invocation.getArgument(0);
+            tasks.forEach(task -> task.setId(ids.incrementAndGet()));
+            return tasks;
+        });
+        ingestService = newIngestService(100, 10, 10);
+        IngestTicket first = ingestService.submit(task("Being stored"));
+        assertTrue(flushing.await(5, TimeUnit.SECONDS));
+        IngestTicket second = ingestService.submit(task("Queued behind it"));
+
+        // Act: Shut down while the batch is still being stored
+        Thread stopper = new Thread(() -> {
+            try {
+                ingestService.shutdown();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        stopper.start();
+        Thread.sleep(100);
+        release.countDown();
+        stopper.join(5_000);
+
+        // Assert: The running flush wasn't interrupted and both tasks were stored
+        assertFalse(interrupted.get());
+        assertEquals(IngestTicket.Status.STORED, ingestService.getTicket(first.id()).orElseThrow().status());
+        assertEquals(IngestTicket.Status.STORED, ingestService.getTicket(second.id()).orElseThrow().status());
+    }
+
+    private TaskIngestService newIngestService(int queueSize, int batchSize, long flushIntervalMillis) {
+        return newIngestService(queueSize, batchSize, flushIntervalMillis, 60);
+    }
+
+    private TaskIngestService newIngestService(int queueSize, int batchSize, long flushIntervalMillis,
+                                               long finishedTicketTtlSeconds) {
+        return new TaskIngestService(taskService, new TaskValidator(new SimpleMeterRegistry()), new SimpleMeterRegistry(),
+                false, queueSize, batchSize, flushIntervalMillis, 1, 15, finishedTicketTtlSeconds, 100_000, 5_000);
+    }
+
+    private IngestTicket awaitTicket(String id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        IngestTicket ticket = ingestService.getTicket(id).orElseThrow();
+        while (ticket.status() == IngestTicket.Status.QUEUED && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            ticket = ingestService.getTicket(id).orElseThrow();
+        }
+        return ticket;
+    }
+
+    private static Task task(String title) {
+        return new Task(null, title, "Ingested task", LocalDate.now(), "Category");
+    }
+}
@@ -0,0 +1,192 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.model.ReminderCursor;
+import org.example.model.SentReminder;
+import org.example.model.Task;
+import org.example.model.TaskReminder;
+import org.example.repository.ReminderCursorRepository;
+import org.example.repository.SentReminderRepository;
+import org.example.repository.memory.InMemoryTaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class TaskReminderServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 10);
+
+    @TempDir
+    Path dir;
+
+    private InMemoryTaskRepository taskRepository;
+    private final List<TaskReminder> sent = new ArrayList<>();
+    private final AtomicReference<ReminderCursor> storedCursor = new AtomicReference<>();
+    private final Map<Long, SentReminder> sentReminders = new HashMap<>();
+    private TaskReminderService reminderService;
+
+    @BeforeEach
+    public void setUp() {
+        taskRepository = new InMemoryTaskRepository(dir.resolve("tasks.log").toString(), false, 256);
+        // Keep the cursor the way the database would
+        ReminderCursorRepository cursorRepository = mock(ReminderCursorRepository.class);
+        when(cursorRepository.findById(anyString())).thenAnswer(invocation -> Optional.ofNullable(storedCursor.get()));
+        when(cursorRepository.save(any())).thenAnswer(invocation -> {
+            storedCursor.set(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        SentReminderRepository sentReminderRepository = mock(SentReminderRepository.class);
+        when(sentReminderRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            List<SentReminder> found = new ArrayList<>();
+            for (Object id : (Iterable<?>) invocation.getArgument(0)) {
+                Optional.ofNullable(sentReminders.get((Long) id)).ifPresent(found::add);
+            }
+            return found;
+        });
+        when(sentReminderRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            for (Object record : (Iterable<?>) invocation.getArgument(0)) {
+                sentReminders.put(((SentReminder) record).getTaskId(), (SentReminder) record);
+            }
+            return List.of();
+        });
+        // Pages of two, so the keyset walks have to continue from their cursor
+        reminderService = new TaskReminderService(taskRepository, cursorRepository, sentReminderRepository,
+                new ChangeFeedWatermark(taskRepository), sent::addAll, new SimpleMeterRegistry(), true, 3, 7, 2, 30);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        taskRepository.close();
+    }
+
+    @Test
+    public void testFirstRunRemindsAboutTasksDueWithinTheLookback() {
+        // Arrange
+        Task dueToday = save("Due today", TODAY, Task.TaskStatus.PENDING);
+        Task dueYesterday = save("Due yesterday", TODAY.minusDays(1), Task.TaskStatus.PENDING);
+        Task overdue = save("Overdue", TODAY.minusDays(5), Task.TaskStatus.PENDING);
+        save("Long forgotten", TODAY.minusDays(30), Task.TaskStatus.PENDING);
+        save("Done", TODAY.minusDays(1), Task.TaskStatus.COMPLETED);
+        save("Not due", TODAY.plusDays(1), Task.TaskStatus.PENDING);
+
+        // Act
+        int count = reminderService.scan(TODAY);
+
+        // Assert: Reminders in deadline order, and an escalation for the task overdue for more than 3 days
+        assertEquals(4, count);
+        assertEquals(List.of(overdue.getId(), dueYesterday.getId(), dueToday.getId()), ids(TaskReminder.Level.REMINDER));
+        assertEquals(List.of(overdue.getId()), ids(TaskReminder.Level.ESCALATION));
+    }
+
+    @Test
+    public void testLaterRunsOnlySendWhatBecameDueSince() {
+        // Arrange
+        Task dueToday = save("Due today", TODAY, Task.TaskStatus.PENDING);
+        Task dueTomorrow = save("Due tomorrow", TODAY.plusDays(1), Task.TaskStatus.PENDING);
+        reminderService.scan(TODAY);
+        sent.clear();
+
+        // Act: Same day again, then the next day
+        int sameDay = reminderService.scan(TODAY);
+        int nextDay = reminderService.scan(TODAY.plusDays(1));
+
+        // Assert
+        assertEquals(0, sameDay);
+        assertEquals(1, nextDay);
+        assertEquals(List.of(dueTomorrow.getId()), ids(TaskReminder.Level.REMINDER));
+
+        // Act: Three days on, the first task escalates
+        sent.clear();
+        reminderService.scan(TODAY.plusDays(3));
+        assertEquals(List.of(dueToday.getId()), ids(TaskReminder.Level.ESCALATION));
+    }
+
+    @Test
+    public void testTasksWrittenBehindTheMarkAreFoundThroughTheirChange() {
+        // Arrange: A first run moves the marks to today
+        reminderService.scan(TODAY);
+
+        // Act: A task created with yesterday's deadline and one reopened long after its deadline
+        Task late = save("Created late", TODAY.minusDays(1), Task.TaskStatus.PENDING);
+        Task reopened = save("Reopened", TODAY.minusDays(10), Task.TaskStatus.PENDING);
+        int count = reminderService.scan(TODAY);
+
+        // Assert
+        assertEquals(2, count);
+        assertEquals(List.of(late.getId()), ids(TaskReminder.Level.REMINDER));
+        assertEquals(List.of(reopened.getId()), ids(TaskReminder.Level.ESCALATION));
+    }
+
+    @Test
+    public void testEditingAnOverdueTaskDoesNotRemindAgain() {
+        // Arrange: An overdue task already reminded and escalated, and one only reminded
+        Task escalated = save("Escalated", TODAY.minusDays(5), Task.TaskStatus.PENDING);
+        Task reminded = save("Reminded", TODAY.minusDays(1), Task.TaskStatus.PENDING);
+        reminderService.scan(TODAY);
+        sent.clear();
+
+        // Act: Both are edited without touching the deadline, and a third has its deadline moved back
+        escalated.setTitle("Escalated, renamed");
+        restamp(escalated);
+        reminded.setDescription("New description");
+        restamp(reminded);
+        Task movedBack = save("Moved back", TODAY.plusDays(5), Task.TaskStatus.PENDING);
+        reminderService.scan(TODAY);
+        movedBack.setDeadline(TODAY.minusDays(2));
+        restamp(movedBack);
+        int count = reminderService.scan(TODAY);
+
+        // Assert: Only the new deadline is reminded about
+        assertEquals(1, count);
+        assertEquals(List.of(movedBack.getId()), ids(TaskReminder.Level.REMINDER));
+        assertEquals(List.of(), ids(TaskReminder.Level.ESCALATION));
+    }
+
+    @Test
+    public void testChangeCursorMovesUpToTheWatermarkWhenNothingChangedIsDue() {
+        // Arrange: A first run, then many writes to tasks that are not due
+        reminderService.scan(TODAY);
+        for (int i = 0; i < 5; i++) {
+            save("Not due " + i, TODAY.plusDays(10), Task.TaskStatus.PENDING);
+        }
+
+        // Act
+        int count = reminderService.scan(TODAY);
+
+        // Assert: The next run starts after those writes instead of reading them again
+        assertEquals(0, count);
+        assertEquals(taskRepository.currentChangeSequence(), storedCursor.get().getModSeq());
+    }
+
+    private void restamp(Task task) {
+        task.setModSeq(taskRepository.nextChangeSequences(1).get(0));
+        taskRepository.save(task);
+    }
+
+    private Task save(String title, LocalDate deadline, Task.TaskStatus status) {
+        Task task = new Task(null, title, "Description", deadline, "Category");
+        task.setStatus(status);
+        task.setModSeq(taskRepository.nextChangeSequences(1).get(0));
+        return taskRepository.save(task);
+    }
+
+    private List<Long> ids(TaskReminder.Level level) {
+        return sent.stream().filter(reminder -> reminder.level() == level).map(TaskReminder::taskId).toList();
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.service;
+
+import org.example.model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskSearchIndexTest {
+
+    private TaskSearchIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new TaskSearchIndex();
+        index.put(task(1L, "Buy groceries", "Milk, bread and butter", 0L));
+        index.put(task(2L, "Write report", "Quarterly numbers for the groceries budget", 0L));
+        index.put(task(3L, "Butter the bread", "Breakfast", 0L));
+    }
+
+    @Test
+    public void testTitleMatchesRankAboveDescriptionMatches() {
+        // Act
+        List<Long> ids = index.search("groceries", 10);
+
+        // Assert: Task 1 has the word in its title, task 2 only in its description
+        assertEquals(List.of(1L, 2L), ids);
+    }
+
+    @Test
+    public void testLastTermMatchesAsPrefixAndAllTermsAreRequired() {
+        // Act & Assert: "bre" matches "bread" and "breakfast", "butter bre" needs both words
+        assertEquals(List.of(3L, 1L), index.search("bre", 10));
+        assertEquals(List.of(3L, 1L), index.search("Butter BRE", 10));
+        assertEquals(List.of(), index.search("report bread", 10));
+        assertEquals(List.of(), index.search("  ", 10));
+    }
+
+    @Test
+    public void testUpdatesReplaceOldTermsAndOlderVersionsAreIgnored() {
+        // Act: Rename task 1, then replay its original version
+        index.put(task(1L, "Call the bank", "About the mortgage", 1L));
+        index.put(task(1L, "Buy groceries", "Milk, bread and butter", 0L));
+
+        // Assert: Only the new text is searchable
+        assertEquals(List.of(2L), index.search("groceries", 10));
+        assertEquals(List.of(1L), index.search("bank", 10));
+    }
+
+    @Test
+    public void testRemoveDropsTheTaskAndLimitKeepsTheBestHits() {
+        // Act
+        index.remove(3L);
+
+        // Assert
+        assertEquals(List.of(1L), index.search("butter", 10));
+        assertEquals(List.of(1L), index.search("groceries", 1));
+        assertEquals(2, index.size());
+    }
+
+    private static Task task(Long id, String title, String description, Long version) {
+        Task task = new Task(id, title, description, LocalDate.now(), "Category");
+        task.setVersion(version);
+        return task;
+    }
+}
@@ -1,20 +1,39 @@
 package org.example.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.event.TaskCountsChanged;
+import org.example.event.TaskEvent;
+import org.example.exception.TaskNotFoundException;
+import org.example.exception.TaskVersionMismatchException;
 import org.example.model.Task;
+import org.example.model.TaskChanges;
+import org.example.model.TaskCount;
+import org.example.model.TaskPage;
+import org.example.model.TaskTombstone;
 import org.example.repository.TaskRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 public class TaskServiceTest {
@@ -22,13 +41,36 @@ public class TaskServiceTest {
     @Mock
     private TaskRepository taskRepository;
 
-    @InjectMocks
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ChangeFeedWatermark changeFeedWatermark;
+
+    @Mock
+    private TombstonePruner tombstonePruner;
+
+    private MeterRegistry meterRegistry;
+
+    private ObjectMapper objectMapper;
+
     private TaskService taskService;
 
     @BeforeEach
     public void setUp() {
         // Initializes mocks annotated with @Mock before each test
         MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        // The JPA repository: every call joins the service transaction
+        when(taskRepository.joinsTransactions()).thenReturn(true);
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        taskService = new TaskService(taskRepository, eventPublisher, new TaskValidator(meterRegistry), objectMapper,
+                changeFeedWatermark, tombstonePruner, meterRegistry, "query");
+        // Every write has committed unless a test says otherwise
+        when(changeFeedWatermark.current()).thenReturn(Long.MAX_VALUE);
+        // Hand out change sequence values 1..n for every write
+        when(taskRepository.nextChangeSequences(anyInt()))
+                .thenAnswer(invocation -> LongStream.rangeClosed(1, invocation.<Integer>getArgument(0)).boxed().toList());
     }
 
     @Test
@@ -85,9 +127,10 @@ public class TaskServiceTest {
         // Act: Save the task using the service
         Task savedTask = taskService.addTask(task);
 
-        // Assert: Verify the saved task's title and that save was called once
+        // Assert: Verify the saved task's title, that save was called once and listeners were told
         assertEquals(task.getTitle(), savedTask.getTitle());
         verify(taskRepository, times(1)).save(task);
+        verify(eventPublisher, times(1)).publishEvent(TaskEvent.created(task));
     }
 
     @Test
@@ -120,19 +163,45 @@ public class TaskServiceTest {
 
     @Test
     public void testDeleteTaskSuccess() {
-        // Arrange: Create a mock task and set up the repository to return it when findById is called
-        Task task = new Task(1L, "Title", "Description", LocalDate.now(), "Category");
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));  // Mock task found
+        // Arrange: The repository finds the task when writing its tombstone
+        when(taskRepository.deleteWithTombstone(1L)).thenReturn(1);
 
         // Act: Call deleteTask with a valid ID
         taskService.deleteTask(1L);
 
-        // Assert: Verify that findById was called once and delete was called once with the correct task
-        verify(taskRepository, times(1)).findById(1L);
-        verify(taskRepository, times(1)).delete(task);  // Change this to delete(task) instead of deleteById
+        // Assert: The task is tombstoned and removed in one repository call, without reading it first
+        verify(taskRepository, times(1)).deleteWithTombstone(1L);
+        verify(taskRepository, never()).findLockedById(any());
+        verify(eventPublisher, times(1)).publishEvent(TaskEvent.deleted(1L));
+        verify(eventPublisher, times(1)).publishEvent(TaskCountsChanged.recountAll());
     }
 
+    @Test
+    public void testDeleteTaskWithCountersMovesTheCounts() {
+        // Arrange: The task is read and locked first so its counts can leave with it
+        TaskService counting = countingTaskService();
+        Task task = new Task(1L, "Title", "Description", LocalDate.of(2024, 1, 1), "Category");
+        when(taskRepository.findLockedById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.deleteWithTombstone(1L)).thenReturn(1);
+
+        // Act
+        counting.deleteTask(1L);
+
+        // Assert
+        verify(eventPublisher, times(1)).publishEvent(new TaskCountsChanged(List.of(
+                new TaskCount("Category", Task.TaskStatus.PENDING, LocalDate.of(2024, 1, 1), -1)), false));
+    }
 
+    @Test
+    public void testDeleteTaskTaskNotFound() {
+        // Arrange: There was nothing to tombstone for the id
+        when(taskRepository.deleteWithTombstone(1L)).thenReturn(0);
+
+        // Act & Assert: A missing task is reported from the row count
+        Exception exception = assertThrows(TaskNotFoundException.class, () -> taskService.deleteTask(1L));
+        assertEquals("Task not found.", exception.getMessage());
+        verify(eventPublisher, never()).publishEvent(TaskEvent.deleted(1L));
+    }
 
     @Test
     public void testGetTasks() {
@@ -153,8 +222,8 @@ public class TaskServiceTest {
         // Arrange: Set up the mock to return empty when a task ID is not found
         when(taskRepository.findById(1L)).thenReturn(Optional.empty());
 
-        // Act & Assert: Expect a RuntimeException when updating a non-existent task
-        Exception exception = assertThrows(RuntimeException.class, () -> {
+        // Act & Assert: Expect a TaskNotFoundException (404) when updating a non-existent task
+        Exception exception = assertThrows(TaskNotFoundException.class, () -> {
             taskService.updateTask(1L, new Task(1L, "Title", "Description", LocalDate.now(), "Category"));
         });
 
@@ -182,25 +251,98 @@ public class TaskServiceTest {
 
     @Test
     public void testMarkAsCompletedExistingTaskIdMarksTaskAsCompleted() {
-        // Arrange: Create a task, set it to PENDING, and set up the mock to return it
-        Task existingTask = new Task(1L, "Title", "Description", LocalDate.now(), "Category");
-        existingTask.setStatus(Task.TaskStatus.PENDING);
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(existingTask));
-        when(taskRepository.save(any(Task.class))).thenReturn(existingTask);
+        // Arrange: The task is pending when locked, the status update hits one row and the reload returns it completed
+        LocalDate deadline = LocalDate.of(2024, 1, 1);
+        when(taskRepository.findLockedById(1L)).thenReturn(Optional.of(new Task(1L, "Title", "Description", deadline, "Category")));
+        Task completedTask = new Task(1L, "Title", "Description", deadline, "Category");
+        completedTask.setStatus(Task.TaskStatus.COMPLETED);
+        when(taskRepository.updateStatus(1L, "COMPLETED")).thenReturn(1);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(completedTask));
+
+        // Act: Mark the task as completed using the service, with stats counters on
+        Task result = countingTaskService().markAsCompleted(1L);
+
+        // Assert: The status is written with a single update, not a full save, and the task moves between counts
+        assertEquals(Task.TaskStatus.COMPLETED, result.getStatus());
+        verify(taskRepository, times(1)).updateStatus(1L, "COMPLETED");
+        verify(taskRepository, never()).save(any(Task.class));
+        verify(eventPublisher).publishEvent(new TaskCountsChanged(List.of(
+                new TaskCount("Category", Task.TaskStatus.PENDING, deadline, -1),
+                new TaskCount("Category", Task.TaskStatus.COMPLETED, deadline, 1)), false));
+    }
 
-        // Act: Mark the task as completed using the service
-        Task result = taskService.markAsCompleted(1L);
+    @Test
+    public void testCompleteTaskDoesNotReadTheTaskBack() {
+        // Arrange: The status update hits one row
+        when(taskRepository.updateStatus(1L, "COMPLETED")).thenReturn(1);
 
-        // Assert: Verify the task's status is COMPLETED and that findById and save were called once
-        assertEquals(Task.TaskStatus.COMPLETED, result.getStatus());
-        verify(taskRepository, times(1)).findById(1L);
-        verify(taskRepository, times(1)).save(existingTask);
+        // Act: Complete without asking for the task back
+        taskService.completeTask(1L);
+
+        // Assert: Without stats counters the update is the only statement
+        verify(taskRepository, never()).findById(any());
+        verify(taskRepository, never()).findLockedById(any());
+        verify(eventPublisher).publishEvent(TaskCountsChanged.recountAll());
+    }
+
+    @Test
+    public void testCompleteTasksInCategoryPublishesItsCountsOrARecount() {
+        // Arrange: Two pending tasks counted before the update
+        when(taskRepository.countByCategoryAndStatusNot("Work", Task.TaskStatus.COMPLETED))
+                .thenReturn(List.of(new TaskCount("Work", Task.TaskStatus.PENDING, null, 2)));
+        when(taskRepository.updateStatusByCategory("Work", "COMPLETED")).thenReturn(2).thenReturn(3);
+
+        TaskService counting = countingTaskService();
+
+        // Act: The first update matches the count, the second also caught a task created in between
+        counting.completeTasksInCategory("Work");
+        counting.completeTasksInCategory("Work");
+
+        // Assert
+        verify(eventPublisher).publishEvent(new TaskCountsChanged(List.of(
+                new TaskCount("Work", Task.TaskStatus.PENDING, null, -2),
+                new TaskCount("Work", Task.TaskStatus.COMPLETED, null, 2)), false));
+        verify(eventPublisher).publishEvent(TaskCountsChanged.recountAll());
+    }
+
+    @Test
+    public void testRangeWritesWithoutCountersDoNotCountFirst() {
+        // Arrange
+        when(taskRepository.updateStatusByCategory("Work", "COMPLETED")).thenReturn(2);
+        when(taskRepository.deleteWithTombstonesByStatusAndDeadlineBefore(any(), any())).thenReturn(0);
+
+        // Act
+        taskService.completeTasksInCategory("Work");
+        taskService.deleteCompletedTasksBefore(LocalDate.now());
+
+        // Assert: No GROUP BY before the statements, one recount for the update that changed rows
+        verify(taskRepository, never()).countByCategoryAndStatusNot(any(), any());
+        verify(taskRepository, never()).countByStatusAndDeadlineBefore(any(), any());
+        verify(eventPublisher, times(1)).publishEvent(TaskCountsChanged.recountAll());
+    }
+
+    @Test
+    public void testRepositoryWithoutSharedTransactionsGetsRecountsInsteadOfDeltas() {
+        // Arrange: Calls commit on their own, like the sharded repository; the batch fails on one shard
+        when(taskRepository.joinsTransactions()).thenReturn(false);
+        TaskService counting = countingTaskService();
+        when(taskRepository.updateStatus(1L, "COMPLETED")).thenReturn(1);
+        when(taskRepository.saveAll(anyList())).thenThrow(new IllegalStateException("shard down"));
+        List<Task> tasks = List.of(new Task(null, "Valid Title", "Valid description", null, "Category"));
+
+        // Act
+        counting.completeTask(1L);
+        assertThrows(IllegalStateException.class, () -> counting.addTasks(tasks));
+
+        // Assert: No locked read that would be released before the update, and the partial batch asks for a recount
+        verify(taskRepository, never()).findLockedById(any());
+        verify(eventPublisher, times(2)).publishEvent(TaskCountsChanged.recountAll());
     }
 
     @Test
     public void testMarkAsCompletedTaskNotFound() {
-        // Arrange: Set up the mock to return empty when a task ID is not found
-        when(taskRepository.findById(1L)).thenReturn(Optional.empty());
+        // Arrange: The status update does not match any row
+        when(taskRepository.updateStatus(1L, "COMPLETED")).thenReturn(0);
 
         // Act & Assert: Expect a RuntimeException when marking a non-existent task as completed
         Exception exception = assertThrows(RuntimeException.class, () -> {
@@ -210,4 +352,270 @@ public class TaskServiceTest {
         // Verify the exception message
         assertEquals("Task not found", exception.getMessage());
     }
+
+    @Test
+    public void testGetTaskPageFullPageReturnsCursor() {
+        // Arrange: The repository fills the whole page, so there may be more after it
+        List<Task> tasks = List.of(
+                new Task(4L, "Title", "Description", LocalDate.now(), "Category"),
+                new Task(7L, "Title", "Description", LocalDate.now(), "Category"));
+        when(taskRepository.findPage(eq(3L), eq(Task.TaskStatus.PENDING), isNull(), isNull(), isNull(), eq(PageRequest.of(0, 2))))
+                .thenReturn(tasks);
+
+        // Act: Ask for a page of two after id 3
+        TaskPage page = taskService.getTaskPage(3L, 2, Task.TaskStatus.PENDING, null, null, null);
+
+        // Assert: The cursor points at the last task on the page
+        assertEquals(2, page.tasks().size());
+        assertEquals(7L, page.nextCursor());
+    }
+
+    @Test
+    public void testGetTaskPageShortPageHasNoCursorAndClampsLimit() {
+        // Arrange: The repository returns less than the (clamped) page size
+        when(taskRepository.findPage(eq(0L), isNull(), isNull(), isNull(), isNull(), any()))
+                .thenReturn(List.of(new Task(1L, "Title", "Description", LocalDate.now(), "Category")));
+
+        // Act: Ask for far more than the maximum page size
+        TaskPage page = taskService.getTaskPage(null, 1_000_000, null, null, null, null);
+
+        // Assert: The last page has no cursor and the limit was capped
+        assertNull(page.nextCursor());
+        verify(taskRepository).findPage(0L, null, null, null, null, PageRequest.of(0, 1000));
+    }
+
+    @Test
+    public void testAddTasksRejectsWholeBatchWhenOneTaskIsInvalid() {
+        // Arrange: One valid and one invalid task in the same batch
+        List<Task> tasks = List.of(
+                new Task(null, "Valid Title", "Valid description", LocalDate.now(), "Category"),
+                new Task(null, "A", "Valid description", LocalDate.now(), "Category"));
+
+        // Act & Assert: The batch fails validation and nothing is saved
+        assertThrows(ResponseStatusException.class, () -> taskService.addTasks(tasks));
+        verify(taskRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    public void testUpdateTasksTaskNotFound() {
+        // Arrange: Only one of the two ids exists
+        Task existing = new Task(1L, "Old Title", "Old Description", LocalDate.now(), "Category");
+        when(taskRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(existing));
+
+        // Act & Assert: The missing id is reported and nothing is saved
+        Exception exception = assertThrows(TaskNotFoundException.class, () -> taskService.updateTasks(List.of(
+                new Task(1L, "New Title", "New Description", LocalDate.now(), "Category"),
+                new Task(2L, "New Title", "New Description", LocalDate.now(), "Category"))));
+        assertEquals("Task not found: 2", exception.getMessage());
+        verify(taskRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    public void testMarkAllAsCompletedCompletesEveryTask() {
+        // Arrange: Two pending tasks
+        Task task1 = new Task(1L, "Title", "Description", LocalDate.now(), "Category");
+        Task task2 = new Task(2L, "Title", "Description", LocalDate.now(), "Category");
+        when(taskRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(task2, task1));
+        when(taskRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act: Complete both in one call
+        List<Task> result = taskService.markAllAsCompleted(List.of(1L, 2L));
+
+        // Assert: Both are completed and returned in request order
+        assertEquals(List.of(task1, task2), result);
+        assertEquals(Task.TaskStatus.COMPLETED, task1.getStatus());
+        assertEquals(Task.TaskStatus.COMPLETED, task2.getStatus());
+    }
+
+    @Test
+    public void testGetTaskTaskNotFound() {
+        // Arrange: Set up the mock to return empty when a task ID is not found
+        when(taskRepository.findById(1L)).thenReturn(Optional.empty());
+
+        // Act & Assert: A missing task is reported as not found
+        Exception exception = assertThrows(TaskNotFoundException.class, () -> taskService.getTask(1L));
+        assertEquals("Task not found.", exception.getMessage());
+    }
+
+    @Test
+    public void testGetChangesMergesUpdatesAndDeletesInSequenceOrder() {
+        // Arrange: Two changed tasks and one tombstone in between them
+        Task first = new Task(1L, "Title", "Description", LocalDate.now(), "Category");
+        first.setModSeq(11L);
+        Task third = new Task(3L, "Title", "Description", LocalDate.now(), "Category");
+        third.setModSeq(13L);
+        when(taskRepository.findChangedSince(10L, PageRequest.of(0, 2))).thenReturn(List.of(first, third));
+        when(taskRepository.findTombstonesSince(10L, PageRequest.of(0, 2))).thenReturn(List.of(new TaskTombstone(2L, 12L)));
+
+        // Act: Ask for at most two changes after version 10
+        TaskChanges changes = taskService.getChanges(10L, 2);
+
+        // Assert: The page stops at the tombstone, so the change at 13 is picked up by the next call
+        assertEquals(List.of(first), changes.tasks());
+        assertEquals(List.of(2L), changes.deleted());
+        assertEquals(12L, changes.version());
+        assertTrue(changes.hasMore());
+    }
+
+    @Test
+    public void testGetChangesStopsAtTheWatermark() {
+        // Arrange: 13 is committed, but a write that took 12 is still open
+        Task first = new Task(1L, "Title", "Description", LocalDate.now(), "Category");
+        first.setModSeq(11L);
+        Task third = new Task(3L, "Title", "Description", LocalDate.now(), "Category");
+        third.setModSeq(13L);
+        when(taskRepository.findChangedSince(10L, PageRequest.of(0, 10))).thenReturn(List.of(first, third));
+        when(taskRepository.findTombstonesSince(10L, PageRequest.of(0, 10))).thenReturn(List.of());
+        when(changeFeedWatermark.current()).thenReturn(11L);
+
+        // Act
+        TaskChanges changes = taskService.getChanges(10L, 10);
+
+        // Assert: The client continues from 11 and gets 12 and 13 once they are both settled
+        assertEquals(List.of(first), changes.tasks());
+        assertEquals(11L, changes.version());
+        assertFalse(changes.hasMore());
+    }
+
+    @Test
+    public void testGetChangesRejectsASinceBelowPrunedTombstones() {
+        // Arrange
+        when(tombstonePruner.prunedUpTo()).thenReturn(20L);
+
+        // Act & Assert: Deletes between 10 and 20 may be gone, only a full read from 0 is still complete
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> taskService.getChanges(10L, 10));
+        assertEquals(410, exception.getStatusCode().value());
+        assertDoesNotThrow(() -> taskService.getChanges(0L, 10));
+        assertDoesNotThrow(() -> taskService.getChanges(20L, 10));
+    }
+
+    @Test
+    public void testWritesEnterTheWatermarkBeforeTakingSequenceValues() {
+        // Arrange
+        Task task = new Task(null, "Valid Title", "Valid description", LocalDate.now(), "Category");
+        when(taskRepository.save(any(Task.class))).thenReturn(task);
+        when(taskRepository.deleteWithTombstone(1L)).thenReturn(1);
+
+        // Act
+        taskService.addTask(task);
+        taskService.deleteTask(1L);
+
+        // Assert
+        var inOrder = inOrder(changeFeedWatermark, taskRepository);
+        inOrder.verify(changeFeedWatermark).enter();
+        inOrder.verify(taskRepository).nextChangeSequences(1);
+        inOrder.verify(changeFeedWatermark).enter();
+        inOrder.verify(taskRepository).deleteWithTombstone(1L);
+    }
+
+    @Test
+    public void testValidationRejectionsAreCountedByRule() {
+        // Arrange: One task with a short title and one with a short description
+        Task shortTitle = new Task(null, "A", "Valid description", LocalDate.now(), "Category");
+        Task shortDescription = new Task(null, "Valid Title", "Hi", LocalDate.now(), "Category");
+
+        // Act: Both are rejected
+        assertThrows(ResponseStatusException.class, () -> taskService.addTask(shortTitle));
+        assertThrows(ResponseStatusException.class, () -> taskService.addTask(shortTitle));
+        assertThrows(ResponseStatusException.class, () -> taskService.addTask(shortDescription));
+
+        // Assert: Each rule has its own counter
+        assertEquals(2.0, meterRegistry.counter("tasks.validation.rejected", "rule", "title_too_short").count());
+        assertEquals(1.0, meterRegistry.counter("tasks.validation.rejected", "rule", "description_too_short").count());
+    }
+
+    @Test
+    public void testNotFoundOutcomesAreCounted() {
+        // Arrange: The task does not exist
+        when(taskRepository.findById(42L)).thenReturn(Optional.empty());
+        when(taskRepository.updateStatus(42L, Task.TaskStatus.COMPLETED.name())).thenReturn(0);
+
+        // Act
+        assertThrows(TaskNotFoundException.class, () -> taskService.getTask(42L));
+        assertThrows(TaskNotFoundException.class, () -> taskService.completeTask(42L));
+
+        // Assert
+        assertEquals(2.0, meterRegistry.counter("tasks.not.found").count());
+    }
+
+    @Test
+    public void testPatchTaskChangesOnlyTheFieldsInThePatch() throws Exception {
+        // Arrange: a stored task at version 3
+        Task task = new Task(1L, "Title", "A long description", LocalDate.of(2030, 1, 1), "Work");
+        task.setVersion(3L);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.saveAndFlush(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        ObjectNode patch = (ObjectNode) objectMapper.readTree("{\"title\":\"New title\",\"category\":null,\"id\":99}");
+
+        // Act
+        Task patched = taskService.patchTask(1L, patch, 3L);
+
+        // Assert
+        assertEquals(1L, patched.getId());
+        assertEquals("New title", patched.getTitle());
+        assertEquals("A long description", patched.getDescription());
+        assertEquals(LocalDate.of(2030, 1, 1), patched.getDeadline());
+        assertNull(patched.getCategory());
+        verify(taskRepository).saveAndFlush(task);
+        verify(eventPublisher).publishEvent(any(TaskEvent.class));
+    }
+
+    @Test
+    public void testPatchTaskWithStaleVersionIsRejected() throws Exception {
+        // Arrange
+        Task task = new Task(1L, "Title", "Description", LocalDate.now(), "Work");
+        task.setVersion(4L);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        ObjectNode patch = (ObjectNode) objectMapper.readTree("{\"title\":\"Lost update\"}");
+
+        // Act & Assert
+        TaskVersionMismatchException exception = assertThrows(TaskVersionMismatchException.class,
+                () -> taskService.patchTask(1L, patch, 3L));
+        assertEquals(4L, exception.getCurrentVersion());
+        assertEquals("Title", task.getTitle());
+        verify(taskRepository, never()).saveAndFlush(any(Task.class));
+    }
+
+    @Test
+    public void testPatchTaskWithoutChangesWritesNothing() throws Exception {
+        // Arrange
+        Task task = new Task(1L, "Title", "Description", LocalDate.now(), "Work");
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        ObjectNode patch = (ObjectNode) objectMapper.readTree("{\"title\":\"Title\"}");
+
+        // Act
+        Task patched = taskService.patchTask(1L, patch, null);
+
+        // Assert
+        assertSame(task, patched);
+        verify(taskRepository, never()).saveAndFlush(any(Task.class));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    public void testPatchTaskValidatesTheMergedTask() throws Exception {
+        // Arrange
+        Task task = new Task(1L, "Title", "Description", LocalDate.now(), "Work");
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        ObjectNode patch = (ObjectNode) objectMapper.readTree("{\"title\":null}");
+
+        // Act & Assert
+        assertThrows(ResponseStatusException.class, () -> taskService.patchTask(1L, patch, null));
+        verify(taskRepository, never()).saveAndFlush(any(Task.class));
+    }
+
+    @Test
+    public void testPatchTaskTaskNotFound() throws Exception {
+        // Arrange
+        when(taskRepository.findById(1L)).thenReturn(Optional.empty());
+        ObjectNode patch = (ObjectNode) objectMapper.readTree("{\"title\":\"Title\"}");
+
+        // Act & Assert
+        assertThrows(TaskNotFoundException.class, () -> taskService.patchTask(1L, patch, null));
+    }
+
+    private TaskService countingTaskService() {
+        return new TaskService(taskRepository, eventPublisher, new TaskValidator(meterRegistry), objectMapper,
+                changeFeedWatermark, tombstonePruner, meterRegistry, "counters");
+    }
 }
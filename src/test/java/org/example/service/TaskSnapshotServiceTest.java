@@ -0,0 +1,79 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.example.event.TaskEvent;
+import org.example.model.Task;
+import org.example.model.TaskSnapshot;
+import org.example.repository.TaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TaskSnapshotServiceTest {
+
+    private TaskRepository taskRepository;
+    private TaskSnapshotService snapshotService;
+
+    @BeforeEach
+    public void setUp() {
+        taskRepository = mock(TaskRepository.class);
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        // Long debounce so the background rebuild never races the assertions below
+        snapshotService = new TaskSnapshotService(taskRepository, objectMapper, true, 60_000);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        snapshotService.shutdown();
+    }
+
+    @Test
+    public void testRepeatedReadsReuseTheSnapshot() throws Exception {
+        // Arrange: One task in the repository
+        when(taskRepository.findAll()).thenReturn(List.of(new Task(1L, "Title", "Description", LocalDate.of(2024, 1, 2), "Category")));
+
+        // Act: Read twice without any write in between
+        TaskSnapshot first = snapshotService.current();
+        TaskSnapshot second = snapshotService.current();
+
+        // Assert: The list was queried and serialized once, and the gzip copy holds the same JSON
+        assertSame(first, second);
+        verify(taskRepository, times(1)).findAll();
+        String json = new String(first.json(), StandardCharsets.UTF_8);
+        assertTrue(json.contains("\"deadline\":\"2024-01-02\""));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(first.gzip()))) {
+            assertEquals(json, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testWriteEventMakesNextReadRebuild() {
+        // Arrange: The list changes between the two reads
+        when(taskRepository.findAll())
+                .thenReturn(List.of(new Task(1L, "Title", "Description", LocalDate.now(), "Category")))
+                .thenReturn(List.of());
+        TaskSnapshot before = snapshotService.current();
+
+        // Act: A write goes through the service
+        snapshotService.onTaskChanged(TaskEvent.deleted(1L));
+        TaskSnapshot after = snapshotService.current();
+
+        // Assert: The snapshot was rebuilt and the ETag changed with the content
+        verify(taskRepository, times(2)).findAll();
+        assertNotEquals(before.etag(), after.etag());
+        assertEquals("[]", new String(after.json(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.service;
+
+import org.example.event.TaskCountsChanged;
+import org.example.model.Task;
+import org.example.model.TaskStats;
+import org.example.repository.TaskRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statscounters",
+        "tasks.stats.mode=counters"
+})
+public class TaskStatsCountersIntegrationTest {
+
+    @Autowired
+    private TaskStatsService statsService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskArchiveService archiveService;
+
+    @SpyBean
+    private TaskRepository taskRepository;
+
+    @Test
+    public void testCountersFollowSingleAndBulkWritesWithoutRecounting() {
+        // Arrange: Counters loaded from an empty table
+        taskRepository.deleteAllInBatch();
+        statsService.onCountsChanged(TaskCountsChanged.recountAll());
+        assertEquals(0, statsService.getStats().total());
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            tasks.add(new Task(null, "Task " + i, "Description", yesterday.plusDays(i % 3), i % 2 == 0 ? "Work" : "Home"));
+        }
+
+        // Act: Single writes, an import chunk and every bulk write
+        List<Task> saved = taskService.addTasks(tasks);
+        taskService.storeImportedTasks(new ArrayList<>(List.of(
+                new Task(null, "Imported", "Description", yesterday, "Work"))));
+        taskService.markAsCompleted(saved.get(0).getId());
+        taskService.completeTask(saved.get(1).getId());
+        taskService.deleteTask(saved.get(2).getId());
+        Task moved = saved.get(3);
+        moved.setCategory("Garden");
+        taskService.updateTask(moved.getId(), moved);
+        taskService.completeTasksInCategory("Work");
+        taskService.deleteCompletedTasksBefore(yesterday.plusDays(1));
+        archiveService.archiveCompletedBefore(Instant.now().plusSeconds(60));
+        TaskStats counted = statsService.getStats();
+
+        // Assert: Same numbers as the GROUP BY queries, which the counters only ran once at the start
+        verify(taskRepository, times(1)).countDeadlinesByStatus(Task.TaskStatus.PENDING);
+        TaskStats queried = TaskStats.of(taskRepository.countByCategoryAndStatus(),
+                taskRepository.countByStatusAndDeadlineBefore(Task.TaskStatus.PENDING, LocalDate.now()));
+        assertEquals(queried, counted);
+        assertTrue(counted.total() > 0);
+    }
+}
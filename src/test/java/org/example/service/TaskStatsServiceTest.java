@@ -0,0 +1,136 @@
+package org.example.service;
+
+import org.example.event.TaskCountsChanged;
+import org.example.model.CategoryStatusCount;
+import org.example.model.Task;
+import org.example.model.TaskCount;
+import org.example.model.TaskStats;
+import org.example.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class TaskStatsServiceTest {
+
+    private TaskRepository taskRepository;
+
+    @BeforeEach
+    public void setUp() {
+        taskRepository = mock(TaskRepository.class);
+    }
+
+    @Test
+    public void testQueryModeBuildsStatsFromGroupByRows() {
+        // Arrange: Two categories, one overdue task
+        TaskStatsService statsService = new TaskStatsService(taskRepository, "query");
+        when(taskRepository.countByCategoryAndStatus()).thenReturn(List.of(
+                new CategoryStatusCount("Work", Task.TaskStatus.PENDING, 2L),
+                new CategoryStatusCount("Work", Task.TaskStatus.COMPLETED, 1L),
+                new CategoryStatusCount(null, Task.TaskStatus.PENDING, 1L)));
+        when(taskRepository.countByStatusAndDeadlineBefore(Task.TaskStatus.PENDING, LocalDate.now()))
+                .thenReturn(List.of(new CategoryStatusCount("Work", Task.TaskStatus.PENDING, 1L)));
+
+        // Act
+        TaskStats stats = statsService.getStats();
+
+        // Assert
+        assertEquals(4, stats.total());
+        assertEquals(Map.of("PENDING", 3L, "COMPLETED", 1L), stats.byStatus());
+        assertEquals(Map.of("PENDING", 2L, "COMPLETED", 1L), stats.byCategory().get("Work"));
+        assertEquals(Map.of("PENDING", 1L), stats.byCategory().get(""));
+        assertEquals(1, stats.overdue());
+        assertEquals(Map.of("Work", 1L), stats.overdueByCategory());
+        verify(taskRepository, never()).countDeadlinesByStatus(any());
+    }
+
+    @Test
+    public void testCounterModeAppliesDeltasWithoutQueryingAgain() {
+        // Arrange: One overdue and one future task in the table
+        TaskStatsService statsService = new TaskStatsService(taskRepository, "counters");
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        when(taskRepository.countByCategoryAndStatus()).thenReturn(List.of(
+                new CategoryStatusCount("Work", Task.TaskStatus.PENDING, 2L)));
+        when(taskRepository.countDeadlinesByStatus(Task.TaskStatus.PENDING)).thenReturn(List.of(
+                new TaskCount("Work", Task.TaskStatus.PENDING, yesterday, 1L),
+                new TaskCount("Work", Task.TaskStatus.PENDING, tomorrow, 1L)));
+        assertEquals(1, statsService.getStats().overdue());
+
+        // Act: Create a task, complete the overdue one, move the other to a new category, delete the new one
+        Task created = new Task(3L, "New", "Description", LocalDate.now(), "Home");
+        statsService.onCountsChanged(TaskCountsChanged.builder().add(created).build());
+        statsService.onCountsChanged(TaskCountsChanged.builder()
+                .change("Work", Task.TaskStatus.PENDING, yesterday, -1)
+                .change("Work", Task.TaskStatus.COMPLETED, yesterday, 1).build());
+        Task future = new Task(2L, "Future", "Description", tomorrow, "Work");
+        TaskCountsChanged.Builder move = TaskCountsChanged.builder().remove(future);
+        future.setCategory("Home");
+        statsService.onCountsChanged(move.add(future).build());
+        statsService.onCountsChanged(TaskCountsChanged.builder().remove(created).build());
+        TaskStats stats = statsService.getStats();
+
+        // Assert: The counters match the table without a second count
+        assertEquals(2, stats.total());
+        assertEquals(Map.of("COMPLETED", 1L), stats.byCategory().get("Work"));
+        assertEquals(Map.of("PENDING", 1L), stats.byCategory().get("Home"));
+        assertEquals(0, stats.overdue());
+        verify(taskRepository, times(1)).countByCategoryAndStatus();
+    }
+
+    @Test
+    public void testCounterModeAppliesBulkDeltasAndRecountsOnlyWhenAsked() {
+        // Arrange
+        TaskStatsService statsService = new TaskStatsService(taskRepository, "counters");
+        when(taskRepository.countByCategoryAndStatus())
+                .thenReturn(List.of(new CategoryStatusCount("Work", Task.TaskStatus.COMPLETED, 5L)))
+                .thenReturn(List.of());
+        assertEquals(5, statsService.getStats().total());
+
+        // Act: A bulk delete that knows what it removed, then one that doesn't
+        statsService.onCountsChanged(TaskCountsChanged.builder().change("Work", Task.TaskStatus.COMPLETED, null, -3).build());
+        long afterDelta = statsService.getStats().total();
+        statsService.onCountsChanged(TaskCountsChanged.recountAll());
+
+        // Assert: Only the second one makes the next read count the table again
+        assertEquals(2, afterDelta);
+        assertEquals(0, statsService.getStats().total());
+        verify(taskRepository, times(2)).countByCategoryAndStatus();
+    }
+
+    @Test
+    public void testCountRacingACommittingWriteIsNotKept() {
+        // Arrange: A write publishes its delta and commits while the first count runs, so the count has it already
+        TaskStatsService statsService = new TaskStatsService(taskRepository, "counters");
+        Task task = new Task(1L, "Title", "Description", null, "Work");
+        List<CategoryStatusCount> withTask = List.of(new CategoryStatusCount("Work", Task.TaskStatus.PENDING, 1L));
+        when(taskRepository.countByCategoryAndStatus()).thenAnswer(invocation -> {
+            statsService.onCountsChanged(TaskCountsChanged.builder().add(task).build());
+            return withTask;
+        }).thenReturn(withTask);
+        TransactionSynchronizationManager.initSynchronization();
+        TaskStats first;
+        try {
+            // Act: The write's after-commit runs once the count is done
+            first = statsService.getStats();
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TaskStats second = statsService.getStats();
+
+        // Assert: The racing count answered its read but wasn't kept, so the delta isn't added on top of it
+        assertEquals(1, first.total());
+        assertEquals(1, second.total());
+        verify(taskRepository, times(2)).countByCategoryAndStatus();
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.service;
+
+import org.example.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class TombstonePrunerTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private ChangeFeedWatermark changeFeedWatermark;
+
+    private TombstonePruner pruner;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        pruner = new TombstonePruner(taskRepository, changeFeedWatermark, Duration.ofDays(7));
+    }
+
+    @Test
+    public void testPrunesUpToTheWatermarkNotedARetentionPeriodAgo() {
+        // Arrange: Runs a day apart while the feed moves on by 100 changes a day
+        Instant start = Instant.parse("2024-01-01T00:00:00Z");
+        when(taskRepository.deleteTombstonesUpTo(anyLong())).thenReturn(3);
+
+        // Act
+        for (int day = 0; day < 7; day++) {
+            when(changeFeedWatermark.current()).thenReturn(100L * day);
+            assertEquals(0, pruner.prune(start.plus(Duration.ofDays(day))));
+        }
+        when(changeFeedWatermark.current()).thenReturn(800L);
+        int pruned = pruner.prune(start.plus(Duration.ofDays(8)));
+
+        // Assert: Day 0 and day 1 are a week old on day 8, everything noted since is kept
+        assertEquals(3, pruned);
+        verify(taskRepository).deleteTombstonesUpTo(100L);
+        assertEquals(100L, pruner.prunedUpTo());
+    }
+
+    @Test
+    public void testNothingIsPrunedWithinTheRetention() {
+        // Arrange
+        when(changeFeedWatermark.current()).thenReturn(50L);
+
+        // Act
+        pruner.prune(Instant.parse("2024-01-01T00:00:00Z"));
+        pruner.prune(Instant.parse("2024-01-05T00:00:00Z"));
+
+        // Assert
+        verify(taskRepository, never()).deleteTombstonesUpTo(anyLong());
+        assertEquals(0L, pruner.prunedUpTo());
+    }
+}